@@ -140,6 +140,11 @@ const API = {
         return this.request(SERVICES.restaurantService, `/products/${id}`);
     },
 
+    // Promedios de varios productos en una sola llamada (los sin calificaciones no vienen)
+    async getProductRatings(ids) {
+        return this.request(SERVICES.orderService, `/ratings/products?ids=${ids.map(encodeURIComponent).join(',')}`);
+    },
+
     // ==================== ORDERS (Order Service) ====================
     async createOrder(data) {
         return this.request(SERVICES.orderService, '/orders', {
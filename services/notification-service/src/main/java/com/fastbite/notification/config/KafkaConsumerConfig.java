@@ -0,0 +1,71 @@
+package com.fastbite.notification.config;
+
+import com.fastbite.notification.consumer.OrderEventConsumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Contenedor del consumidor de order-events.
+// Group id fijo: las réplicas se reparten las particiones. Sin auto-commit:
+// OrderEventConsumer confirma los offsets después de guardar cada lote.
+// El payload se lee como String y lo decodifica el consumidor (un mensaje ilegible no frena el lote)
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public ConcurrentMessageListenerContainer<String, String> orderEventsContainer(
+            OrderEventConsumer orderEventConsumer,
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${notifications.consumer.topic:order-events}") String topic,
+            @Value("${notifications.consumer.group-id:notification-service}") String groupId,
+            @Value("${notifications.consumer.concurrency:3}") int concurrency,
+            @Value("${notifications.consumer.max-poll-records:500}") int maxPollRecords,
+            @Value("${notifications.consumer.fetch-max-wait:100ms}") Duration fetchMaxWait,
+            @Value("${notifications.consumer.retry-interval:2s}") Duration retryInterval) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Lotes grandes: el broker junta hasta 64KB o fetch-max-wait antes de responder
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 64 * 1024);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) fetchMaxWait.toMillis());
+
+        return container(new DefaultKafkaConsumerFactory<>(props), new ContainerProperties(topic),
+                orderEventConsumer, concurrency, retryInterval);
+    }
+
+    // Separado del bean para poder correrlo contra otro ConsumerFactory (tests de throughput)
+    public static ConcurrentMessageListenerContainer<String, String> container(
+            ConsumerFactory<String, String> consumerFactory,
+            ContainerProperties containerProperties,
+            OrderEventConsumer orderEventConsumer,
+            int concurrency,
+            Duration retryInterval) {
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        containerProperties.setMessageListener(orderEventConsumer);
+
+        ConcurrentMessageListenerContainer<String, String> container = new ConcurrentMessageListenerContainer<>(
+                consumerFactory, containerProperties);
+        container.setConcurrency(concurrency);
+        // Mongo caído: el lote se reintenta sin límite (sin confirmar) en vez de perderse
+        container.setCommonErrorHandler(new DefaultErrorHandler(
+                new FixedBackOff(retryInterval.toMillis(), FixedBackOff.UNLIMITED_ATTEMPTS)));
+        return container;
+    }
+}
@@ -0,0 +1,30 @@
+package com.fastbite.notification.consumer;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Ventana acotada de claves de eventos ya guardados (las más viejas se olvidan).
+// Las claves se agregan recién después de guardar el lote: si la escritura falla,
+// la reentrega no se descarta
+public class DeduplicationWindow {
+
+    private final Map<String, Boolean> seen;
+
+    public DeduplicationWindow(int capacity) {
+        this.seen = new LinkedHashMap<>(capacity, 0.75f) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized boolean contains(String key) {
+        return seen.containsKey(key);
+    }
+
+    public synchronized void addAll(Collection<String> keys) {
+        keys.forEach(key -> seen.put(key, Boolean.TRUE));
+    }
+}
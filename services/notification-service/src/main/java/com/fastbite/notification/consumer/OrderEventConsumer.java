@@ -0,0 +1,119 @@
+package com.fastbite.notification.consumer;
+
+import com.fastbite.notification.dto.OrderEvent;
+import com.fastbite.notification.service.MetricsService;
+import com.fastbite.notification.service.NotificationService;
+import com.fastbite.notification.service.NotificationService.IncomingEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Consume order-events por lotes (un poll = un lote).
+// - La key del mensaje es el orderId: cada orden cae siempre en la misma partición y cada
+//   partición la atiende un solo hilo del contenedor (concurrency hilos en paralelo),
+//   así se respeta el orden por orden sin coordinar nada
+// - Reentregas: se descartan por origin:origin-sequence contra una ventana acotada;
+//   el índice único de eventKey cubre lo que la ventana ya olvidó (o un reinicio)
+// - Un insertMany por lote y recién después el commit de offsets. Si la escritura falla
+//   el lote no se confirma y el error handler lo reintenta
+@Component
+public class OrderEventConsumer implements BatchAcknowledgingMessageListener<String, String> {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventConsumer.class);
+
+    static final String ORIGIN_HEADER = "origin";
+    static final String SEQUENCE_HEADER = "origin-sequence";
+
+    private final NotificationService notificationService;
+    private final MetricsService metricsService;
+    private final ObjectMapper objectMapper;
+    private final DeduplicationWindow window;
+    private final Duration writeTimeout;
+
+    public OrderEventConsumer(NotificationService notificationService,
+                              MetricsService metricsService,
+                              ObjectMapper objectMapper,
+                              @Value("${notifications.dedup.window-size:100000}") int windowSize,
+                              @Value("${notifications.consumer.write-timeout:30s}") Duration writeTimeout) {
+        this.notificationService = notificationService;
+        this.metricsService = metricsService;
+        this.objectMapper = objectMapper;
+        this.window = new DeduplicationWindow(windowSize);
+        this.writeTimeout = writeTimeout;
+    }
+
+    @Override
+    public void onMessage(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        List<IncomingEvent> events = new ArrayList<>(records.size());
+        Set<String> batchKeys = new LinkedHashSet<>();
+        int duplicated = 0;
+        int invalid = 0;
+        for (ConsumerRecord<String, String> record : records) {
+            String key = eventKey(record);
+            if (window.contains(key) || !batchKeys.add(key)) {
+                duplicated++;
+                continue;
+            }
+            OrderEvent event = decode(record);
+            if (event == null) {
+                invalid++;
+                continue;
+            }
+            events.add(new IncomingEvent(key, event));
+        }
+
+        long start = System.nanoTime();
+        Integer inserted = notificationService.handleBatch(events).block(writeTimeout);
+        Duration writeTime = Duration.ofNanos(System.nanoTime() - start);
+
+        // Lote guardado: recién ahora cuenta como visto y se confirman los offsets
+        window.addAll(batchKeys);
+        acknowledgment.acknowledge();
+
+        int insertedCount = inserted != null ? inserted : 0;
+        metricsService.recordBatch(records.size(), duplicated, invalid, insertedCount, writeTime);
+        log.debug("Lote de {} eventos: {} notificaciones nuevas, {} duplicados, {} inválidos ({}ms)",
+                records.size(), insertedCount, duplicated, invalid, writeTime.toMillis());
+    }
+
+    // origin:origin-sequence lo asigna order-service al emitir; sin headers, la posición en Kafka
+    private static String eventKey(ConsumerRecord<String, String> record) {
+        String origin = header(record, ORIGIN_HEADER);
+        String sequence = header(record, SEQUENCE_HEADER);
+        if (origin != null && sequence != null) {
+            return origin + ":" + sequence;
+        }
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+
+    // Un mensaje ilegible no debe frenar la partición: se cuenta y se saltea
+    private OrderEvent decode(ConsumerRecord<String, String> record) {
+        if (record.value() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(record.value(), OrderEvent.class);
+        } catch (RuntimeException e) {
+            log.warn("Evento ilegible en {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
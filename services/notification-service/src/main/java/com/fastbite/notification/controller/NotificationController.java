@@ -0,0 +1,43 @@
+package com.fastbite.notification.controller;
+
+import com.fastbite.notification.model.Notification;
+import com.fastbite.notification.service.NotificationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Cada usuario ve y marca solo sus notificaciones (destinatario = userId del token)
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    // Últimas notificaciones del usuario; ?recipientId= de otro usuario es 403
+    @GetMapping
+    public Mono<ResponseEntity<Flux<Notification>>> getForRecipient(
+            @RequestParam(required = false) String recipientId,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        String userId = (String) authentication.getPrincipal();
+        if (recipientId != null && !recipientId.equals(userId)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return Mono.just(ResponseEntity.ok(notificationService.getForRecipient(userId, limit)));
+    }
+
+    // 404 si no existe o es de otro usuario; un error de Mongo sale como 5xx
+    @PatchMapping("/{id}/read")
+    public Mono<ResponseEntity<Notification>> markAsRead(@PathVariable String id, Authentication authentication) {
+        return notificationService.markAsRead(id, (String) authentication.getPrincipal())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
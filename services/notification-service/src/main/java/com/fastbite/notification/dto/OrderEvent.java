@@ -0,0 +1,45 @@
+package com.fastbite.notification.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Evento de orden tal como lo publica order-service en order-events (JSON compacto).
+// Tipos y estados como String: un valor nuevo en order-service no rompe el consumidor
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderEvent {
+
+    private String eventType;
+
+    private String orderId;
+
+    private String customerId;
+
+    private String status;
+
+    private Long version;
+
+    private String assignedDeliveryId;
+
+    // Solo en CREATED
+    private OrderSummary order;
+
+    private Instant timestamp;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class OrderSummary {
+
+        private String id;
+
+        private String customerId;
+    }
+}
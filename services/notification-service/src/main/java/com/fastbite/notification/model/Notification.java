@@ -0,0 +1,49 @@
+package com.fastbite.notification.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notifications")
+@CompoundIndexes({
+        @CompoundIndex(name = "recipient_created", def = "{'recipientId': 1, 'createdAt': -1}")
+})
+public class Notification {
+
+    @Id
+    private String id;
+
+    // Evento de origen + destinatario (índice único: una reentrega no duplica)
+    @Indexed(unique = true)
+    private String eventKey;
+
+    private String orderId;
+
+    // Cliente o repartidor
+    private String recipientId;
+
+    private NotificationType type;
+
+    private NotificationChannel channel;
+
+    private String title;
+
+    private String message;
+
+    private boolean read;
+
+    // Hora del evento en order-service
+    private Instant createdAt;
+}
@@ -0,0 +1,8 @@
+package com.fastbite.notification.model;
+
+// Por ahora solo se generan notificaciones IN_APP (las lee el frontend)
+public enum NotificationChannel {
+    IN_APP,
+    PUSH,
+    EMAIL
+}
@@ -0,0 +1,12 @@
+package com.fastbite.notification.model;
+
+public enum NotificationType {
+    // Al cliente
+    ORDER_RECEIVED,
+    ORDER_PREPARING,
+    ORDER_READY,
+    ORDER_ON_THE_WAY,
+    ORDER_DELIVERED,
+    // Al repartidor
+    DRIVER_ASSIGNED
+}
@@ -0,0 +1,14 @@
+package com.fastbite.notification.repository;
+
+import com.fastbite.notification.model.Notification;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Escritura de un lote entero de notificaciones en un solo insertMany
+public interface NotificationBulkRepository {
+
+    // Insert no ordenado: los eventKey ya guardados (reentregas) se saltean sin cortar el lote.
+    // Devuelve cuántas se insertaron
+    Mono<Integer> insertBatch(List<Notification> notifications);
+}
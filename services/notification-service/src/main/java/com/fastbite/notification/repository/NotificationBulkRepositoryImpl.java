@@ -0,0 +1,42 @@
+package com.fastbite.notification.repository;
+
+import com.fastbite.notification.model.Notification;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+class NotificationBulkRepositoryImpl implements NotificationBulkRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    NotificationBulkRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Integer> insertBatch(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return Mono.just(0);
+        }
+        List<Document> documents = notifications.stream()
+                .map(notification -> {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(notification, document);
+                    return document;
+                })
+                .toList();
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Notification.class))
+                .flatMap(collection -> Mono.from(collection.insertMany(documents, new InsertManyOptions().ordered(false))))
+                .map(result -> result.getInsertedIds().size())
+                // Solo claves duplicadas: el resto del lote quedó guardado
+                .onErrorResume(MongoBulkWriteException.class, e -> e.getWriteErrors().stream()
+                        .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY)
+                        ? Mono.just(e.getWriteResult().getInsertedCount())
+                        : Mono.error(e));
+    }
+}
@@ -0,0 +1,17 @@
+package com.fastbite.notification.repository;
+
+import com.fastbite.notification.model.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface NotificationRepository extends ReactiveMongoRepository<Notification, String>,
+        NotificationBulkRepository {
+
+    Flux<Notification> findByRecipientIdOrderByCreatedAtDesc(String recipientId, Pageable pageable);
+
+    Mono<Notification> findByIdAndRecipientId(String id, String recipientId);
+}
@@ -0,0 +1,50 @@
+package com.fastbite.notification.security;
+
+import com.fastbite.common.security.JwtService;
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Arma Authentication desde el Bearer (principal = userId, authority = ROLE_<rol>).
+// No es un @Component: lo registra solo SecurityConfig, dentro de la cadena de seguridad
+public class JwtAuthenticationFilter implements WebFilter {
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        Claims claims = jwtService.validateToken(authHeader.substring(7));
+        if (claims == null) {
+            return chain.filter(exchange);
+        }
+
+        String userId = claims.getSubject();
+        String role = claims.get("role", String.class);
+        if (userId == null || role == null) {
+            return chain.filter(exchange);
+        }
+
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                userId, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+    }
+}
@@ -0,0 +1,50 @@
+package com.fastbite.notification.security;
+
+import com.fastbite.common.security.JwtService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Las notificaciones piden token; qué notificaciones ve cada uno lo decide el controller
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+    // Valida localmente los tokens emitidos por user-service (misma clave jwt.secret)
+    @Bean
+    public JwtService jwtService(@Value("${jwt.secret}") String secret,
+                                 @Value("${jwt.cache-size:10000}") long cacheSize) {
+        return new JwtService(secret, cacheSize);
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtService jwtService) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                // 401 / 403 sin cuerpo (sin popup de Basic Auth)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint((exchange, ex) -> {
+                            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                            return Mono.empty();
+                        })
+                        .accessDeniedHandler((exchange, denied) -> {
+                            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+                            return Mono.empty();
+                        })
+                )
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/api/notifications/**").authenticated()
+                        .anyExchange().permitAll()
+                )
+                .addFilterAt(new JwtAuthenticationFilter(jwtService), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.fastbite.notification.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+// Métricas del consumidor de eventos (fastbite.notifications.*)
+@Service
+public class MetricsService {
+
+    private final Counter records;
+    private final Counter duplicates;
+    private final Counter invalid;
+    private final Counter inserted;
+    private final Timer batchWrite;
+
+    public MetricsService(MeterRegistry meterRegistry) {
+        this.records = Counter.builder("fastbite.notifications.records").register(meterRegistry);
+        this.duplicates = Counter.builder("fastbite.notifications.duplicates").register(meterRegistry);
+        this.invalid = Counter.builder("fastbite.notifications.invalid").register(meterRegistry);
+        this.inserted = Counter.builder("fastbite.notifications.inserted").register(meterRegistry);
+        this.batchWrite = Timer.builder("fastbite.notifications.batch_write").register(meterRegistry);
+    }
+
+    public void recordBatch(int received, int duplicated, int invalidRecords, int insertedCount, Duration writeTime) {
+        records.increment(received);
+        duplicates.increment(duplicated);
+        invalid.increment(invalidRecords);
+        inserted.increment(insertedCount);
+        batchWrite.record(writeTime);
+    }
+}
@@ -0,0 +1,113 @@
+package com.fastbite.notification.service;
+
+import com.fastbite.notification.dto.OrderEvent;
+import com.fastbite.notification.model.Notification;
+import com.fastbite.notification.model.NotificationChannel;
+import com.fastbite.notification.model.NotificationType;
+import com.fastbite.notification.repository.NotificationRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Arma las notificaciones de un lote de eventos de órdenes y las guarda en un solo insertMany.
+// Las notificaciones salen en el mismo orden que los eventos (orden por orden dentro del lote)
+@Service
+public class NotificationService {
+
+    // Evento recibido con su clave única (origin:origin-sequence)
+    public record IncomingEvent(String eventKey, OrderEvent event) {
+    }
+
+    private final NotificationRepository notificationRepository;
+
+    public NotificationService(NotificationRepository notificationRepository) {
+        this.notificationRepository = notificationRepository;
+    }
+
+    // Devuelve cuántas notificaciones nuevas se guardaron
+    public Mono<Integer> handleBatch(List<IncomingEvent> events) {
+        List<Notification> notifications = new ArrayList<>();
+        for (IncomingEvent incoming : events) {
+            Notification notification = toNotification(incoming);
+            if (notification != null) {
+                notifications.add(notification);
+            }
+        }
+        return notificationRepository.insertBatch(notifications);
+    }
+
+    public Flux<Notification> getForRecipient(String recipientId, int limit) {
+        return notificationRepository.findByRecipientIdOrderByCreatedAtDesc(recipientId,
+                PageRequest.of(0, Math.min(Math.max(limit, 1), 100)));
+    }
+
+    // Vacío si no existe o es de otro destinatario
+    public Mono<Notification> markAsRead(String id, String recipientId) {
+        return notificationRepository.findByIdAndRecipientId(id, recipientId)
+                .flatMap(notification -> {
+                    notification.setRead(true);
+                    return notificationRepository.save(notification);
+                });
+    }
+
+    // null si el evento no genera notificación (comentarios, estados sin aviso, datos faltantes)
+    private static Notification toNotification(IncomingEvent incoming) {
+        OrderEvent event = incoming.event();
+        if (event.getEventType() == null || event.getOrderId() == null) {
+            return null;
+        }
+        return switch (event.getEventType()) {
+            case "CREATED" -> event.getOrder() != null
+                    ? build(incoming, event.getOrder().getCustomerId(), NotificationType.ORDER_RECEIVED,
+                    "Pedido recibido", "Recibimos tu pedido, en breve empieza la preparación")
+                    : null;
+            case "STATUS_CHANGED" -> statusChanged(incoming);
+            case "DRIVER_ASSIGNED" -> build(incoming, event.getAssignedDeliveryId(), NotificationType.DRIVER_ASSIGNED,
+                    "Nuevo pedido asignado", "Tienes un pedido listo para retirar");
+            default -> null;
+        };
+    }
+
+    private static Notification statusChanged(IncomingEvent incoming) {
+        String customerId = incoming.event().getCustomerId();
+        String status = incoming.event().getStatus();
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case "PREPARANDO" -> build(incoming, customerId, NotificationType.ORDER_PREPARING,
+                    "En preparación", "La cocina está preparando tu pedido");
+            case "LISTO" -> build(incoming, customerId, NotificationType.ORDER_READY,
+                    "Pedido listo", "Tu pedido está listo y espera al repartidor");
+            case "EN_CAMINO" -> build(incoming, customerId, NotificationType.ORDER_ON_THE_WAY,
+                    "En camino", "Tu pedido va en camino");
+            case "ENTREGADO" -> build(incoming, customerId, NotificationType.ORDER_DELIVERED,
+                    "Pedido entregado", "¡Que lo disfrutes!");
+            default -> null;
+        };
+    }
+
+    private static Notification build(IncomingEvent incoming, String recipientId, NotificationType type,
+                                      String title, String message) {
+        if (recipientId == null) {
+            return null;
+        }
+        OrderEvent event = incoming.event();
+        return Notification.builder()
+                .eventKey(incoming.eventKey() + ":" + recipientId)
+                .orderId(event.getOrderId())
+                .recipientId(recipientId)
+                .type(type)
+                .channel(NotificationChannel.IN_APP)
+                .title(title)
+                .message(message)
+                .read(false)
+                .createdAt(event.getTimestamp() != null ? event.getTimestamp() : Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.fastbite.notification.consumer;
+
+import com.fastbite.notification.service.MetricsService;
+import com.fastbite.notification.service.NotificationService;
+import com.fastbite.notification.service.NotificationService.IncomingEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.kafka.support.Acknowledgment;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OrderEventConsumerTest {
+
+    private static final String TOPIC = "order-events";
+
+    private NotificationService notificationService;
+    private SimpleMeterRegistry meterRegistry;
+    private Acknowledgment acknowledgment;
+    private OrderEventConsumer consumer;
+    private long offset;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = mock(NotificationService.class);
+        when(notificationService.handleBatch(anyList())).thenAnswer(call -> Mono.just(call.<List<?>>getArgument(0).size()));
+        meterRegistry = new SimpleMeterRegistry();
+        acknowledgment = mock(Acknowledgment.class);
+        consumer = new OrderEventConsumer(notificationService, new MetricsService(meterRegistry),
+                JsonMapper.builder().build(), 100, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void duplicatesInsideABatchAreDropped() {
+        consumer.onMessage(List.of(record("order-1", "replica-a", 1), record("order-1", "replica-a", 1)), acknowledgment);
+
+        assertThat(keysOfBatch(1)).containsExactly("replica-a:1");
+        assertThat(meterRegistry.counter("fastbite.notifications.duplicates").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void redeliveriesFromEarlierBatchesAreDropped() {
+        consumer.onMessage(List.of(record("order-1", "replica-a", 1)), acknowledgment);
+        consumer.onMessage(List.of(record("order-1", "replica-a", 1), record("order-1", "replica-a", 2)), acknowledgment);
+
+        assertThat(keysOfBatch(2)).containsExactly("replica-a:2");
+    }
+
+    @Test
+    void sameSequenceFromAnotherOriginIsNotADuplicate() {
+        consumer.onMessage(List.of(record("order-1", "replica-a", 1), record("order-2", "replica-b", 1)), acknowledgment);
+
+        assertThat(keysOfBatch(1)).containsExactly("replica-a:1", "replica-b:1");
+    }
+
+    @Test
+    void offsetsAreCommittedAfterTheBatchIsWritten() {
+        consumer.onMessage(List.of(record("order-1", "replica-a", 1)), acknowledgment);
+
+        InOrder inOrder = inOrder(notificationService, acknowledgment);
+        inOrder.verify(notificationService).handleBatch(anyList());
+        inOrder.verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void failedWriteIsNotAcknowledgedAndItsRedeliveryIsNotDropped() {
+        when(notificationService.handleBatch(anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("Mongo caído")))
+                .thenAnswer(call -> Mono.just(call.<List<?>>getArgument(0).size()));
+
+        assertThatThrownBy(() -> consumer.onMessage(List.of(record("order-1", "replica-a", 1)), acknowledgment))
+                .hasMessageContaining("Mongo caído");
+        verify(acknowledgment, never()).acknowledge();
+
+        // El error handler reentrega el mismo lote
+        consumer.onMessage(List.of(record("order-1", "replica-a", 1)), acknowledgment);
+
+        assertThat(keysOfBatch(2)).containsExactly("replica-a:1");
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void unreadableRecordIsSkippedWithoutStoppingTheBatch() {
+        ConsumerRecord<String, String> broken = new ConsumerRecord<>(TOPIC, 0, offset++, "order-9", "{no es json");
+        consumer.onMessage(List.of(broken, record("order-1", "replica-a", 1)), acknowledgment);
+
+        assertThat(keysOfBatch(1)).containsExactly("replica-a:1");
+        assertThat(meterRegistry.counter("fastbite.notifications.invalid").count()).isEqualTo(1.0);
+        verify(acknowledgment).acknowledge();
+    }
+
+    // Claves de los eventos que llegaron a handleBatch en la llamada número "call"
+    @SuppressWarnings("unchecked")
+    private List<String> keysOfBatch(int call) {
+        ArgumentCaptor<List<IncomingEvent>> batches = ArgumentCaptor.forClass(List.class);
+        verify(notificationService, times(call)).handleBatch(batches.capture());
+        return batches.getAllValues().get(call - 1).stream().map(IncomingEvent::eventKey).toList();
+    }
+
+    private ConsumerRecord<String, String> record(String orderId, String origin, long sequence) {
+        String json = "{\"eventType\":\"STATUS_CHANGED\",\"orderId\":\"" + orderId
+                + "\",\"customerId\":\"customer-1\",\"status\":\"LISTO\"}";
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, 0, offset++, orderId, json);
+        record.headers().add(OrderEventConsumer.ORIGIN_HEADER, origin.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(OrderEventConsumer.SEQUENCE_HEADER, Long.toString(sequence).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
@@ -0,0 +1,226 @@
+package com.fastbite.notification.consumer;
+
+import com.fastbite.notification.config.KafkaConsumerConfig;
+import com.fastbite.notification.model.Notification;
+import com.fastbite.notification.repository.NotificationRepository;
+import com.fastbite.notification.service.MetricsService;
+import com.fastbite.notification.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// El contenedor real (KafkaConsumerConfig) contra un broker en memoria (MockConsumer por hilo)
+// y un repositorio en memoria con el mismo índice único de eventKey que Mongo.
+// Cada partición tiene sus órdenes, con un 5% de reentregas mezcladas.
+class OrderEventPipelineThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventPipelineThroughputTest.class);
+
+    private static final String TOPIC = "order-events";
+    private static final int PARTITIONS = 3;
+    private static final int EVENTS_PER_PARTITION = 20_000;
+    private static final int ORDERS_PER_PARTITION = 500;
+    private static final int MAX_POLL_RECORDS = 500;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] STATUSES = {"PREPARANDO", "LISTO", "EN_CAMINO", "ENTREGADO"};
+
+    private final Map<Integer, List<ConsumerRecord<String, String>>> partitions = new ConcurrentHashMap<>();
+    private final List<MockConsumer<String, String>> consumers = new CopyOnWriteArrayList<>();
+
+    // "Mongo": eventKey único y, por orden, las secuencias en el orden en que se insertaron
+    private final Map<String, Notification> stored = new ConcurrentHashMap<>();
+    private final Map<String, List<Long>> sequencesByOrder = new ConcurrentHashMap<>();
+    private final AtomicInteger inserts = new AtomicInteger();
+    private final Set<String> writerThreads = ConcurrentHashMap.newKeySet();
+
+    private ConcurrentMessageListenerContainer<String, String> container;
+    private int uniqueEvents;
+    private int totalRecords;
+
+    @BeforeEach
+    void setUp() {
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            partitions.put(partition, records(partition));
+        }
+
+        NotificationRepository repository = mock(NotificationRepository.class);
+        when(repository.insertBatch(anyList())).thenAnswer(call -> {
+            inserts.incrementAndGet();
+            writerThreads.add(Thread.currentThread().getName());
+            int inserted = 0;
+            for (Notification notification : call.<List<Notification>>getArgument(0)) {
+                if (stored.putIfAbsent(notification.getEventKey(), notification) == null) {
+                    inserted++;
+                    sequencesByOrder.computeIfAbsent(notification.getOrderId(), id -> new CopyOnWriteArrayList<>())
+                            .add(sequenceOf(notification));
+                }
+            }
+            return Mono.just(inserted);
+        });
+
+        OrderEventConsumer consumer = new OrderEventConsumer(new NotificationService(repository),
+                new MetricsService(new SimpleMeterRegistry()), JsonMapper.builder().build(),
+                100_000, Duration.ofSeconds(5));
+
+        TopicPartitionOffset[] assignment = new TopicPartitionOffset[PARTITIONS];
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            assignment[partition] = new TopicPartitionOffset(TOPIC, partition, 0L);
+        }
+        container = KafkaConsumerConfig.container(inMemoryBroker(), new ContainerProperties(assignment),
+                consumer, PARTITIONS, Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Test
+    void batchesAreWrittenOnceInOrderAndCommittedAfterTheWrite() {
+        long start = System.nanoTime();
+        container.start();
+
+        await(() -> stored.size() == uniqueEvents);
+        await(this::allCommitted);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        double perSecond = totalRecords / Math.max(elapsed.toNanos() / 1e9, 1e-3);
+        log.info("{} eventos ({} únicos) en {} lotes y {}ms: {} eventos/s",
+                totalRecords, uniqueEvents, inserts.get(), elapsed.toMillis(), Math.round(perSecond));
+
+        // Cada evento una sola vez, pese a las reentregas
+        assertThat(stored).hasSize(uniqueEvents);
+        // Un insert por poll, no por evento
+        assertThat(inserts.get()).isLessThanOrEqualTo(totalRecords / 100);
+        // Cada partición en su propio hilo
+        assertThat(writerThreads).hasSize(PARTITIONS);
+        // Dentro de cada orden las notificaciones respetan el orden de los eventos
+        assertThat(sequencesByOrder).hasSize(PARTITIONS * ORDERS_PER_PARTITION);
+        sequencesByOrder.values().forEach(sequences -> assertThat(sequences).isSorted().doesNotHaveDuplicates());
+    }
+
+    // Cada MockConsumer entrega, en su primer poll, los mensajes de las particiones asignadas
+    private ConsumerFactory<String, String> inMemoryBroker() {
+        return new ConsumerFactory<>() {
+            @Override
+            public Consumer<String, String> createConsumer(String groupId, String clientIdPrefix,
+                                                           String clientIdSuffix, Properties properties) {
+                MockConsumer<String, String> consumer = new MockConsumer<>("earliest");
+                consumer.setMaxPollRecords(MAX_POLL_RECORDS);
+                consumer.schedulePollTask(() -> consumer.assignment()
+                        .forEach(partition -> partitions.get(partition.partition()).forEach(consumer::addRecord)));
+                consumers.add(consumer);
+                return consumer;
+            }
+
+            @Override
+            public boolean isAutoCommit() {
+                return false;
+            }
+
+            @Override
+            public Map<String, Object> getConfigurationProperties() {
+                return Map.of(ConsumerConfig.GROUP_ID_CONFIG, "notification-service",
+                        ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+            }
+        };
+    }
+
+    // Offset confirmado = siguiente a leer: todo lo de la partición
+    private boolean allCommitted() {
+        if (consumers.size() < PARTITIONS) {
+            return false;
+        }
+        int done = 0;
+        for (MockConsumer<String, String> consumer : consumers) {
+            Set<TopicPartition> assigned = consumer.assignment();
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(assigned);
+            for (TopicPartition partition : assigned) {
+                OffsetAndMetadata offset = committed.get(partition);
+                if (offset != null && offset.offset() == partitions.get(partition.partition()).size()) {
+                    done++;
+                }
+            }
+        }
+        return done == PARTITIONS;
+    }
+
+    private List<ConsumerRecord<String, String>> records(int partition) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        String origin = "replica-" + partition;
+        for (int sequence = 1; sequence <= EVENTS_PER_PARTITION; sequence++) {
+            String orderId = "order-" + partition + "-" + (sequence % ORDERS_PER_PARTITION);
+            records.add(record(partition, records.size(), origin, sequence, orderId));
+            uniqueEvents++;
+            // Reentrega de un evento reciente (mismo origin:origin-sequence)
+            if (sequence % 20 == 0) {
+                records.add(record(partition, records.size(), origin, sequence - 1,
+                        "order-" + partition + "-" + ((sequence - 1) % ORDERS_PER_PARTITION)));
+            }
+        }
+        totalRecords += records.size();
+        return records;
+    }
+
+    private static ConsumerRecord<String, String> record(int partition, long offset, String origin,
+                                                         long sequence, String orderId) {
+        String json = "{\"eventType\":\"STATUS_CHANGED\",\"orderId\":\"" + orderId
+                + "\",\"customerId\":\"customer-" + orderId + "\",\"status\":\""
+                + STATUSES[(int) (sequence % STATUSES.length)] + "\"}";
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(TOPIC, partition, offset, orderId, json);
+        record.headers().add(OrderEventConsumer.ORIGIN_HEADER, origin.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(OrderEventConsumer.SEQUENCE_HEADER, Long.toString(sequence).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    // eventKey = origin:sequence:recipientId
+    private static long sequenceOf(Notification notification) {
+        return Long.parseLong(notification.getEventKey().split(":")[1]);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timeout esperando al pipeline").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
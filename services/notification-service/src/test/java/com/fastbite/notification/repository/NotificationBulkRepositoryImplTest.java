@@ -0,0 +1,130 @@
+package com.fastbite.notification.repository;
+
+import com.fastbite.notification.model.Notification;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class NotificationBulkRepositoryImplTest {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int WRITE_CONFLICT = 112;
+
+    private MongoCollection<Document> collection;
+    private NotificationBulkRepositoryImpl repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Mismos tipos simples que usa Spring Boot (Instant se guarda como fecha, no como entidad)
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        collection = mock(MongoCollection.class);
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(Notification.class)).thenReturn("notifications");
+        when(mongoTemplate.getCollection("notifications")).thenReturn(Mono.just(collection));
+        repository = new NotificationBulkRepositoryImpl(mongoTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void wholeBatchGoesInOneUnorderedInsert() {
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class)))
+                .thenReturn(Mono.just(InsertManyResult.acknowledged(Map.<Integer, BsonValue>of(
+                        0, new BsonInt32(0), 1, new BsonInt32(1)))));
+
+        StepVerifier.create(repository.insertBatch(List.of(notification("a:1"), notification("a:2"))))
+                .expectNext(2)
+                .verifyComplete();
+
+        ArgumentCaptor<List<Document>> documents = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<InsertManyOptions> options = ArgumentCaptor.forClass(InsertManyOptions.class);
+        verify(collection).insertMany(documents.capture(), options.capture());
+        assertThat(documents.getValue()).extracting(document -> document.getString("eventKey"))
+                .containsExactly("a:1", "a:2");
+        assertThat(options.getValue().isOrdered()).isFalse();
+    }
+
+    @Test
+    void duplicateKeysAreSkippedAndTheRestCounts() {
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class)))
+                .thenReturn(Mono.error(bulkFailure(2, DUPLICATE_KEY)));
+
+        StepVerifier.create(repository.insertBatch(List.of(notification("a:1"), notification("a:2"), notification("a:3"))))
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void otherWriteErrorsFailTheBatch() {
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class)))
+                .thenReturn(Mono.error(bulkFailure(1, DUPLICATE_KEY, WRITE_CONFLICT)));
+
+        StepVerifier.create(repository.insertBatch(List.of(notification("a:1"), notification("a:2"), notification("a:3"))))
+                .expectError(MongoBulkWriteException.class)
+                .verify();
+    }
+
+    @Test
+    void emptyBatchDoesNotTouchMongo() {
+        StepVerifier.create(repository.insertBatch(List.of()))
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(collection);
+    }
+
+    private static MongoBulkWriteException bulkFailure(int inserted, int... errorCodes) {
+        List<BulkWriteError> errors = new ArrayList<>();
+        for (int i = 0; i < errorCodes.length; i++) {
+            errors.add(new BulkWriteError(errorCodes[i], "error " + errorCodes[i], new BsonDocument(), i));
+        }
+        return new MongoBulkWriteException(BulkWriteResult.acknowledged(inserted, 0, 0, 0, List.of(), List.of()),
+                errors, null, new ServerAddress(), Set.of());
+    }
+
+    private static Notification notification(String eventKey) {
+        return Notification.builder()
+                .eventKey(eventKey)
+                .orderId("order-1")
+                .recipientId("customer-1")
+                .title("Pedido listo")
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.fastbite.order.client;
+
+import com.fastbite.order.dto.RestaurantDTO;
+import com.fastbite.order.model.Product;
+import com.fastbite.order.resiliency.ServiceCalls;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+// Productos y restaurantes desde restaurant-service (timeouts, hedging, circuit breaker)
+@Component
+public class RestaurantServiceClient {
+
+    private static final String SERVICE = "restaurant-service";
+
+    private final WebClient webClient;
+    private final ServiceCalls calls;
+
+    public RestaurantServiceClient(WebClient restaurantServiceWebClient, ServiceCalls calls) {
+        this.webClient = restaurantServiceWebClient;
+        this.calls = calls;
+    }
+
+    // Vacío si el producto no existe
+    public Mono<Product> getProduct(String productId) {
+        return calls.get(SERVICE, () -> webClient.get()
+                .uri("/api/products/{id}", productId)
+                .retrieve()
+                .onStatus(status -> status == HttpStatus.NOT_FOUND, response -> Mono.empty())
+                .bodyToMono(Product.class));
+    }
+
+    // Varios productos en una sola llamada (?ids=); solo vienen los que existen
+    public Mono<Map<String, Product>> getProducts(Collection<String> productIds) {
+        return calls.get(SERVICE, () -> webClient.get()
+                        .uri(uri -> uri.path("/api/products").queryParam("ids", String.join(",", productIds)).build())
+                        .retrieve()
+                        .bodyToFlux(Product.class)
+                        .collectMap(Product::getId))
+                .defaultIfEmpty(Map.of());
+    }
+
+    // Vacío si el restaurante no existe
+    public Mono<RestaurantDTO> getRestaurant(String restaurantId) {
+        return calls.get(SERVICE, () -> webClient.get()
+                .uri("/api/restaurants/{id}", restaurantId)
+                .retrieve()
+                .onStatus(status -> status == HttpStatus.NOT_FOUND, response -> Mono.empty())
+                .bodyToMono(RestaurantDTO.class));
+    }
+}
@@ -0,0 +1,36 @@
+package com.fastbite.order.client;
+
+import com.fastbite.order.model.User;
+import com.fastbite.order.resiliency.ServiceCalls;
+import com.fastbite.order.security.ServiceTokenProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+// Perfil de usuarios desde user-service (timeouts, hedging, circuit breaker)
+@Component
+public class UserServiceClient {
+
+    private static final String SERVICE = "user-service";
+
+    private final WebClient webClient;
+    private final ServiceCalls calls;
+    private final ServiceTokenProvider serviceTokens;
+
+    public UserServiceClient(WebClient userServiceWebClient, ServiceCalls calls, ServiceTokenProvider serviceTokens) {
+        this.webClient = userServiceWebClient;
+        this.calls = calls;
+        this.serviceTokens = serviceTokens;
+    }
+
+    // Vacío si el usuario no existe. user-service solo responde con token de servicio
+    public Mono<User> getUser(String userId) {
+        return calls.get(SERVICE, () -> webClient.get()
+                .uri("/api/users/{id}", userId)
+                .headers(headers -> headers.setBearerAuth(serviceTokens.serviceToken()))
+                .retrieve()
+                .onStatus(status -> status == HttpStatus.NOT_FOUND, response -> Mono.empty())
+                .bodyToMono(User.class));
+    }
+}
@@ -12,6 +12,7 @@ public class CorsConfig implements WebFluxConfigurer {
                 .allowedOrigins("http://localhost:8080", "http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Next-Cursor")
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.fastbite.order.config;
+
+import com.fastbite.order.model.DriverLocation;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOptions;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Índices que dependen de la configuración (las anotaciones del modelo no leen properties).
+// Recorrido de repartidores: Mongo borra cada posición retention después de recordedAt.
+// Si cambia retention, el índice existente se modifica (collMod) en vez de recrearse.
+@Configuration
+public class MongoConfig {
+
+    static final String DRIVER_LOCATION_TTL_INDEX = "recorded_ttl";
+
+    private static final Logger log = LoggerFactory.getLogger(MongoConfig.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Duration trackingRetention;
+
+    public MongoConfig(ReactiveMongoTemplate mongoTemplate,
+                       @Value("${tracking.retention:7d}") Duration trackingRetention) {
+        this.mongoTemplate = mongoTemplate;
+        this.trackingRetention = trackingRetention;
+    }
+
+    @PostConstruct
+    public void createIndexes() {
+        driverLocationRetention().subscribe(
+                unused -> { },
+                error -> log.warn("No se pudo crear el índice TTL de driver_locations: {}", error.getMessage()),
+                () -> log.info("Recorridos de repartidores: se conservan {}", trackingRetention));
+    }
+
+    Mono<Void> driverLocationRetention() {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(DriverLocation.class);
+        return indexOps.createIndex(new Index()
+                        .on("recordedAt", Sort.Direction.ASC)
+                        .named(DRIVER_LOCATION_TTL_INDEX)
+                        .expire(trackingRetention))
+                .then()
+                // Ya existía con otra retención: IndexOptionsConflict
+                .onErrorResume(e -> indexOps.alterIndex(DRIVER_LOCATION_TTL_INDEX,
+                        IndexOptions.expireAfter(trackingRetention)));
+    }
+}
@@ -0,0 +1,70 @@
+package com.fastbite.order.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+// WebClients hacia user-service y restaurant-service sobre un solo pool de conexiones.
+// - max-connections acota las conexiones abiertas; pending-acquire-timeout corta la espera
+//   por una conexión libre en vez de encolar sin límite
+// - max-idle-time / max-life-time renuevan conexiones antes de que las cierre el otro lado
+// - El timeout por llamada lo pone ServiceCalls; response-timeout es solo el tope de red
+@Configuration
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serviceConnectionProvider(
+            @Value("${clients.pool.max-connections:200}") int maxConnections,
+            @Value("${clients.pool.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${clients.pool.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${clients.pool.max-life-time:5m}") Duration maxLifeTime) {
+        return ConnectionProvider.builder("fastbite-services")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector serviceHttpConnector(
+            ConnectionProvider serviceConnectionProvider,
+            @Value("${clients.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${clients.response-timeout:5s}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(serviceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .compress(true);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Bean
+    public WebClient userServiceWebClient(WebClient.Builder builder,
+                                          ReactorClientHttpConnector serviceHttpConnector,
+                                          @Value("${services.user}") String baseUrl) {
+        return builder.clone()
+                .clientConnector(serviceHttpConnector)
+                .baseUrl(baseUrl)
+                .build();
+    }
+
+    @Bean
+    public WebClient restaurantServiceWebClient(WebClient.Builder builder,
+                                                ReactorClientHttpConnector serviceHttpConnector,
+                                                @Value("${services.restaurant}") String baseUrl) {
+        return builder.clone()
+                .clientConnector(serviceHttpConnector)
+                .baseUrl(baseUrl)
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.fastbite.order.controller;
 
 import com.fastbite.order.dto.CreateCommentRequest;
+import com.fastbite.order.event.ServerSentEvents;
 import com.fastbite.order.model.Comment;
 import com.fastbite.order.service.CommentService;
 import com.fastbite.order.service.EventService;
@@ -8,6 +9,7 @@ import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
@@ -51,8 +53,7 @@ public class CommentController {
 
     // Stream de comentarios en tiempo real
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<Comment> streamComments(@PathVariable String orderId) {
-        return eventService.getCommentsByOrderId(orderId)
-                .onBackpressureBuffer();
+    public Flux<ServerSentEvent<Comment>> streamComments(@PathVariable String orderId) {
+        return ServerSentEvents.of(eventService.getCommentsByOrderId(orderId));
     }
 }
\ No newline at end of file
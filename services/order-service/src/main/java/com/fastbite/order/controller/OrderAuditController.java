@@ -0,0 +1,81 @@
+package com.fastbite.order.controller;
+
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderEvent;
+import com.fastbite.order.model.Role;
+import com.fastbite.order.security.Roles;
+import com.fastbite.order.service.EventSourcingService;
+import com.fastbite.order.service.OrderService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Auditoría sobre el log de eventos de órdenes
+@RestController
+@RequestMapping("/api/orders")
+public class OrderAuditController {
+
+    private final EventSourcingService eventSourcingService;
+    private final OrderService orderService;
+
+    public OrderAuditController(EventSourcingService eventSourcingService, OrderService orderService) {
+        this.eventSourcingService = eventSourcingService;
+        this.orderService = orderService;
+    }
+
+    // Historial completo de una orden (mismo acceso que GET /{id})
+    @GetMapping("/{id}/events")
+    public Mono<ResponseEntity<Flux<OrderEvent>>> getHistory(
+            @PathVariable String id,
+            Authentication authentication) {
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        Role role = Roles.of(authentication);
+        if (role == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        String userId = (String) authentication.getPrincipal();
+
+        return orderService.getById(id)
+                .map(order -> orderService.canAccess(order, userId, role)
+                        ? ResponseEntity.ok(eventSourcingService.getHistory(id))
+                        : ResponseEntity.status(HttpStatus.FORBIDDEN).<Flux<OrderEvent>>build())
+                // Orden inexistente = 403, igual que GET /{id}
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build()));
+    }
+
+    // Orden reconstruida desde el log (snapshot + eventos), para compararla con la guardada (COCINA)
+    @GetMapping("/{id}/rebuild")
+    public Mono<ResponseEntity<Order>> rebuild(
+            @PathVariable String id,
+            Authentication authentication) {
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        if (Roles.of(authentication) != Role.COCINA) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return eventSourcingService.rebuild(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Todas las órdenes reconstruidas desde el log, una por línea (COCINA)
+    @GetMapping(value = "/events/replay", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<Order>>> replayAll(Authentication authentication) {
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        if (Roles.of(authentication) != Role.COCINA) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(eventSourcingService.replayAll()));
+    }
+}
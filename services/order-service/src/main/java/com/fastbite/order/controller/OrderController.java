@@ -1,36 +1,51 @@
 package com.fastbite.order.controller;
 
 import com.fastbite.order.dto.CreateOrderRequest;
+import com.fastbite.order.dto.OrderCursor;
 import com.fastbite.order.dto.OrderEvent;
 import com.fastbite.order.dto.UpdateStatusRequest;
+import com.fastbite.order.event.EncodedOrderEvent;
+import com.fastbite.order.event.ServerSentEvents;
 import com.fastbite.order.model.Order;
 import com.fastbite.order.model.Role;
-import com.fastbite.order.repository.UserRepository;
+import com.fastbite.order.security.Roles;
 import com.fastbite.order.service.EventService;
+import com.fastbite.order.service.KitchenBusyException;
 import com.fastbite.order.service.OrderService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.function.BiFunction;
+
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
     private final EventService eventService;
-    private final UserRepository userRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public OrderController(OrderService orderService, 
                           EventService eventService,
-                          UserRepository userRepository) {
+                          @Value("${orders.page.default-size:50}") int defaultPageSize,
+                          @Value("${orders.page.max-size:200}") int maxPageSize) {
         this.orderService = orderService;
         this.eventService = eventService;
-        this.userRepository = userRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     // Crear pedido (CLIENTE)
@@ -47,6 +62,11 @@ public class OrderController {
         
         return orderService.createOrder(userId, request)
                 .map(order -> ResponseEntity.status(HttpStatus.CREATED).body(order))
+                // Cocina llena: 503 con Retry-After en vez de aceptar sin límite
+                .onErrorResume(KitchenBusyException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfter().toSeconds()))
+                                .<Order>build()))
                 .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().build()));
     }
 
@@ -62,51 +82,76 @@ public class OrderController {
         
         String userId = (String) authentication.getPrincipal();
         
+        // Una sola carga de la orden para validar acceso y responder
+        // (orden inexistente = 403, igual que antes)
         return getRoleFromAuth(authentication)
-                .flatMap(role -> orderService.hasAccess(id, userId, role))
-                .flatMap(hasAccess -> {
-                    if (!hasAccess) {
-                        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<Order>build());
-                    }
-                    return orderService.getById(id)
-                            .map(ResponseEntity::ok)
-                            .onErrorResume(e -> Mono.just(ResponseEntity.notFound().build()));
-                })
+                .flatMap(role -> orderService.getById(id)
+                        .map(order -> orderService.canAccess(order, userId, role)
+                                ? ResponseEntity.ok(order)
+                                : ResponseEntity.status(HttpStatus.FORBIDDEN).<Order>build())
+                        .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build())))
                 .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
     }
 
-    // Obtener mis pedidos (CLIENTE)
+    // Obtener mis pedidos (CLIENTE), de a páginas: ?limit= y ?cursor= (X-Next-Cursor)
     @GetMapping("/my")
-    public Mono<ResponseEntity<Object>> getMyOrders(Authentication authentication) {
+    public Mono<ResponseEntity<Flux<Order>>> getMyOrders(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication authentication) {
         if (authentication == null) {
             return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
         }
         String userId = (String) authentication.getPrincipal();
-        return orderService.getByCustomerId(userId)
-                .collectList()
-                .map(orders -> ResponseEntity.ok((Object) orders));
+        return page(accept, limit, defaultPageSize, cursor,
+                (after, size) -> orderService.getByCustomerId(userId, after, size));
+    }
+
+    // Obtener todos los pedidos, de la más nueva a la más vieja (reportes, COCINA / REPARTIDOR)
+    @GetMapping
+    public Mono<ResponseEntity<Flux<Order>>> getAll(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication authentication) {
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        return getRoleFromAuth(authentication)
+                .flatMap(role -> {
+                    if (role == Role.CLIENTE) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<Flux<Order>>build());
+                    }
+                    return page(accept, limit, defaultPageSize, cursor, orderService::getAll);
+                });
     }
 
     // Obtener todos los pedidos (COCINA)
+    // Sin limit devuelve todos los activos (vienen de memoria)
     @GetMapping("/kitchen")
-    public Mono<ResponseEntity<Object>> getForKitchen(Authentication authentication) {
+    public Mono<ResponseEntity<Flux<Order>>> getForKitchen(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication authentication) {
         if (authentication == null) {
             return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
         }
-        return orderService.getForKitchen()
-                .collectList()
-                .map(orders -> ResponseEntity.ok((Object) orders));
+        return page(accept, limit, 0, cursor, orderService::getForKitchen);
     }
 
     // Obtener pedidos para repartidor
     @GetMapping("/delivery")
-    public Mono<ResponseEntity<Object>> getForDelivery(Authentication authentication) {
+    public Mono<ResponseEntity<Flux<Order>>> getForDelivery(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Authentication authentication) {
         if (authentication == null) {
             return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
         }
-        return orderService.getForDelivery()
-                .collectList()
-                .map(orders -> ResponseEntity.ok((Object) orders));
+        return page(accept, limit, 0, cursor, orderService::getForDelivery);
     }
 
     // Actualizar estado del pedido
@@ -135,25 +180,132 @@ public class OrderController {
 
     // ==================== SSE ENDPOINTS ====================
 
-    // Stream de todos los eventos de órdenes (para COCINA)
+    // Stream de todos los eventos de órdenes (solo COCINA / REPARTIDOR: trae datos de todos los clientes)
+    // El buffer por conexión lo acota EventService (sse.buffer-size).
+    // Al reconectar, el navegador manda Last-Event-ID y solo se reenvía lo perdido;
+    // lastEventId como parámetro es para reconexiones manuales (new EventSource).
+    // El token puede venir en ?access_token= (EventSource no manda headers)
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<OrderEvent> streamAllOrders() {
-        return eventService.getOrderEvents()
-                .onBackpressureBuffer();
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> streamAllOrders(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            Authentication authentication) {
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+
+        return getRoleFromAuth(authentication)
+                .map(role -> {
+                    if (role != Role.COCINA && role != Role.REPARTIDOR) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                                .<Flux<ServerSentEvent<String>>>build();
+                    }
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.TEXT_EVENT_STREAM)
+                            .body(ServerSentEvents.ofEncoded(eventService.getOrderEvents(lastEventId),
+                                    eventService::eventId));
+                })
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build()));
     }
 
     // Stream de eventos para una orden específica (para CLIENTE viendo su pedido)
+    // Mismo acceso que GET /{id}: el cliente de la orden, cocina y repartidores.
+    // Una conexión nueva recibe primero un SNAPSHOT con la orden completa y luego
+    // solo deltas; el cliente descarta deltas con version menor a la del snapshot.
+    // El token puede venir en ?access_token= (EventSource no manda headers)
     @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<OrderEvent> streamOrder(@PathVariable String id) {
-        return eventService.getOrderEventsByOrderId(id)
-                .onBackpressureBuffer();
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> streamOrder(
+            @PathVariable String id,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            Authentication authentication) {
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        String userId = (String) authentication.getPrincipal();
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+
+        return getRoleFromAuth(authentication)
+                .flatMap(role -> orderService.getById(id)
+                        .map(order -> {
+                            if (!orderService.canAccess(order, userId, role)) {
+                                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                                        .<Flux<ServerSentEvent<String>>>build();
+                            }
+                            // El snapshot se vuelve a leer al suscribirse al stream:
+                            // así no se pierden deltas entre el chequeo y la suscripción
+                            Flux<EncodedOrderEvent> events = eventService.getOrderEventsByOrderId(id, lastEventId);
+                            if (lastEventId == null) {
+                                Mono<EncodedOrderEvent> snapshot = orderService.getById(id)
+                                        .map(current -> eventService.encode(OrderEvent.snapshot(current)))
+                                        .onErrorResume(e -> Mono.empty());
+                                events = Flux.merge(snapshot, events);
+                            }
+                            return ResponseEntity.ok()
+                                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                                    .body(ServerSentEvents.ofEncoded(events, eventService::eventId));
+                        }))
+                // Orden inexistente = 403, igual que GET /{id}
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build()));
+    }
+
+    // Respuesta paginada por clave (createdAt, id):
+    // - JSON: una página acotada; si hay más, el cursor siguiente va en X-Next-Cursor
+    // - Accept: application/x-ndjson: una orden por línea, sin juntar nada en memoria
+    //   (sin limit transmite todo lo que hay después del cursor)
+    private Mono<ResponseEntity<Flux<Order>>> page(String accept, Integer limit, int defaultLimit, String cursor,
+                                                   BiFunction<OrderCursor, Integer, Flux<Order>> query) {
+        OrderCursor after;
+        try {
+            after = OrderCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        if (acceptsNdjson(accept)) {
+            int size = limit != null ? Math.max(limit, 0) : 0;
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(query.apply(after, size)));
+        }
+
+        int size = limit != null ? Math.min(Math.max(limit, 1), maxPageSize) : defaultLimit;
+        if (size == 0) {
+            // El codificador JSON escribe el array a medida que llegan las órdenes
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(query.apply(after, 0)));
+        }
+        // Se pide una de más para saber si hay página siguiente
+        return query.apply(after, size + 1)
+                .collectList()
+                .map(orders -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+                    if (orders.size() > size) {
+                        orders = orders.subList(0, size);
+                        response.header(NEXT_CURSOR_HEADER, OrderCursor.of(orders.get(size - 1)).encode());
+                    }
+                    return response.body(Flux.fromIterable(orders));
+                });
+    }
+
+    private static boolean acceptsNdjson(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
     }
 
     // Helper para obtener rol del usuario
+    // Viene firmado en el JWT (authority ROLE_<rol>), sin consultar Mongo
     private Mono<Role> getRoleFromAuth(Authentication authentication) {
-        String userId = (String) authentication.getPrincipal();
-        return userRepository.findById(userId)
-                .map(user -> user.getRole())
-                .switchIfEmpty(Mono.error(new RuntimeException("Usuario no encontrado")));
+        return Mono.justOrEmpty(Roles.of(authentication))
+                .switchIfEmpty(Mono.error(new RuntimeException("Rol no encontrado en el token")));
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.fastbite.order.controller;
+
+import com.fastbite.order.dto.CreateRatingRequest;
+import com.fastbite.order.model.Rating;
+import com.fastbite.order.model.RatingAggregate;
+import com.fastbite.order.model.Role;
+import com.fastbite.order.security.Roles;
+import com.fastbite.order.service.RatingService;
+import jakarta.validation.Valid;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ratings")
+public class RatingController {
+
+    private final RatingService ratingService;
+
+    public RatingController(RatingService ratingService) {
+        this.ratingService = ratingService;
+    }
+
+    // Calificar un producto o al repartidor de un pedido entregado (CLIENTE)
+    @PostMapping
+    public Mono<ResponseEntity<Rating>> rate(
+            @Valid @RequestBody CreateRatingRequest request,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        if (Roles.of(authentication) != Role.CLIENTE) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+
+        String userId = (String) authentication.getPrincipal();
+
+        return ratingService.rate(userId, request)
+                .map(rating -> ResponseEntity.status(HttpStatus.CREATED).body(rating))
+                // Ya calificado
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.CONFLICT).<Rating>build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    // Resúmenes para las tarjetas del menú: ?ids=p1,p2,...
+    @GetMapping("/products")
+    public Mono<List<RatingAggregate>> getProductRatings(@RequestParam List<String> ids) {
+        return ratingService.getProductRatings(ids);
+    }
+
+    @GetMapping("/drivers/{driverId}")
+    public Mono<ResponseEntity<RatingAggregate>> getDriverRating(@PathVariable String driverId) {
+        return ratingService.getDriverRating(driverId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,133 @@
+package com.fastbite.order.controller;
+
+import com.fastbite.order.dto.DriverAssignmentDTO;
+import com.fastbite.order.dto.LocationUpdateDTO;
+import com.fastbite.order.event.ServerSentEvents;
+import com.fastbite.order.model.Role;
+import com.fastbite.order.security.Roles;
+import com.fastbite.order.service.DriverAssignmentService;
+import com.fastbite.order.service.LocationService;
+import com.fastbite.order.service.OrderService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tracking")
+public class TrackingController {
+
+    private final LocationService locationService;
+    private final OrderService orderService;
+    private final DriverAssignmentService driverAssignment;
+
+    public TrackingController(LocationService locationService,
+                              OrderService orderService,
+                              DriverAssignmentService driverAssignment) {
+        this.locationService = locationService;
+        this.orderService = orderService;
+        this.driverAssignment = driverAssignment;
+    }
+
+    // Ping GPS del repartidor (REPARTIDOR, cada 2-5 s)
+    @PostMapping("/location")
+    public Mono<ResponseEntity<Void>> updateLocation(
+            @Valid @RequestBody LocationUpdateDTO request,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        if (Roles.of(authentication) != Role.REPARTIDOR) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+
+        String driverId = (String) authentication.getPrincipal();
+        try {
+            locationService.update(driverId, request);
+        } catch (IllegalStateException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+        return Mono.just(ResponseEntity.noContent().build());
+    }
+
+    // Stream de la posición del repartidor asignado a una orden (para CLIENTE)
+    // Solo el cliente de la orden, su repartidor y cocina (403 para el resto).
+    // Como máximo un evento cada intervalMs (tracking.stream-interval por defecto).
+    // Si la orden todavía no tiene repartidor el stream se cierra y el navegador reintenta
+    @GetMapping(value = "/orders/{orderId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<LocationUpdateDTO>>>> streamOrderLocation(
+            @PathVariable String orderId,
+            @RequestParam(value = "intervalMs", required = false) Long intervalMs,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        String userId = (String) authentication.getPrincipal();
+        Role role = Roles.of(authentication);
+
+        return orderService.getById(orderId)
+                .map(order -> {
+                    boolean allowed = role == Role.COCINA
+                            || (role == Role.CLIENTE && order.getCustomerId().equals(userId))
+                            || (role == Role.REPARTIDOR && userId.equals(order.getAssignedDeliveryId()));
+                    if (!allowed) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                                .<Flux<ServerSentEvent<LocationUpdateDTO>>>build();
+                    }
+                    Flux<LocationUpdateDTO> locations = order.getAssignedDeliveryId() != null
+                            ? locationService.track(order.getAssignedDeliveryId(), locationService.streamInterval(intervalMs))
+                            : Flux.empty();
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.TEXT_EVENT_STREAM)
+                            .body(ServerSentEvents.of(locations));
+                })
+                // Orden inexistente = 403, igual que GET /api/orders/{id}
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build()));
+    }
+
+    // Reintentar la asignación automática de una orden LISTO (COCINA).
+    // 409 si no hay repartidor disponible cerca o la orden ya tiene uno
+    @PostMapping("/orders/{orderId}/assign")
+    public Mono<ResponseEntity<DriverAssignmentDTO>> assignDriver(
+            @PathVariable String orderId,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        if (Roles.of(authentication) != Role.COCINA) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+
+        return driverAssignment.assign(orderId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    // Repartidores disponibles más cercanos a un punto (COCINA)
+    @GetMapping("/drivers/nearest")
+    public Mono<ResponseEntity<List<DriverAssignmentDTO>>> nearestDrivers(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "5") int k,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        if (Roles.of(authentication) != Role.COCINA) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+
+        return Mono.just(ResponseEntity.ok(driverAssignment.nearest(latitude, longitude, Math.max(1, Math.min(k, 50)))));
+    }
+}
@@ -14,6 +14,9 @@ import java.util.List;
 @AllArgsConstructor
 public class CreateOrderRequest {
     
+    // Opcional: sin restaurante se usa el de por defecto (kitchen.default-restaurant-id)
+    private String restaurantId;
+    
     @NotBlank(message = "Dirección de entrega es requerida")
     private String deliveryAddress;
     
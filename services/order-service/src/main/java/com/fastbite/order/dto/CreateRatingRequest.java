@@ -0,0 +1,34 @@
+package com.fastbite.order.dto;
+
+import com.fastbite.order.model.RatingTarget;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateRatingRequest {
+
+    @NotBlank(message = "Orden es requerida")
+    private String orderId;
+
+    @NotNull(message = "Tipo de calificación es requerido")
+    private RatingTarget target;
+
+    // Producto calificado (para DRIVER se usa el repartidor de la orden)
+    private String productId;
+
+    @NotNull(message = "Puntaje es requerido")
+    @Min(value = 1, message = "Puntaje mínimo 1")
+    @Max(value = 5, message = "Puntaje máximo 5")
+    private Integer score;
+
+    @Size(max = 500, message = "Comentario de hasta 500 caracteres")
+    private String comment;
+}
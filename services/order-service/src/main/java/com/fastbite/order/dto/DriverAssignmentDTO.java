@@ -0,0 +1,29 @@
+package com.fastbite.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Repartidor candidato / asignado a una orden
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverAssignmentDTO {
+
+    private String orderId;
+
+    private String driverId;
+
+    private double latitude;
+
+    private double longitude;
+
+    // Distancia al punto de retiro (metros)
+    private double distanceMeters;
+
+    private Instant assignedAt;
+}
@@ -0,0 +1,41 @@
+package com.fastbite.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Ping GPS del repartidor (entrada) y posición enviada al cliente por SSE (salida).
+// driverId y timestamp los pone el servidor
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LocationUpdateDTO {
+
+    private String driverId;
+
+    @NotNull(message = "Latitud es requerida")
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double latitude;
+
+    @NotNull(message = "Longitud es requerida")
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double longitude;
+
+    // Grados (0-360), opcional
+    private Float heading;
+
+    // km/h, opcional
+    private Float speed;
+
+    // epoch millis
+    private Long timestamp;
+}
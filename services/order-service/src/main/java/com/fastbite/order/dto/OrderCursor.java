@@ -0,0 +1,51 @@
+package com.fastbite.order.dto;
+
+import com.fastbite.order.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+
+// Cursor de paginación por clave (createdAt, id).
+// Viaja opaco (base64url) en la cabecera X-Next-Cursor y en ?cursor=
+public record OrderCursor(Instant createdAt, String id) {
+
+    // Orden total de las páginas: createdAt y, en empate, id
+    public static final Comparator<Order> ORDER = Comparator
+            .comparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Order::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    // null si no viene cursor (primera página)
+    public static OrderCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new OrderCursor(Instant.parse(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // La orden va después del cursor en orden ascendente (createdAt, id)
+    public boolean isBefore(Order order) {
+        int byCreatedAt = createdAt.compareTo(order.getCreatedAt());
+        return byCreatedAt < 0 || (byCreatedAt == 0 && id.compareTo(order.getId()) < 0);
+    }
+}
@@ -1,5 +1,6 @@
 package com.fastbite.order.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fastbite.order.model.Order;
 import com.fastbite.order.model.OrderStatus;
 import lombok.AllArgsConstructor;
@@ -9,48 +10,93 @@ import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 
+// Solo CREATED y SNAPSHOT llevan la orden completa; el resto son deltas
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OrderEvent {
-    
+
     public enum EventType {
         CREATED,
         STATUS_CHANGED,
-        COMMENT_ADDED
+        // Repartidor asignado a una orden LISTO (delta, mismo formato que STATUS_CHANGED)
+        DRIVER_ASSIGNED,
+        COMMENT_ADDED,
+        // Estado completo de la orden al abrir un stream por orden
+        SNAPSHOT
     }
-    
+
     private EventType eventType;
-    
+
     private String orderId;
-    
+
+    // Restaurante de la orden (deltas): la capacidad de cocina se cuenta por restaurante
+    private String restaurantId;
+
+    // Cliente de la orden (deltas): notification-service avisa sin buscar la orden
+    private String customerId;
+
     private OrderStatus status;
-    
+
+    // Versión de la orden: el cliente descarta deltas más viejos que su copia
+    private Long version;
+
+    // Repartidor asignado (STATUS_CHANGED a EN_CAMINO y DRIVER_ASSIGNED)
+    private String assignedDeliveryId;
+
     private Order order;
-    
+
     private Instant timestamp;
-    
+
     public static OrderEvent created(Order order) {
         return OrderEvent.builder()
                 .eventType(EventType.CREATED)
                 .orderId(order.getId())
                 .status(order.getStatus())
+                .version(order.getVersion())
                 .order(order)
                 .timestamp(Instant.now())
                 .build();
     }
-    
+
     public static OrderEvent statusChanged(Order order) {
         return OrderEvent.builder()
                 .eventType(EventType.STATUS_CHANGED)
                 .orderId(order.getId())
+                .customerId(order.getCustomerId())
+                .restaurantId(order.getRestaurantId())
                 .status(order.getStatus())
+                .version(order.getVersion())
+                .assignedDeliveryId(order.getAssignedDeliveryId())
+                .timestamp(order.getUpdatedAt() != null ? order.getUpdatedAt() : Instant.now())
+                .build();
+    }
+
+    public static OrderEvent driverAssigned(Order order) {
+        return OrderEvent.builder()
+                .eventType(EventType.DRIVER_ASSIGNED)
+                .orderId(order.getId())
+                .customerId(order.getCustomerId())
+                .status(order.getStatus())
+                .version(order.getVersion())
+                .assignedDeliveryId(order.getAssignedDeliveryId())
+                .timestamp(order.getUpdatedAt() != null ? order.getUpdatedAt() : Instant.now())
+                .build();
+    }
+
+    public static OrderEvent snapshot(Order order) {
+        return OrderEvent.builder()
+                .eventType(EventType.SNAPSHOT)
+                .orderId(order.getId())
+                .status(order.getStatus())
+                .version(order.getVersion())
                 .order(order)
                 .timestamp(Instant.now())
                 .build();
     }
-    
+
     public static OrderEvent commentAdded(String orderId) {
         return OrderEvent.builder()
                 .eventType(EventType.COMMENT_ADDED)
@@ -0,0 +1,33 @@
+package com.fastbite.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Lo que order-service usa de un restaurante de restaurant-service
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantDTO {
+
+    private String id;
+
+    private String name;
+
+    private boolean active;
+
+    // null = capacidad por defecto (kitchen.capacity.*)
+    private Capacity capacity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Capacity {
+
+        private Integer maxInFlight;
+
+        private Integer queueSize;
+
+        private Integer averagePrepMinutes;
+    }
+}
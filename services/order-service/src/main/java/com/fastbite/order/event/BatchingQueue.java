@@ -0,0 +1,53 @@
+package com.fastbite.order.event;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cola acotada de varios productores y un solo consumidor que entrega en lotes.
+// offer nunca espera ni reintenta: la cola es MPSC y el drain del sink unicast ya está
+// serializado, así que productores concurrentes no compiten (no hay FAIL_NON_SERIALIZED).
+// Llena o cerrada, offer devuelve false y el sink sigue vivo para los siguientes.
+public final class BatchingQueue<T> {
+
+    private final Sinks.Many<T> sink = Sinks.unsafe().many().unicast()
+            .onBackpressureBuffer(Queues.<T>unboundedMultiproducer().get());
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    public BatchingQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public boolean offer(T item) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        if (sink.tryEmitNext(item).isFailure()) {
+            size.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    // Lotes de hasta batchSize o lo juntado en batchWait. Backpressure "fair": si el
+    // consumidor todavía no pidió, el lote espera en vez de cortar el stream con overflow
+    public Flux<List<T>> batches(int batchSize, Duration batchWait) {
+        return sink.asFlux()
+                .doOnNext(item -> size.decrementAndGet())
+                .bufferTimeout(batchSize, batchWait, true);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public void complete() {
+        sink.tryEmitComplete();
+    }
+}
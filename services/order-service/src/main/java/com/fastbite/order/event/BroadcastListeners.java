@@ -0,0 +1,46 @@
+package com.fastbite.order.event;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Contenedores para consumidores "broadcast": cada réplica lee todos los mensajes en vivo.
+// El group id es propio de cada arranque, así que no se guarda ningún offset:
+// sin auto-commit, sin acks (AckMode.MANUAL sin confirmar nunca) y sin commit al asignar.
+// Un grupo sin offsets el broker lo borra apenas se va su único miembro.
+final class BroadcastListeners {
+
+    private BroadcastListeners() {
+    }
+
+    static KafkaMessageListenerContainer<String, String> container(String bootstrapServers,
+                                                                   String groupPrefix,
+                                                                   BatchMessageListener<String, String> listener,
+                                                                   String... topics) {
+        ContainerProperties containerProperties = new ContainerProperties(topics);
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setAssignmentCommitOption(ContainerProperties.AssignmentCommitOption.NEVER);
+        containerProperties.setMessageListener(listener);
+        return new KafkaMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(consumerProps(bootstrapServers, groupPrefix)), containerProperties);
+    }
+
+    static Map<String, Object> consumerProps(String bootstrapServers, String groupPrefix) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupPrefix + UUID.randomUUID());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // Solo interesan los mensajes en vivo
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        return props;
+    }
+}
@@ -0,0 +1,28 @@
+package com.fastbite.order.event;
+
+// Mensaje entre instancias de order-service.
+// json es el payload ya serializado (el mismo que sale por SSE), así no se
+// vuelve a serializar para publicarlo.
+// partition / offset: posición que le dio el bus al recibirlo (-1 al publicar);
+// es la misma en todas las réplicas y de ahí sale el id SSE
+public record BusMessage(String origin, long originSequence, Kind kind, String orderId, String json,
+                         int partition, long offset) {
+
+    public enum Kind {
+        ORDER_EVENT,
+        COMMENT
+    }
+
+    public BusMessage(String origin, long originSequence, Kind kind, String orderId, String json) {
+        this(origin, originSequence, kind, orderId, json, -1, -1);
+    }
+
+    public BusMessage at(int partition, long offset) {
+        return new BusMessage(origin, originSequence, kind, orderId, json, partition, offset);
+    }
+
+    // Clave única del mensaje para descartar reentregas
+    public String dedupKey() {
+        return origin + ":" + originSequence;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fastbite.order.event;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Ventana acotada de claves ya vistas (las más viejas se olvidan)
+public class DeduplicationWindow {
+
+    private final Map<String, Boolean> seen;
+
+    public DeduplicationWindow(int capacity) {
+        this.seen = new LinkedHashMap<>(capacity, 0.75f) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // true la primera vez que se ve la clave
+    public synchronized boolean firstSeen(String key) {
+        return seen.put(key, Boolean.TRUE) == null;
+    }
+}
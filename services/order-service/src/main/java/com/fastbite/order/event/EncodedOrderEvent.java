@@ -0,0 +1,26 @@
+package com.fastbite.order.event;
+
+import com.fastbite.order.dto.OrderEvent;
+
+// Evento de orden serializado a JSON una sola vez al emitirse.
+// Todas las conexiones SSE (y el journal) comparten el mismo String.
+// partition / offset: posición en el bus (-1 si no pasó por el bus, ej. SNAPSHOT);
+// id: id SSE que le asigna el journal (null si no pasó por el journal)
+public record EncodedOrderEvent(OrderEvent event, String json, int partition, long offset, String id) {
+
+    public EncodedOrderEvent(OrderEvent event, String json) {
+        this(event, json, -1, -1, null);
+    }
+
+    public String orderId() {
+        return event.getOrderId();
+    }
+
+    public EncodedOrderEvent at(int partition, long offset) {
+        return new EncodedOrderEvent(event, json, partition, offset, id);
+    }
+
+    public EncodedOrderEvent withId(String id) {
+        return new EncodedOrderEvent(event, json, partition, offset, id);
+    }
+}
@@ -0,0 +1,126 @@
+package com.fastbite.order.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+// Journal circular en memoria de los últimos eventos de órdenes.
+// Permite a un EventSource que reconecta con Last-Event-ID recibir solo lo que se perdió,
+// aunque reconecte a otra réplica.
+//
+// La posición de un evento es la que le da el bus (partición + offset; en Kafka, la del
+// topic de órdenes), la misma en todas las réplicas. El id SSE es "<scope>@<p>.<o>,<p>.<o>":
+// el último offset agregado de cada partición hasta ese evento. Cada réplica agrega los
+// eventos de una partición en orden de offset, así el id dice qué vio el cliente en
+// cualquier réplica. scope separa posiciones que no se comparan (bus en memoria de otro proceso).
+public class EventJournal {
+
+    // Lo que ya vio un cliente: último offset por partición.
+    // Una partición que no figura es una de la que su réplica todavía no había recibido nada
+    public record Position(Map<Integer, Long> offsets) {
+
+        public boolean covers(EncodedOrderEvent event) {
+            Long seen = offsets.get(event.partition());
+            return seen != null && event.offset() <= seen;
+        }
+    }
+
+    private final String scope;
+    private final EncodedOrderEvent[] ring;
+    private long appended;
+
+    // Último offset agregado por partición
+    private final TreeMap<Integer, Long> latest = new TreeMap<>();
+
+    // Por partición, primer offset recibido y offset hasta el que ya no hay reenvío posible
+    // (anteriores a lo primero que llegó, o que salieron del ring)
+    private final Map<Integer, Long> first = new HashMap<>();
+    private final Map<Integer, Long> floor = new HashMap<>();
+
+    public EventJournal(int capacity, String scope) {
+        this.ring = new EncodedOrderEvent[capacity];
+        this.scope = scope;
+    }
+
+    // Guardar un evento recibido del bus y asignarle su id SSE.
+    // null si esa posición ya estaba (reentrega)
+    public synchronized EncodedOrderEvent append(EncodedOrderEvent received) {
+        int partition = received.partition();
+        long offset = received.offset();
+        Long previous = latest.get(partition);
+        if (previous != null && offset <= previous) {
+            return null;
+        }
+        first.putIfAbsent(partition, offset);
+        floor.putIfAbsent(partition, offset - 1);
+        latest.put(partition, offset);
+
+        EncodedOrderEvent positioned = received.withId(scope + "@" + format(latest));
+        int slot = (int) (appended++ % ring.length);
+        EncodedOrderEvent evicted = ring[slot];
+        if (evicted != null) {
+            floor.merge(evicted.partition(), evicted.offset(), Math::max);
+        }
+        ring[slot] = positioned;
+        return positioned;
+    }
+
+    // Posición de un Last-Event-ID (null = sin Last-Event-ID, no hay nada que reenviar).
+    // Lanza ResyncRequiredException si no es un id de este bus
+    public Position position(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        int separator = lastEventId.lastIndexOf('@');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(scope)) {
+            throw new ResyncRequiredException("Last-Event-ID de otro bus: " + lastEventId);
+        }
+        Map<Integer, Long> offsets = new HashMap<>();
+        try {
+            for (String entry : lastEventId.substring(separator + 1).split(",")) {
+                int dot = entry.indexOf('.');
+                offsets.put(Integer.parseInt(entry.substring(0, dot)), Long.parseLong(entry.substring(dot + 1)));
+            }
+        } catch (RuntimeException e) {
+            throw new ResyncRequiredException("Last-Event-ID inválido: " + lastEventId);
+        }
+        return new Position(offsets);
+    }
+
+    // Eventos posteriores a "from" que cumplen el filtro, en el orden en que se agregaron.
+    // Lanza ResyncRequiredException si parte del hueco ya no está en el journal
+    public synchronized List<EncodedOrderEvent> since(Position from, Predicate<EncodedOrderEvent> filter) {
+        if (from == null) {
+            return List.of();
+        }
+        for (Integer partition : latest.keySet()) {
+            Long seen = from.offsets().get(partition);
+            // El cliente no vio nada de la partición: se reenvía todo lo que hay de ella
+            // si no salió nada del ring (de más es inofensivo, el cliente descarta versiones viejas)
+            long missingFrom = seen != null ? seen : first.get(partition) - 1;
+            if (missingFrom < floor.get(partition)) {
+                throw new ResyncRequiredException("Eventos de la partición " + partition
+                        + " ya no están en el journal");
+            }
+        }
+
+        List<EncodedOrderEvent> missed = new ArrayList<>();
+        for (long index = Math.max(0, appended - ring.length); index < appended; index++) {
+            EncodedOrderEvent event = ring[(int) (index % ring.length)];
+            if (!from.covers(event) && filter.test(event)) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private static String format(Map<Integer, Long> offsets) {
+        StringJoiner joiner = new StringJoiner(",");
+        offsets.forEach((partition, offset) -> joiner.add(partition + "." + offset));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.fastbite.order.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Transporte en memoria: una sola instancia, o varias EventService en el mismo
+// proceso compartiendo el bus (tests). Una sola partición; los offsets empiezan
+// de nuevo en cada arranque, por eso el ámbito es por proceso
+@Component
+@ConditionalOnProperty(name = "events.transport", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOrderEventTransport implements OrderEventTransport {
+
+    private final Sinks.Many<BusMessage> bus = Sinks.many().multicast().directBestEffort();
+    private final String scope = "memory-" + Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong offsets = new AtomicLong();
+
+    // Offset y emisión juntos: los mensajes salen en orden de offset
+    @Override
+    public synchronized void publish(BusMessage message) {
+        bus.emitNext(message.at(0, offsets.incrementAndGet()), Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    @Override
+    public Flux<BusMessage> messages() {
+        return bus.asFlux();
+    }
+
+    @Override
+    public String scope() {
+        return scope;
+    }
+}
@@ -0,0 +1,93 @@
+package com.fastbite.order.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+
+// Transporte entre réplicas sobre Kafka.
+// Cada instancia consume con su propio group id: todas reciben todos los eventos
+// (también los propios) y los reenvían a sus conexiones SSE, sin sticky sessions.
+// Ese group id no guarda offsets (ver BroadcastListeners): reiniciar no deja grupos en el broker.
+// La posición de un evento es su partición + offset en el topic de órdenes: un cliente
+// puede reconectar a cualquier réplica con el mismo Last-Event-ID.
+@Component
+@ConditionalOnProperty(name = "events.transport", havingValue = "kafka")
+public class KafkaOrderEventTransport implements OrderEventTransport {
+
+    private final OrderEventProducer producer;
+    private final String ordersTopic;
+    private final String commentsTopic;
+    private final KafkaMessageListenerContainer<String, String> container;
+
+    private final Sinks.Many<BusMessage> received = Sinks.many().multicast().directBestEffort();
+
+    public KafkaOrderEventTransport(OrderEventProducer producer,
+                                    @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                                    @Value("${events.topics.orders:order-events}") String ordersTopic,
+                                    @Value("${events.topics.comments:order-comments}") String commentsTopic) {
+        this.producer = producer;
+        this.ordersTopic = ordersTopic;
+        this.commentsTopic = commentsTopic;
+
+        // Solo interesan los eventos en vivo, el historial lo da Mongo
+        this.container = BroadcastListeners.container(bootstrapServers, "order-service-sse-",
+                (BatchMessageListener<String, String>) records ->
+                        records.forEach(record -> received.tryEmitNext(toMessage(record))),
+                ordersTopic, commentsTopic);
+    }
+
+    @PostConstruct
+    public void start() {
+        container.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        container.stop();
+    }
+
+    @Override
+    public void publish(BusMessage message) {
+        producer.publish(message);
+    }
+
+    @Override
+    public Flux<BusMessage> messages() {
+        return received.asFlux();
+    }
+
+    @Override
+    public String scope() {
+        return ordersTopic;
+    }
+
+    private BusMessage toMessage(ConsumerRecord<String, String> record) {
+        BusMessage.Kind kind = record.topic().equals(commentsTopic)
+                ? BusMessage.Kind.COMMENT
+                : BusMessage.Kind.ORDER_EVENT;
+        String sequence = header(record, OrderEventProducer.SEQUENCE_HEADER);
+        return new BusMessage(
+                header(record, OrderEventProducer.ORIGIN_HEADER),
+                sequence != null ? Long.parseLong(sequence) : 0,
+                kind,
+                record.key(),
+                record.value(),
+                record.partition(),
+                record.offset());
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.fastbite.order.event;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Registro de sinks por clave (orderId).
+// Cada orden tiene su propio sink, creado con el primer suscriptor y eliminado
+// con el último, así cada evento se despacha en O(1) solo a quien lo escucha.
+public class KeyedSinkRegistry<T> {
+
+    private final ConcurrentMap<String, KeyedSink<T>> sinks = new ConcurrentHashMap<>();
+
+    // Suscribirse a los eventos de una clave
+    public Flux<T> subscribe(String key) {
+        return Flux.defer(() -> {
+            KeyedSink<T> keyed = sinks.compute(key, (k, existing) -> {
+                KeyedSink<T> target = existing != null ? existing : new KeyedSink<>();
+                target.subscribers++;
+                return target;
+            });
+            return keyed.sink.asFlux()
+                    .doFinally(signal -> release(key, keyed));
+        });
+    }
+
+    // Despachar un evento solo a los suscriptores de su clave
+    public void emit(String key, T value) {
+        KeyedSink<T> keyed = sinks.get(key);
+        if (keyed != null) {
+            keyed.sink.tryEmitNext(value);
+        }
+    }
+
+    // Número de claves con al menos un suscriptor
+    public int activeKeys() {
+        return sinks.size();
+    }
+
+    private void release(String key, KeyedSink<T> keyed) {
+        sinks.computeIfPresent(key, (k, current) -> {
+            if (current != keyed) {
+                return current;
+            }
+            current.subscribers--;
+            return current.subscribers > 0 ? current : null;
+        });
+    }
+
+    private static final class KeyedSink<T> {
+        // directBestEffort: sin buffer compartido, un suscriptor lento no frena al resto
+        private final Sinks.Many<T> sink = Sinks.many().multicast().directBestEffort();
+        // Solo se modifica dentro de compute/computeIfPresent (bloqueo por clave)
+        private int subscribers;
+    }
+}
@@ -0,0 +1,108 @@
+package com.fastbite.order.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+// Publica los mensajes del bus en Kafka, en lotes.
+// Los eventos se acumulan hasta batch-size o batch-wait-ms y se envían juntos;
+// la key es el orderId para mantener el orden por orden dentro de la partición.
+// send() puede bloquear (metadata, buffer del producer lleno): los lotes se mandan
+// en boundedElastic, nunca en los hilos de Reactor.
+// El outbox es acotado y publish nunca espera: lleno, se descarta solo ese mensaje.
+@Component
+@ConditionalOnProperty(name = "events.transport", havingValue = "kafka")
+public class OrderEventProducer {
+
+    static final String ORIGIN_HEADER = "origin";
+    static final String SEQUENCE_HEADER = "origin-sequence";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventProducer.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String ordersTopic;
+    private final String commentsTopic;
+    private final int batchSize;
+    private final Duration batchWait;
+    private final int outboxCapacity;
+
+    private volatile BatchingQueue<BusMessage> outbox;
+    private volatile Disposable pipeline;
+
+    public OrderEventProducer(KafkaTemplate<String, String> orderEventKafkaTemplate,
+                              @Value("${events.topics.orders:order-events}") String ordersTopic,
+                              @Value("${events.topics.comments:order-comments}") String commentsTopic,
+                              @Value("${events.batch-size:100}") int batchSize,
+                              @Value("${events.batch-wait-ms:10}") int batchWaitMs,
+                              @Value("${events.outbox-capacity:10000}") int outboxCapacity) {
+        this.kafkaTemplate = orderEventKafkaTemplate;
+        this.ordersTopic = ordersTopic;
+        this.commentsTopic = commentsTopic;
+        this.batchSize = batchSize;
+        this.batchWait = Duration.ofMillis(batchWaitMs);
+        this.outboxCapacity = outboxCapacity;
+        this.outbox = new BatchingQueue<>(outboxCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        BatchingQueue<BusMessage> current = outbox;
+        pipeline = current.batches(batchSize, batchWait)
+                .concatMap(batch -> sendBatch(batch).subscribeOn(Schedulers.boundedElastic()))
+                .subscribe(null, e -> restart(current, e));
+    }
+
+    // sendBatch no propaga errores; si igual se corta el pipeline, se arma un outbox nuevo
+    // para no dejar la réplica sin publicar (y sin SSE, que depende del eco del bus)
+    private void restart(BatchingQueue<BusMessage> failed, Throwable error) {
+        log.error("Pipeline del outbox de Kafka caído, se reinicia ({} mensajes perdidos)", failed.size(), error);
+        outbox = new BatchingQueue<>(outboxCapacity);
+        start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        outbox.complete();
+        kafkaTemplate.flush();
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+    }
+
+    public void publish(BusMessage message) {
+        if (!outbox.offer(message)) {
+            log.warn("Evento descartado, outbox de Kafka lleno: {} {}", message.kind(), message.orderId());
+        }
+    }
+
+    private Mono<Void> sendBatch(List<BusMessage> batch) {
+        return Flux.fromIterable(batch)
+                .flatMap(message -> Mono.fromFuture(() -> kafkaTemplate.send(toRecord(message)))
+                        .doOnError(e -> log.warn("Error publicando evento de {}: {}", message.orderId(), e.getMessage()))
+                        .onErrorResume(e -> Mono.empty()))
+                .then();
+    }
+
+    private ProducerRecord<String, String> toRecord(BusMessage message) {
+        String topic = message.kind() == BusMessage.Kind.COMMENT ? commentsTopic : ordersTopic;
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, message.orderId(), message.json());
+        record.headers().add(ORIGIN_HEADER, message.origin().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(SEQUENCE_HEADER,
+                Long.toString(message.originSequence()).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
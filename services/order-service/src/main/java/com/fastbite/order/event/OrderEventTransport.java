@@ -0,0 +1,17 @@
+package com.fastbite.order.event;
+
+import reactor.core.publisher.Flux;
+
+// Transporte de eventos entre réplicas de order-service.
+// EventService publica aquí y despacha a sus conexiones SSE lo que recibe, propio o de
+// otras instancias, con la posición que le dio el bus (igual en todas las réplicas).
+public interface OrderEventTransport {
+
+    void publish(BusMessage message);
+
+    // Mensajes recibidos con su posición (incluye los propios; puede haber duplicados)
+    Flux<BusMessage> messages();
+
+    // Ámbito de las posiciones: dos ids SSE solo se comparan si vienen del mismo
+    String scope();
+}
@@ -0,0 +1,11 @@
+package com.fastbite.order.event;
+
+// Qué hacer cuando el buffer de un suscriptor SSE se llena
+public enum OverflowPolicy {
+    // Descartar el evento más antiguo
+    DROP_OLDEST,
+    // Conservar solo el último evento de cada orden
+    LATEST_PER_ORDER,
+    // Cerrar la conexión con una pista para reconectar
+    DISCONNECT
+}
@@ -0,0 +1,39 @@
+package com.fastbite.order.event;
+
+import com.fastbite.order.service.ProductCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+// Invalida la caché de productos cuando restaurant-service avisa un cambio
+// (key = productId). Cada réplica tiene su propio group id, sin offsets guardados,
+// y su propia caché.
+@Component
+@ConditionalOnProperty(name = "events.transport", havingValue = "kafka")
+public class ProductEventListener {
+
+    private final KafkaMessageListenerContainer<String, String> container;
+
+    public ProductEventListener(ProductCache productCache,
+                                @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                                @Value("${events.topics.products:product-events}") String productsTopic) {
+        this.container = BroadcastListeners.container(bootstrapServers, "order-service-products-",
+                (BatchMessageListener<String, String>) records ->
+                        records.forEach(record -> productCache.invalidate(record.key())),
+                productsTopic);
+    }
+
+    @PostConstruct
+    public void start() {
+        container.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        container.stop();
+    }
+}
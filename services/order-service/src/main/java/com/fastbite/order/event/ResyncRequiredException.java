@@ -0,0 +1,9 @@
+package com.fastbite.order.event;
+
+// El cliente perdió eventos que ya no se pueden reenviar y debe recargar el estado completo
+public class ResyncRequiredException extends RuntimeException {
+
+    public ResyncRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package com.fastbite.order.event;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Helpers para convertir streams de eventos a SSE
+public final class ServerSentEvents {
+
+    // Tiempo que el cliente espera antes de reconectar tras un corte por lentitud
+    private static final Duration RESUME_RETRY = Duration.ofSeconds(3);
+
+    private ServerSentEvents() {
+    }
+
+    public static <T> Flux<ServerSentEvent<T>> of(Flux<T> events) {
+        return of(events, event -> null, Function.identity());
+    }
+
+    // Eventos ya serializados: el JSON compartido se escribe tal cual, sin pasar
+    // otra vez por Jackson en cada conexión
+    public static Flux<ServerSentEvent<String>> ofEncoded(Flux<EncodedOrderEvent> events,
+                                                          Function<EncodedOrderEvent, String> eventId) {
+        return of(events, eventId, EncodedOrderEvent::json);
+    }
+
+    // Cada evento sale con su id, así el navegador reconecta con Last-Event-ID.
+    // - Cliente lento: se cierra el stream con un retry; al reconectar recibe lo que perdió.
+    // - Hueco fuera del journal: evento "resync" para que el cliente recargue todo.
+    private static <T, D> Flux<ServerSentEvent<D>> of(Flux<T> events,
+                                                      Function<T, String> eventId,
+                                                      Function<T, D> data) {
+        return events
+                .map(event -> ServerSentEvent.builder(data.apply(event)).id(eventId.apply(event)).build())
+                .onErrorResume(SlowConsumerException.class, e -> Mono.just(ServerSentEvents.<D>resumeHint()))
+                .onErrorResume(ResyncRequiredException.class, e -> Mono.just(ServerSentEvents.<D>resyncHint()));
+    }
+
+    private static <T> ServerSentEvent<T> resumeHint() {
+        return ServerSentEvent.<T>builder()
+                .retry(RESUME_RETRY)
+                .comment("cliente lento, reconectar con Last-Event-ID")
+                .build();
+    }
+
+    private static <T> ServerSentEvent<T> resyncHint() {
+        return ServerSentEvent.<T>builder()
+                .event("resync")
+                .retry(RESUME_RETRY)
+                .comment("eventos perdidos, recargar estado completo")
+                .build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.fastbite.order.event;
+
+// El cliente no consume eventos al ritmo en que se producen
+public class SlowConsumerException extends ResyncRequiredException {
+
+    public SlowConsumerException(int capacity) {
+        super("Buffer SSE lleno (" + capacity + " eventos), cliente desconectado");
+    }
+}
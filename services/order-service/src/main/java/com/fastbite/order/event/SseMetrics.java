@@ -0,0 +1,85 @@
+package com.fastbite.order.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Métricas de los streams SSE (expuestas en /actuator/metrics)
+@Component
+public class SseMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, StreamMetrics> streams = new ConcurrentHashMap<>();
+
+    public SseMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public StreamMetrics forStream(String stream, OverflowPolicy policy) {
+        return streams.computeIfAbsent(stream, name -> new StreamMetrics(registry, name, policy));
+    }
+
+    public static final class StreamMetrics {
+
+        private final Counter dropped;
+        private final Counter coalesced;
+        private final Counter disconnected;
+        private final DistributionSummary depth;
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private StreamMetrics(MeterRegistry registry, String stream, OverflowPolicy policy) {
+            String policyName = policy.name();
+            this.dropped = Counter.builder("fastbite.sse.events.dropped")
+                    .description("Eventos descartados por buffer lleno")
+                    .tags("stream", stream, "policy", policyName)
+                    .register(registry);
+            this.coalesced = Counter.builder("fastbite.sse.events.coalesced")
+                    .description("Eventos reemplazados por un estado más reciente de la misma orden")
+                    .tags("stream", stream, "policy", policyName)
+                    .register(registry);
+            this.disconnected = Counter.builder("fastbite.sse.slow.disconnects")
+                    .description("Conexiones cerradas por consumir demasiado lento")
+                    .tags("stream", stream, "policy", policyName)
+                    .register(registry);
+            this.depth = DistributionSummary.builder("fastbite.sse.buffer.depth")
+                    .description("Eventos pendientes en el buffer de cada conexión")
+                    .tags("stream", stream)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+            Gauge.builder("fastbite.sse.connections", connections, AtomicInteger::get)
+                    .description("Conexiones SSE abiertas")
+                    .tags("stream", stream)
+                    .register(registry);
+        }
+
+        void dropped() {
+            dropped.increment();
+        }
+
+        void coalesced() {
+            coalesced.increment();
+        }
+
+        void disconnected() {
+            disconnected.increment();
+        }
+
+        void recordDepth(int pending) {
+            depth.record(pending);
+        }
+
+        void connectionOpened() {
+            connections.incrementAndGet();
+        }
+
+        void connectionClosed() {
+            connections.decrementAndGet();
+        }
+    }
+}
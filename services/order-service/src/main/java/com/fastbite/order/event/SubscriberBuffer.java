@@ -0,0 +1,172 @@
+package com.fastbite.order.event;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Buffer acotado por suscriptor SSE.
+// El stream compartido nunca espera a nadie: cada conexión acumula en su propio
+// buffer y, si se llena, se aplica la OverflowPolicy solo a esa conexión.
+public final class SubscriberBuffer<T> {
+
+    private final FluxSink<T> sink;
+    private final OverflowPolicy policy;
+    private final int capacity;
+    private final Function<T, String> coalesceKey;
+    private final SseMetrics.StreamMetrics metrics;
+
+    private final ArrayDeque<T> queue = new ArrayDeque<>();
+    private final LinkedHashMap<String, T> latest = new LinkedHashMap<>();
+
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean done;
+
+    private SubscriberBuffer(FluxSink<T> sink,
+                             OverflowPolicy policy,
+                             int capacity,
+                             Function<T, String> coalesceKey,
+                             SseMetrics.StreamMetrics metrics) {
+        this.sink = sink;
+        this.policy = policy;
+        this.capacity = capacity;
+        this.coalesceKey = coalesceKey;
+        this.metrics = metrics;
+    }
+
+    public static <T> Flux<T> bounded(Flux<T> source,
+                                      OverflowPolicy policy,
+                                      int capacity,
+                                      Function<T, String> coalesceKey,
+                                      SseMetrics.StreamMetrics metrics) {
+        return resumable(source, List::of, new Object(), policy, capacity, coalesceKey, metrics);
+    }
+
+    // Igual que bounded, pero antes de recibir eventos en vivo se encolan los de replay.
+    // replay y la suscripción a source se hacen bajo el mismo lock que usa quien emite,
+    // así no hay huecos ni duplicados entre lo reenviado y lo nuevo.
+    public static <T> Flux<T> resumable(Flux<T> source,
+                                        Supplier<List<T>> replay,
+                                        Object lock,
+                                        OverflowPolicy policy,
+                                        int capacity,
+                                        Function<T, String> coalesceKey,
+                                        SseMetrics.StreamMetrics metrics) {
+        return Flux.create(sink -> {
+            SubscriberBuffer<T> buffer = new SubscriberBuffer<>(sink, policy, capacity, coalesceKey, metrics);
+            Disposable.Swap upstream = Disposables.swap();
+            metrics.connectionOpened();
+            sink.onDispose(() -> {
+                upstream.dispose();
+                metrics.connectionClosed();
+            });
+            sink.onRequest(n -> buffer.drain());
+            try {
+                synchronized (lock) {
+                    replay.get().forEach(buffer::offer);
+                    upstream.update(source.subscribe(buffer::offer, sink::error, buffer::complete));
+                }
+            } catch (ResyncRequiredException e) {
+                sink.error(e);
+            }
+        });
+    }
+
+    private void offer(T item) {
+        boolean overflow = false;
+        synchronized (this) {
+            switch (policy) {
+                case LATEST_PER_ORDER -> {
+                    String key = coalesceKey.apply(item);
+                    if (latest.remove(key) != null) {
+                        metrics.coalesced();
+                    } else if (latest.size() >= capacity) {
+                        Iterator<T> eldest = latest.values().iterator();
+                        eldest.next();
+                        eldest.remove();
+                        metrics.dropped();
+                    }
+                    latest.put(key, item);
+                }
+                case DROP_OLDEST -> {
+                    if (queue.size() >= capacity) {
+                        queue.pollFirst();
+                        metrics.dropped();
+                    }
+                    queue.offerLast(item);
+                }
+                case DISCONNECT -> {
+                    if (queue.size() >= capacity) {
+                        queue.clear();
+                        overflow = true;
+                    } else {
+                        queue.offerLast(item);
+                    }
+                }
+            }
+            metrics.recordDepth(pending());
+        }
+
+        if (overflow) {
+            metrics.disconnected();
+            sink.error(new SlowConsumerException(capacity));
+            return;
+        }
+        drain();
+    }
+
+    private void complete() {
+        done = true;
+        drain();
+    }
+
+    // Entregar solo lo que el cliente pidió; el resto espera en el buffer
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                T next = poll();
+                if (next == null) {
+                    break;
+                }
+                sink.next(next);
+            }
+            if (done && isEmpty()) {
+                sink.complete();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private synchronized T poll() {
+        if (policy == OverflowPolicy.LATEST_PER_ORDER) {
+            Iterator<T> it = latest.values().iterator();
+            if (!it.hasNext()) {
+                return null;
+            }
+            T next = it.next();
+            it.remove();
+            return next;
+        }
+        return queue.pollFirst();
+    }
+
+    private synchronized boolean isEmpty() {
+        return pending() == 0;
+    }
+
+    private int pending() {
+        return policy == OverflowPolicy.LATEST_PER_ORDER ? latest.size() : queue.size();
+    }
+}
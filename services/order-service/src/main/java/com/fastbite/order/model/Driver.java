@@ -0,0 +1,53 @@
+package com.fastbite.order.model;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Repartidor en el índice geográfico en memoria (no se guarda en Mongo).
+// La posición se reemplaza entera en cada ping; la asignación es un CAS
+// sobre assignedOrderId, así dos órdenes nunca se quedan con el mismo repartidor
+public class Driver {
+
+    public record Position(double latitude, double longitude, long cell, long seenAt) {
+    }
+
+    private final String id;
+
+    private volatile Position position;
+
+    private final AtomicReference<String> assignedOrderId = new AtomicReference<>();
+
+    public Driver(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    // Devuelve la posición anterior (null si es el primer ping)
+    public Position move(Position newPosition) {
+        Position previous = position;
+        position = newPosition;
+        return previous;
+    }
+
+    public String getAssignedOrderId() {
+        return assignedOrderId.get();
+    }
+
+    public boolean isAvailable() {
+        return assignedOrderId.get() == null;
+    }
+
+    public boolean tryAssign(String orderId) {
+        return assignedOrderId.compareAndSet(null, orderId);
+    }
+
+    public boolean release(String orderId) {
+        return assignedOrderId.compareAndSet(orderId, null);
+    }
+}
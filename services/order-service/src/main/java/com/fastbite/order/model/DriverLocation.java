@@ -0,0 +1,37 @@
+package com.fastbite.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Recorrido del repartidor, muestreado (una posición por intervalo de persistencia).
+// Se borra por TTL tracking.retention después de recordedAt (el índice lo crea MongoConfig)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "driver_locations")
+@CompoundIndex(name = "driver_recorded", def = "{'driverId': 1, 'recordedAt': -1}")
+public class DriverLocation {
+
+    @Id
+    private String id;
+
+    private String driverId;
+
+    // GeoJSON: x = longitud, y = latitud
+    private GeoJsonPoint location;
+
+    private Float heading;
+
+    private Float speed;
+
+    private Instant recordedAt;
+}
@@ -5,7 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -14,18 +15,26 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "orders")
+// Índices para la paginación por clave (createdAt, _id) de OrderPageRepository
+@CompoundIndexes({
+        @CompoundIndex(name = "customer_created", def = "{'customerId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "status_created", def = "{'status': 1, 'createdAt': 1, '_id': 1}"),
+        @CompoundIndex(name = "created", def = "{'createdAt': -1, '_id': -1}")
+})
 public class Order {
     
     @Id
     private String id;
     
-    @Indexed
     private String customerId;
     
+    // Restaurante que prepara la orden (null = restaurante por defecto)
+    private String restaurantId;
+    
     private String customerName;
     
     private String customerPhone;
@@ -39,15 +48,20 @@ public class Order {
     
     private BigDecimal total;
     
-    @Indexed
     private OrderStatus status;
     
     private String assignedDeliveryId;
     
+    // Se incrementa en cada cambio de estado (viaja en los eventos delta)
+    private long version;
+    
     private Instant createdAt;
     
     private Instant updatedAt;
     
+    // Hora estimada en que sale de cocina, según la carga al momento de crearla
+    private Instant estimatedReadyAt;
+    
     // Calcular total basado en items
     public void calculateTotal() {
         this.total = items.stream()
@@ -0,0 +1,44 @@
+package com.fastbite.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Entrada del log append-only de una orden (auditoría).
+// version es la versión de la orden después del evento (0 = CREATED),
+// única por orden: el mismo evento no se guarda dos veces
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "order_events")
+@CompoundIndex(name = "order_version", def = "{'orderId': 1, 'version': 1}", unique = true)
+public class OrderEvent {
+
+    @Id
+    private String id;
+
+    private String orderId;
+
+    private long version;
+
+    private OrderEventType type;
+
+    private OrderStatus status;
+
+    private String assignedDeliveryId;
+
+    // Quién provocó el cambio (cliente, cocina o repartidor)
+    private String actorId;
+
+    // Solo en CREATED
+    private Order order;
+
+    private Instant timestamp;
+}
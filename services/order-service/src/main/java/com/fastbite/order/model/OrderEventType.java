@@ -0,0 +1,11 @@
+package com.fastbite.order.model;
+
+// Tipos de evento del log de órdenes (event sourcing)
+public enum OrderEventType {
+    // Lleva la orden completa tal como se creó
+    CREATED,
+    // Delta: nuevo estado (y repartidor asignado al pasar a EN_CAMINO)
+    STATUS_CHANGED,
+    // Delta: repartidor asignado automáticamente (el estado no cambia)
+    DRIVER_ASSIGNED
+}
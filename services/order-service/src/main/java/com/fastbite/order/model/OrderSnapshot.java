@@ -0,0 +1,29 @@
+package com.fastbite.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Último snapshot de una orden: reconstruirla es snapshot + eventos con version mayor
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "order_snapshots")
+public class OrderSnapshot {
+
+    // Mismo id que la orden: un snapshot por orden, se reemplaza
+    @Id
+    private String orderId;
+
+    private long version;
+
+    private Order order;
+
+    private Instant createdAt;
+}
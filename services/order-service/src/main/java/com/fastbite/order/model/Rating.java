@@ -0,0 +1,44 @@
+package com.fastbite.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Calificación de un producto o del repartidor de una orden entregada.
+// Una sola por orden y destino (índice único)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "ratings")
+@CompoundIndexes({
+        @CompoundIndex(name = "order_target", def = "{'orderId': 1, 'target': 1, 'targetId': 1}", unique = true)
+})
+public class Rating {
+
+    @Id
+    private String id;
+
+    private String orderId;
+
+    private String customerId;
+
+    private RatingTarget target;
+
+    // productId o id del repartidor
+    private String targetId;
+
+    // 1 a 5
+    private int score;
+
+    private String comment;
+
+    private Instant createdAt;
+}
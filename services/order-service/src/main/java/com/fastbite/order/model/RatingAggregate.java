@@ -0,0 +1,47 @@
+package com.fastbite.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+// Resumen de calificaciones de un producto / repartidor, mantenido con $inc al calificar.
+// id = "PRODUCT:<productId>" o "DRIVER:<driverId>"
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "rating_aggregates")
+public class RatingAggregate {
+
+    @Id
+    private String id;
+
+    private RatingTarget target;
+
+    private String targetId;
+
+    private long count;
+
+    private long sum;
+
+    // Cantidad por puntaje: "1".."5" -> n
+    @Builder.Default
+    private Map<String, Long> histogram = new HashMap<>();
+
+    private Instant updatedAt;
+
+    public static String idOf(RatingTarget target, String targetId) {
+        return target + ":" + targetId;
+    }
+
+    public double getAverage() {
+        return count > 0 ? (double) sum / count : 0;
+    }
+}
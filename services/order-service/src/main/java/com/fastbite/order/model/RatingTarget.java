@@ -0,0 +1,7 @@
+package com.fastbite.order.model;
+
+// Qué se califica
+public enum RatingTarget {
+    PRODUCT,
+    DRIVER
+}
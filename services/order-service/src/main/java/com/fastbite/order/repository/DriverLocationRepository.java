@@ -0,0 +1,12 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.DriverLocation;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface DriverLocationRepository extends ReactiveMongoRepository<DriverLocation, String> {
+
+    Flux<DriverLocation> findByDriverIdOrderByRecordedAtDesc(String driverId);
+}
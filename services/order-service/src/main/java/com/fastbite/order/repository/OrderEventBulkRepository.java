@@ -0,0 +1,14 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.OrderEvent;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Escritura de un lote del log de eventos en un solo insertMany
+public interface OrderEventBulkRepository {
+
+    // Insert no ordenado: las versiones ya guardadas (un reintento) se saltean sin cortar el lote.
+    // Devuelve cuántos eventos se insertaron
+    Mono<Integer> insertBatch(List<OrderEvent> events);
+}
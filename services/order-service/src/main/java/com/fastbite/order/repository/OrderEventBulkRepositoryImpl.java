@@ -0,0 +1,42 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.OrderEvent;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+class OrderEventBulkRepositoryImpl implements OrderEventBulkRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    OrderEventBulkRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Integer> insertBatch(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.just(0);
+        }
+        List<Document> documents = events.stream()
+                .map(event -> {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(event, document);
+                    return document;
+                })
+                .toList();
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(OrderEvent.class))
+                .flatMap(collection -> Mono.from(collection.insertMany(documents, new InsertManyOptions().ordered(false))))
+                .map(result -> result.getInsertedIds().size())
+                // Solo (orderId, version) duplicados: el resto del lote quedó guardado
+                .onErrorResume(MongoBulkWriteException.class, e -> e.getWriteErrors().stream()
+                        .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY)
+                        ? Mono.just(e.getWriteResult().getInsertedCount())
+                        : Mono.error(e));
+    }
+}
@@ -0,0 +1,18 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.OrderEvent;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface OrderEventRepository extends ReactiveMongoRepository<OrderEvent, String>, OrderEventBulkRepository {
+
+    Flux<OrderEvent> findByOrderIdOrderByVersionAsc(String orderId);
+
+    // Cola de eventos posterior a un snapshot
+    Flux<OrderEvent> findByOrderIdAndVersionGreaterThanOrderByVersionAsc(String orderId, long version);
+
+    // Log completo agrupado por orden (usa el índice orderId + version)
+    Flux<OrderEvent> findAllByOrderByOrderIdAscVersionAsc();
+}
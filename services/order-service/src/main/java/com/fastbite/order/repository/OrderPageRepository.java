@@ -0,0 +1,19 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.dto.OrderCursor;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+// Consultas paginadas por clave (createdAt, id), sin skip: cada página usa el índice
+// compuesto y empieza justo después del cursor. limit 0 = sin límite (streaming)
+public interface OrderPageRepository {
+
+    // Historial, de la más nueva a la más vieja (customerId null = todas)
+    Flux<Order> findHistory(String customerId, OrderCursor before, int limit);
+
+    // Órdenes en curso, de la más vieja a la más nueva
+    Flux<Order> findByStatusInAfter(List<OrderStatus> statuses, OrderCursor after, int limit);
+}
@@ -0,0 +1,64 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.dto.OrderCursor;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class OrderPageRepositoryImpl implements OrderPageRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    OrderPageRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<Order> findHistory(String customerId, OrderCursor before, int limit) {
+        List<Criteria> filters = new ArrayList<>();
+        if (customerId != null) {
+            filters.add(Criteria.where("customerId").is(customerId));
+        }
+        return find(filters, before, Sort.Direction.DESC, limit);
+    }
+
+    @Override
+    public Flux<Order> findByStatusInAfter(List<OrderStatus> statuses, OrderCursor after, int limit) {
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(Criteria.where("status").in(statuses));
+        return find(filters, after, Sort.Direction.ASC, limit);
+    }
+
+    private Flux<Order> find(List<Criteria> filters, OrderCursor cursor, Sort.Direction direction, int limit) {
+        if (cursor != null) {
+            filters.add(keyset(cursor, direction));
+        }
+        Query query = filters.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(filters));
+        query.with(Sort.by(direction, "createdAt", "id"));
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    // createdAt < c OR (createdAt = c AND id < i)   (> en orden ascendente)
+    private static Criteria keyset(OrderCursor cursor, Sort.Direction direction) {
+        if (direction == Sort.Direction.DESC) {
+            return new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(cursor.createdAt()),
+                    Criteria.where("createdAt").is(cursor.createdAt()).and("id").lt(cursor.id()));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").gt(cursor.createdAt()),
+                Criteria.where("createdAt").is(cursor.createdAt()).and("id").gt(cursor.id()));
+    }
+}
@@ -6,15 +6,12 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
 @Repository
-public interface OrderRepository extends ReactiveMongoRepository<Order, String> {
-    
-    Flux<Order> findByCustomerId(String customerId);
+public interface OrderRepository extends ReactiveMongoRepository<Order, String>,
+        OrderPageRepository, OrderTransitionRepository {
     
     Flux<Order> findByStatus(OrderStatus status);
     
     Flux<Order> findByStatusIn(java.util.List<OrderStatus> statuses);
     
     Flux<Order> findByAssignedDeliveryId(String deliveryId);
-    
-    Flux<Order> findAllByOrderByCreatedAtDesc();
 }
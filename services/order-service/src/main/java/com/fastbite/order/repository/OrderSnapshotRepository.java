@@ -0,0 +1,9 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.OrderSnapshot;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderSnapshotRepository extends ReactiveMongoRepository<OrderSnapshot, String> {
+}
@@ -0,0 +1,19 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import reactor.core.publisher.Mono;
+
+// Cambio de estado atómico en un solo findAndModify
+public interface OrderTransitionRepository {
+
+    // Solo aplica si la orden sigue en "from"; devuelve la orden ya actualizada
+    // o vacío si no existe o alguien la cambió antes (assignedDeliveryId null = no se toca)
+    Mono<Order> transitionStatus(String orderId, OrderStatus from, OrderStatus to, String assignedDeliveryId);
+
+    // EN_CAMINO -> ENTREGADO, solo si driverId es el repartidor asignado
+    Mono<Order> deliver(String orderId, String driverId);
+
+    // Asigna el repartidor solo si la orden sigue LISTO y sin repartidor
+    Mono<Order> assignDriver(String orderId, String driverId);
+}
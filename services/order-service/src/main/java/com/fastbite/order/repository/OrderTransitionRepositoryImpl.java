@@ -0,0 +1,67 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+class OrderTransitionRepositoryImpl implements OrderTransitionRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    OrderTransitionRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Order> transitionStatus(String orderId, OrderStatus from, OrderStatus to, String assignedDeliveryId) {
+        // La condición sobre el estado actual evita que dos repartidores tomen la misma orden
+        Criteria criteria = Criteria.where("id").is(orderId).and("status").is(from);
+        if (assignedDeliveryId != null) {
+            // Si la orden ya tiene repartidor asignado, solo él puede tomarla
+            criteria.and("assignedDeliveryId").in(null, assignedDeliveryId);
+        }
+        Query query = new Query(criteria);
+        Update update = new Update()
+                .set("status", to)
+                .set("updatedAt", Instant.now())
+                .inc("version", 1);
+        if (assignedDeliveryId != null) {
+            update.set("assignedDeliveryId", assignedDeliveryId);
+        }
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Order.class);
+    }
+
+    @Override
+    public Mono<Order> deliver(String orderId, String driverId) {
+        Query query = new Query(Criteria.where("id").is(orderId)
+                .and("status").is(OrderStatus.EN_CAMINO)
+                .and("assignedDeliveryId").is(driverId));
+        Update update = new Update()
+                .set("status", OrderStatus.ENTREGADO)
+                .set("updatedAt", Instant.now())
+                .inc("version", 1);
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Order.class);
+    }
+
+    @Override
+    public Mono<Order> assignDriver(String orderId, String driverId) {
+        Query query = new Query(Criteria.where("id").is(orderId)
+                .and("status").is(OrderStatus.LISTO)
+                .and("assignedDeliveryId").is(null));
+        Update update = new Update()
+                .set("assignedDeliveryId", driverId)
+                .set("updatedAt", Instant.now())
+                .inc("version", 1);
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Order.class);
+    }
+}
@@ -0,0 +1,18 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.RatingAggregate;
+import com.fastbite.order.model.RatingTarget;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+// Actualizaciones atómicas de los resúmenes de calificaciones
+public interface RatingAggregateCounterRepository {
+
+    // $inc de count, sum e histograma (crea el resumen si no existe); devuelve el resumen nuevo
+    Mono<RatingAggregate> increment(RatingTarget target, String targetId, int score);
+
+    // Reemplaza los contadores solo si nadie calificó desde "since" (reparación).
+    // true si se aplicó
+    Mono<Boolean> replaceIfUnchangedSince(RatingAggregate recomputed, Instant since);
+}
@@ -0,0 +1,53 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.RatingAggregate;
+import com.fastbite.order.model.RatingTarget;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+class RatingAggregateCounterRepositoryImpl implements RatingAggregateCounterRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    RatingAggregateCounterRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<RatingAggregate> increment(RatingTarget target, String targetId, int score) {
+        Query query = new Query(Criteria.where("id").is(RatingAggregate.idOf(target, targetId)));
+        Update update = new Update()
+                .setOnInsert("target", target)
+                .setOnInsert("targetId", targetId)
+                .inc("count", 1)
+                .inc("sum", score)
+                .inc("histogram." + score, 1)
+                .set("updatedAt", Instant.now());
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), RatingAggregate.class);
+    }
+
+    @Override
+    public Mono<Boolean> replaceIfUnchangedSince(RatingAggregate recomputed, Instant since) {
+        Query query = new Query(Criteria.where("id").is(recomputed.getId())
+                .orOperator(Criteria.where("updatedAt").lt(since), Criteria.where("updatedAt").exists(false)));
+        Update update = new Update()
+                .set("target", recomputed.getTarget())
+                .set("targetId", recomputed.getTargetId())
+                .set("count", recomputed.getCount())
+                .set("sum", recomputed.getSum())
+                .set("histogram", recomputed.getHistogram());
+        return mongoTemplate.upsert(query, update, RatingAggregate.class)
+                // Sin cambios (modifiedCount = 0) si los contadores ya estaban bien
+                .map(result -> result.getModifiedCount() > 0 || result.getUpsertedId() != null)
+                // Existe y cambió después de "since": lo deja como está
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+}
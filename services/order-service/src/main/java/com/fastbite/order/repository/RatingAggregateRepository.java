@@ -0,0 +1,14 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.RatingAggregate;
+import com.fastbite.order.model.RatingTarget;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface RatingAggregateRepository extends ReactiveMongoRepository<RatingAggregate, String>,
+        RatingAggregateCounterRepository {
+
+    Flux<RatingAggregate> findByTarget(RatingTarget target);
+}
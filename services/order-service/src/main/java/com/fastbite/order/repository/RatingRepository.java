@@ -0,0 +1,12 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.Rating;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface RatingRepository extends ReactiveMongoRepository<Rating, String> {
+
+    Flux<Rating> findByOrderId(String orderId);
+}
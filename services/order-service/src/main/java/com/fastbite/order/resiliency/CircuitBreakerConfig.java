@@ -0,0 +1,41 @@
+package com.fastbite.order.resiliency;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+
+// Circuit breaker por servicio remoto (uno para user-service, otro para restaurant-service).
+// Abre con muchos errores o muchas llamadas lentas; mientras está abierto se falla al
+// instante y las cachés siguen sirviendo el último valor conocido.
+// Los 4xx son respuestas válidas del otro servicio: no cuentan como fallas
+@Configuration
+public class CircuitBreakerConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            @Value("${resiliency.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${resiliency.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${resiliency.circuit-breaker.slow-call-duration:500ms}") Duration slowCallDuration,
+            @Value("${resiliency.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${resiliency.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${resiliency.circuit-breaker.wait-in-open:10s}") Duration waitInOpen) {
+        return CircuitBreakerRegistry.of(io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(waitInOpen)
+                .permittedNumberOfCallsInHalfOpenState(5)
+                .recordException(error -> !isClientError(error))
+                .build());
+    }
+
+    static boolean isClientError(Throwable error) {
+        return error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError();
+    }
+}
@@ -0,0 +1,92 @@
+package com.fastbite.order.resiliency;
+
+import com.fastbite.order.resiliency.ConcurrencyLimiter.Lane;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+
+// Admisión de requests contra el límite adaptativo, por carril de prioridad.
+// Corre después de seguridad y rate limit. Rechazado: 503 con Retry-After: 1.
+// Los streams SSE no pasan por acá: viven minutos y no dicen nada de la latencia
+@Component
+public class ConcurrencyLimitFilter implements WebFilter, Ordered {
+
+    private record Route(HttpMethod method, PathPattern pattern, Lane lane) {
+    }
+
+    private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+
+    private static final List<Route> ROUTES = List.of(
+            route(HttpMethod.PATCH, "/api/orders/{id}/status", Lane.CRITICAL),
+            route(HttpMethod.POST, "/api/tracking/location", Lane.CRITICAL),
+            route(HttpMethod.POST, "/api/tracking/orders/{orderId}/assign", Lane.CRITICAL),
+            route(HttpMethod.POST, "/api/orders", Lane.NORMAL),
+            route(HttpMethod.GET, "/api/orders/kitchen", Lane.NORMAL),
+            route(HttpMethod.GET, "/api/orders/delivery", Lane.NORMAL));
+
+    private final ConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    // Después de RateLimitFilter (0): lo que corta el rate limit no ocupa lugar
+    @Override
+    public int getOrder() {
+        return 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (!path.startsWith("/api/") || path.endsWith("/stream") || HttpMethod.OPTIONS.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+        Lane lane = laneOf(request);
+        return limiter.acquire(lane).flatMap(permit -> {
+            if (!permit) {
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return exchange.getResponse().setComplete();
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        // 503 es una respuesta de carga (cocina llena), no una falla del servicio
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        boolean failed = signal == SignalType.ON_ERROR
+                                || (status != null && status.is5xxServerError()
+                                && status.value() != HttpStatus.SERVICE_UNAVAILABLE.value());
+                        limiter.release(System.nanoTime() - start, failed);
+                    });
+        });
+    }
+
+    private static Lane laneOf(ServerHttpRequest request) {
+        for (Route route : ROUTES) {
+            if (route.method().equals(request.getMethod()) && route.pattern().matches(request.getPath().pathWithinApplication())) {
+                return route.lane();
+            }
+        }
+        // Escrituras de clientes (comentarios, calificaciones) con la creación de órdenes
+        return HttpMethod.GET.equals(request.getMethod()) ? Lane.LOW : Lane.NORMAL;
+    }
+
+    private static Route route(HttpMethod method, String pattern, Lane lane) {
+        return new Route(method, PARSER.parse(pattern), lane);
+    }
+}
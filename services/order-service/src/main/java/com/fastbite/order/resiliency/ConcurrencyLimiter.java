@@ -0,0 +1,292 @@
+package com.fastbite.order.resiliency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Límite adaptativo de requests concurrentes (gradiente sobre la latencia observada).
+// - Cada window se compara la latencia reciente (short) con la de referencia (long, EMA lenta):
+//   si la reciente sube, el límite baja en proporción (gradiente entre 0.5 y 1);
+//   si no, crece de a sqrt(límite). Con 5xx en la ventana baja además por backoff (AIMD)
+// - Carriles de prioridad: cada uno entra hasta una fracción del límite
+//   (CRITICAL 100%, NORMAL normal-share, LOW low-share), así LOW se corta primero
+// - Con el límite lleno CRITICAL y NORMAL esperan en una cola corta (queue-size, max-wait);
+//   al liberar un lugar se atiende primero la cola de CRITICAL. LOW nunca espera
+@Component
+public class ConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimiter.class);
+
+    public enum Lane {
+        // Estados de cocina / reparto y ubicación de repartidores
+        CRITICAL,
+        // Creación de órdenes, tableros de cocina y reparto
+        NORMAL,
+        // Historial, menú, calificaciones
+        LOW
+    }
+
+    // Espera de un lugar: gana quien resuelva primero (liberación, timeout o cancelación).
+    // Un lugar concedido es de quien lo reciba: el request (que lo libera al terminar)
+    // o la cancelación que llegó antes de que lo usara
+    private static final class Waiter {
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int REFUSED = 2;
+
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        final AtomicBoolean handedOver = new AtomicBoolean();
+        final Sinks.One<Boolean> granted = Sinks.one();
+
+        boolean complete(boolean permit) {
+            if (state.compareAndSet(WAITING, permit ? GRANTED : REFUSED)) {
+                granted.tryEmitValue(permit);
+                return true;
+            }
+            return false;
+        }
+
+        boolean handOver() {
+            return state.get() == GRANTED && handedOver.compareAndSet(false, true);
+        }
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoff;
+    private final int longWindow;
+    private final int minSamples;
+    private final Duration window;
+    private final Duration maxWait;
+    private final int queueSize;
+    private final Map<Lane, Double> shares = new EnumMap<>(Lane.class);
+
+    private volatile double limit;
+    private double longRtt;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Muestras de la ventana actual (las suma el hilo del request, las lee update())
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final Map<Lane, Queue<Waiter>> queues = new EnumMap<>(Lane.class);
+    private final Map<Lane, AtomicInteger> queued = new EnumMap<>(Lane.class);
+    private final Map<Lane, Counter> shed = new EnumMap<>(Lane.class);
+    private Disposable updater;
+
+    public ConcurrencyLimiter(MeterRegistry meterRegistry,
+                              @Value("${concurrency.limit.initial:100}") int initialLimit,
+                              @Value("${concurrency.limit.min:10}") int minLimit,
+                              @Value("${concurrency.limit.max:1000}") int maxLimit,
+                              @Value("${concurrency.limit.tolerance:1.5}") double tolerance,
+                              @Value("${concurrency.limit.smoothing:0.2}") double smoothing,
+                              @Value("${concurrency.limit.backoff:0.9}") double backoff,
+                              @Value("${concurrency.limit.long-window:600}") int longWindow,
+                              @Value("${concurrency.limit.min-samples:10}") int minSamples,
+                              @Value("${concurrency.limit.window:100ms}") Duration window,
+                              @Value("${concurrency.lanes.normal-share:0.9}") double normalShare,
+                              @Value("${concurrency.lanes.low-share:0.7}") double lowShare,
+                              @Value("${concurrency.queue.size:50}") int queueSize,
+                              @Value("${concurrency.queue.max-wait:200ms}") Duration maxWait) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoff = backoff;
+        this.longWindow = Math.max(1, longWindow);
+        this.minSamples = minSamples;
+        this.window = window;
+        this.queueSize = queueSize;
+        this.maxWait = maxWait;
+        shares.put(Lane.CRITICAL, 1.0);
+        shares.put(Lane.NORMAL, normalShare);
+        shares.put(Lane.LOW, lowShare);
+
+        Gauge.builder("fastbite.concurrency.limit", this, limiter -> limiter.limit).register(meterRegistry);
+        Gauge.builder("fastbite.concurrency.in_flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        for (Lane lane : Lane.values()) {
+            queues.put(lane, new ConcurrentLinkedQueue<>());
+            AtomicInteger size = new AtomicInteger();
+            queued.put(lane, size);
+            Gauge.builder("fastbite.concurrency.queued", size, AtomicInteger::get)
+                    .tag("lane", lane.name())
+                    .register(meterRegistry);
+            shed.put(lane, Counter.builder("fastbite.concurrency.shed")
+                    .tag("lane", lane.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        updater = Flux.interval(window)
+                .onBackpressureDrop()
+                .subscribe(tick -> update());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (updater != null) {
+            updater.dispose();
+        }
+    }
+
+    // true = tiene lugar (hay que llamar a release); false = rechazado (503)
+    public Mono<Boolean> acquire(Lane lane) {
+        if (tryAcquire(lane)) {
+            return Mono.just(true);
+        }
+        if (lane == Lane.LOW || queued.get(lane).get() >= queueSize) {
+            shed.get(lane).increment();
+            return Mono.just(false);
+        }
+        Waiter waiter = new Waiter();
+        queued.get(lane).incrementAndGet();
+        queues.get(lane).add(waiter);
+        // Se pudo haber liberado un lugar entre el intento y el encolado
+        if (tryAcquire(lane)) {
+            if (waiter.complete(true)) {
+                dequeue(lane, waiter);
+            } else {
+                release();
+            }
+        }
+        Disposable timer = Mono.delay(maxWait).subscribe(tick -> {
+            if (waiter.complete(false)) {
+                dequeue(lane, waiter);
+                shed.get(lane).increment();
+            }
+        });
+        return waiter.granted.asMono()
+                // Si la cancelación ya se quedó con el lugar, el request no lo recibe
+                .filter(permit -> !permit || waiter.handOver())
+                .doOnCancel(() -> {
+                    if (waiter.complete(false)) {
+                        dequeue(lane, waiter);
+                    } else if (waiter.handOver()) {
+                        // Tenía lugar pero se fue antes de usarlo: devolverlo
+                        release();
+                    }
+                })
+                .doFinally(signal -> timer.dispose());
+    }
+
+    // Fin de un request admitido: latencia para el gradiente; failed = 5xx o error
+    public void release(long rttNanos, boolean failed) {
+        rttSum.add(rttNanos);
+        rttCount.increment();
+        if (failed) {
+            drops.increment();
+        }
+        release();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private int threshold(Lane lane) {
+        return Math.max(1, (int) Math.ceil(limit * shares.get(lane)));
+    }
+
+    private boolean tryAcquire(Lane lane) {
+        int threshold = threshold(lane);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= threshold) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                maxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    // El lugar pasa directo al primero en espera (CRITICAL antes que NORMAL),
+    // salvo que el límite del carril haya bajado por debajo de lo que está en vuelo
+    private void release() {
+        for (Lane lane : Lane.values()) {
+            if (inFlight.get() > threshold(lane)) {
+                continue;
+            }
+            Waiter waiter;
+            while ((waiter = queues.get(lane).poll()) != null) {
+                queued.get(lane).decrementAndGet();
+                if (waiter.complete(true)) {
+                    return;
+                }
+            }
+        }
+        inFlight.decrementAndGet();
+    }
+
+    private void dequeue(Lane lane, Waiter waiter) {
+        if (queues.get(lane).remove(waiter)) {
+            queued.get(lane).decrementAndGet();
+        }
+    }
+
+    // Una vez por ventana, desde un solo hilo
+    void update() {
+        long count = rttCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        long dropped = drops.sumThenReset();
+        int peak = maxInFlight.getAndSet(inFlight.get());
+        if (count < minSamples) {
+            return;
+        }
+        double shortRtt = (double) sum / count;
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / longWindow;
+        // La referencia quedó muy por encima de lo actual (pasó un pico): acercarla rápido
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        double current = limit;
+        // Poca carga: la latencia no dice nada sobre el límite
+        if (dropped == 0 && peak < current / 2) {
+            return;
+        }
+        double target;
+        if (dropped > 0) {
+            target = current * backoff;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            target = current * gradient + Math.sqrt(current);
+        }
+        double next = Math.min(maxLimit, Math.max(minLimit, current * (1 - smoothing) + target * smoothing));
+        if ((int) next != (int) current) {
+            log.debug("Límite de concurrencia {} -> {} (rtt {}ms / {}ms, en vuelo {})",
+                    (int) current, (int) next, (long) shortRtt / 1_000_000, (long) longRtt / 1_000_000, peak);
+        }
+        limit = next;
+    }
+}
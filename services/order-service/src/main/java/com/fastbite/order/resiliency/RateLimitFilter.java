@@ -0,0 +1,132 @@
+package com.fastbite.order.resiliency;
+
+import com.fastbite.common.ratelimit.TokenBuckets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+// Límite de pedidos por IP y por usuario para un endpoint (método + path exactos).
+// Corre después de la cadena de seguridad: el usuario sale del JWT ya validado.
+// Sin token solo aplica el límite por IP. Excedido: 429 con Retry-After
+public class RateLimitFilter implements WebFilter, Ordered {
+
+    private final String name;
+    private final HttpMethod method;
+    private final String path;
+    private final TokenBuckets perIp;
+    private final TokenBuckets perUser;
+    private final Duration sweepInterval;
+    private final Counter rejectedByIp;
+    private final Counter rejectedByUser;
+    private Disposable sweeper;
+
+    public RateLimitFilter(String name, HttpMethod method, String path,
+                           TokenBuckets perIp, TokenBuckets perUser,
+                           Duration sweepInterval, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.method = method;
+        this.path = path;
+        this.perIp = perIp;
+        this.perUser = perUser;
+        this.sweepInterval = sweepInterval;
+        this.rejectedByIp = rejected(meterRegistry, "ip");
+        this.rejectedByUser = rejected(meterRegistry, "user");
+        Gauge.builder("fastbite.ratelimit.keys", perIp, TokenBuckets::size)
+                .tag("limiter", name).tag("scope", "ip")
+                .register(meterRegistry);
+        Gauge.builder("fastbite.ratelimit.keys", perUser, TokenBuckets::size)
+                .tag("limiter", name).tag("scope", "user")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = Flux.interval(sweepInterval)
+                .onBackpressureDrop()
+                .subscribe(tick -> {
+                    perIp.evictIdle();
+                    perUser.evictIdle();
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    // Después de WebFilterChainProxy (-100): el SecurityContext ya está armado
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!method.equals(request.getMethod()) || !path.equals(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        Duration wait = perIp.tryAcquire(clientIp(request));
+        if (!wait.isZero()) {
+            rejectedByIp.increment();
+            return tooManyRequests(exchange, wait);
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .map(authentication -> perUser.tryAcquire(String.valueOf(authentication.getPrincipal())))
+                .defaultIfEmpty(Duration.ZERO)
+                .flatMap(userWait -> {
+                    if (!userWait.isZero()) {
+                        rejectedByUser.increment();
+                        return tooManyRequests(exchange, userWait);
+                    }
+                    return chain.filter(exchange);
+                });
+    }
+
+    // Detrás de un proxy, server.forward-headers-strategy=framework deja acá la IP del cliente
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private static Mono<Void> tooManyRequests(ServerWebExchange exchange, Duration wait) {
+        // Redondeado para arriba: reintentar antes volvería a dar 429
+        long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    private Counter rejected(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("fastbite.ratelimit.rejected")
+                .tag("limiter", name)
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.fastbite.order.resiliency;
+
+import com.fastbite.common.ratelimit.TokenBuckets;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+
+// Límite de creación de órdenes (POST /api/orders): un cliente con un bug que reintenta
+// en loop recibe 429 en vez de llenar la cocina y Mongo.
+// capacity = ráfaga permitida, refill-every = cada cuánto vuelve un token
+@Configuration
+public class RateLimiterConfig {
+
+    @Bean
+    public RateLimitFilter orderIntakeRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.orders.per-user.capacity:5}") int userCapacity,
+            @Value("${rate-limit.orders.per-user.refill-every:6s}") Duration userRefillEvery,
+            @Value("${rate-limit.orders.per-ip.capacity:30}") int ipCapacity,
+            @Value("${rate-limit.orders.per-ip.refill-every:1s}") Duration ipRefillEvery,
+            @Value("${rate-limit.max-keys:1000000}") long maxKeys,
+            @Value("${rate-limit.sweep-interval:1m}") Duration sweepInterval) {
+        return new RateLimitFilter("orders", HttpMethod.POST, "/api/orders",
+                new TokenBuckets(ipCapacity, ipRefillEvery, maxKeys),
+                new TokenBuckets(userCapacity, userRefillEvery, maxKeys),
+                sweepInterval, meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.fastbite.order.resiliency;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Reintento corto para errores transitorios (timeouts, conexión, 5xx).
+// No se reintenta un 4xx ni un circuito abierto: reintentar no cambiaría el resultado
+@Configuration
+public class RetryConfig {
+
+    @Bean
+    public RetryRegistry retryRegistry(
+            @Value("${resiliency.retry.max-attempts:2}") int maxAttempts,
+            @Value("${resiliency.retry.wait:50ms}") Duration wait) {
+        return RetryRegistry.of(io.github.resilience4j.retry.RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .waitDuration(wait)
+                .retryOnException(error -> !(error instanceof CallNotPermittedException)
+                        && !CircuitBreakerConfig.isClientError(error))
+                .build());
+    }
+}
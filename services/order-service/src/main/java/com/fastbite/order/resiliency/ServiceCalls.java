@@ -0,0 +1,71 @@
+package com.fastbite.order.resiliency;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Envoltorio común de las llamadas a otros servicios (solo lecturas idempotentes):
+// timeout por intento -> hedging -> circuit breaker -> retry.
+// Hedging: si la respuesta no llegó en hedge-delay se manda una segunda copia y gana
+// la primera que responda (la otra se cancela); corta la cola de latencia sin duplicar
+// la carga en el caso normal
+@Component
+public class ServiceCalls {
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final RetryRegistry retries;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final Duration hedgeDelay;
+
+    public ServiceCalls(CircuitBreakerRegistry circuitBreakers,
+                        RetryRegistry retries,
+                        MeterRegistry meterRegistry,
+                        @Value("${clients.timeout:800ms}") Duration timeout,
+                        @Value("${clients.hedge-delay:150ms}") Duration hedgeDelay) {
+        this.circuitBreakers = circuitBreakers;
+        this.retries = retries;
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    // Vacío = el otro servicio respondió "no existe" (404)
+    public <T> Mono<T> get(String service, Supplier<Mono<T>> call) {
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(service);
+        Retry retry = retries.retry(service);
+        Counter hedged = Counter.builder("fastbite.clients.hedged").tag("service", service).register(meterRegistry);
+
+        // Optional para distinguir "vacío" de "todavía no respondió" en la carrera
+        Supplier<Mono<Optional<T>>> attempt = () -> Mono.defer(call)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .timeout(timeout);
+
+        // El error que cuenta es el del primer intento (tiene su propio timeout): si falla rápido
+        // no se manda la copia, y si la copia falla se sigue esperando al primero
+        Mono<Optional<T>> hedgedCall = Mono.defer(() -> Mono.firstWithSignal(
+                attempt.get(),
+                Mono.delay(hedgeDelay)
+                        .doOnNext(tick -> hedged.increment())
+                        .then(Mono.defer(attempt::get))
+                        .onErrorResume(error -> Mono.never())));
+
+        return hedgedCall
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .flatMap(Mono::justOrEmpty);
+    }
+}
@@ -0,0 +1,33 @@
+package com.fastbite.order.security;
+
+import com.fastbite.order.model.Role;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+// Rol del usuario autenticado, tal como viene firmado en el JWT (authority ROLE_<rol>)
+public final class Roles {
+
+    private static final String PREFIX = "ROLE_";
+
+    private Roles() {
+    }
+
+    // null si no hay rol válido
+    public static Role of(Authentication authentication) {
+        if (authentication == null) {
+            return null;
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(PREFIX))
+                .findFirst()
+                .map(authority -> {
+                    try {
+                        return Role.valueOf(authority.substring(PREFIX.length()));
+                    } catch (IllegalArgumentException e) {
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.fastbite.order.security;
+
+import com.fastbite.common.security.JwtService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class SecurityConfig {
+
+    // Valida localmente los tokens emitidos por user-service (misma clave jwt.secret)
+    @Bean
+    public JwtService jwtService(@Value("${jwt.secret}") String secret,
+                                 @Value("${jwt.cache-size:10000}") long cacheSize) {
+        return new JwtService(secret, cacheSize);
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtService jwtService) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                // Evitar popup de Basic Auth - retornar 401 JSON limpio
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint((exchange, ex) -> {
+                            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                            return Mono.empty();
+                        })
+                        .accessDeniedHandler((exchange, denied) -> {
+                            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+                            return Mono.empty();
+                        })
+                )
+                .authorizeExchange(exchanges -> exchanges
+                        // ===== TODO PÚBLICO =====
+                        // Como en user-service: los controllers revisan Authentication,
+                        // que arma el JWT filter a partir del token
+                        .anyExchange().permitAll()
+                )
+                .addFilterAt(new JwtAuthenticationFilter(jwtService), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.fastbite.order.security;
+
+import com.fastbite.common.security.JwtService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Bearer de order-service hacia user-service (rol SERVICE, sin usuario detrás).
+// Se renueva cuando le queda menos de la mitad
+@Component
+public class ServiceTokenProvider {
+
+    private record ServiceToken(String value, long renewAt) {
+    }
+
+    private final JwtService jwtService;
+    private final Duration ttl;
+    private final AtomicReference<ServiceToken> current = new AtomicReference<>();
+
+    public ServiceTokenProvider(JwtService jwtService,
+                                @Value("${jwt.service-token-ttl:10m}") Duration ttl) {
+        this.jwtService = jwtService;
+        this.ttl = ttl;
+    }
+
+    public String serviceToken() {
+        long now = System.currentTimeMillis();
+        ServiceToken token = current.get();
+        if (token != null && now < token.renewAt()) {
+            return token.value();
+        }
+        long ttlMillis = ttl.toMillis();
+        String value = jwtService.newToken()
+                .subject("order-service")
+                .claim("role", "SERVICE")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMillis))
+                .compact();
+        current.set(new ServiceToken(value, now + ttlMillis / 2));
+        return value;
+    }
+}
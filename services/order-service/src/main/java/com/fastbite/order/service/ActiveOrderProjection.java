@@ -0,0 +1,223 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.dto.OrderCursor;
+import com.fastbite.order.dto.OrderEvent;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import com.fastbite.order.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Órdenes activas (RECIBIDO..EN_CAMINO) en memoria, indexadas por estado.
+// - Se carga de Mongo al arrancar y se actualiza con cada OrderEvent (locales y del bus)
+// - Cada cierto tiempo se compara con Mongo y se corrigen diferencias
+// - Mientras no termina la carga inicial, las consultas van a Mongo
+@Component
+public class ActiveOrderProjection {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveOrderProjection.class);
+
+    public static final Set<OrderStatus> ACTIVE_STATUSES = EnumSet.of(
+            OrderStatus.RECIBIDO, OrderStatus.PREPARANDO, OrderStatus.LISTO, OrderStatus.EN_CAMINO);
+
+    private final OrderRepository orderRepository;
+    private final Duration reconcileInterval;
+
+    // Las órdenes guardadas no se modifican: cada cambio reemplaza la copia
+    private final Map<String, Order> ordersById = new ConcurrentHashMap<>();
+    private final Map<OrderStatus, Map<String, Order>> ordersByStatus = new EnumMap<>(OrderStatus.class);
+
+    // Número de cambio local en que se guardó cada orden (solo bajo el lock de esta clase).
+    // Es un contador propio, no un reloj: los timestamps de los eventos los pone la réplica
+    // que los emitió y pueden ir adelantados o atrasados respecto de esta
+    private final Map<String, Long> appliedAt = new HashMap<>();
+    private long applied;
+
+    private volatile boolean ready;
+    private Disposable warmUp;
+    private Disposable reconciler;
+
+    public ActiveOrderProjection(OrderRepository orderRepository,
+                                 @Value("${orders.projection.reconcile-interval:1m}") Duration reconcileInterval) {
+        this.orderRepository = orderRepository;
+        this.reconcileInterval = reconcileInterval;
+        ACTIVE_STATUSES.forEach(status -> ordersByStatus.put(status, new ConcurrentHashMap<>()));
+    }
+
+    @PostConstruct
+    public void start() {
+        warmUp = reconcile()
+                .subscribe(fixed -> {
+                            ready = true;
+                            log.info("Proyección de órdenes activas cargada: {} órdenes", ordersById.size());
+                        },
+                        error -> log.warn("No se pudo cargar la proyección de órdenes: {}", error.getMessage()));
+        reconciler = Flux.interval(reconcileInterval)
+                .concatMap(tick -> reconcile()
+                        .doOnNext(fixed -> {
+                            if (fixed > 0) {
+                                log.warn("Proyección de órdenes corregida contra Mongo: {} diferencias", fixed);
+                            }
+                            ready = true;
+                        })
+                        .onErrorResume(e -> {
+                            log.warn("Error comparando la proyección con Mongo: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (warmUp != null) {
+            warmUp.dispose();
+        }
+        if (reconciler != null) {
+            reconciler.dispose();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Órdenes en los estados pedidos, de la más antigua a la más nueva (createdAt, id).
+    // Una orden que está cambiando de estado puede verse un instante en dos índices:
+    // se queda la versión más nueva
+    public List<Order> byStatus(Collection<OrderStatus> statuses) {
+        Map<String, Order> found = new HashMap<>();
+        for (OrderStatus status : statuses) {
+            Map<String, Order> index = ordersByStatus.get(status);
+            if (index != null) {
+                index.values().forEach(order -> found.merge(order.getId(), order,
+                        (a, b) -> a.getVersion() >= b.getVersion() ? a : b));
+            }
+        }
+        List<Order> orders = new ArrayList<>(found.size());
+        for (Order order : found.values()) {
+            if (statuses.contains(order.getStatus())) {
+                orders.add(order);
+            }
+        }
+        orders.sort(OrderCursor.ORDER);
+        return orders;
+    }
+
+    // Aplicar un evento emitido (mismo camino que los SSE).
+    // STATUS_CHANGED y DRIVER_ASSIGNED son deltas: se aplican sobre la copia que ya tenemos
+    public synchronized void apply(OrderEvent event) {
+        switch (event.getEventType()) {
+            case CREATED, SNAPSHOT -> {
+                if (event.getOrder() != null) {
+                    merge(event.getOrder());
+                }
+            }
+            case STATUS_CHANGED, DRIVER_ASSIGNED -> {
+                Order current = ordersById.get(event.getOrderId());
+                if (current == null || !isNewer(event.getVersion(), current)) {
+                    return;
+                }
+                Order.OrderBuilder updated = current.toBuilder()
+                        .status(event.getStatus())
+                        .version(event.getVersion())
+                        .updatedAt(event.getTimestamp());
+                if (event.getAssignedDeliveryId() != null) {
+                    updated.assignedDeliveryId(event.getAssignedDeliveryId());
+                }
+                put(updated.build());
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Comparar con Mongo: agrega lo que falte, reemplaza lo viejo y quita lo que ya no está activo.
+    // Devuelve la cantidad de diferencias corregidas
+    private Mono<Integer> reconcile() {
+        return Mono.defer(() -> {
+            long startedAt = appliedSoFar();
+            return orderRepository.findByStatusIn(List.copyOf(ACTIVE_STATUSES))
+                    .collectMap(Order::getId)
+                    .map(stored -> correct(stored, startedAt));
+        });
+    }
+
+    private synchronized long appliedSoFar() {
+        return applied;
+    }
+
+    private synchronized int correct(Map<String, Order> stored, long startedAt) {
+        int fixed = 0;
+        for (Order order : stored.values()) {
+            if (merge(order)) {
+                fixed++;
+            }
+        }
+        // Lo que no vino de Mongo y no cambió desde que empezó la consulta ya no está activo.
+        // Lo que se guardó después (ej. una orden recién creada) puede no haber llegado a la consulta
+        for (Order cached : List.copyOf(ordersById.values())) {
+            if (!stored.containsKey(cached.getId()) && appliedAt.getOrDefault(cached.getId(), 0L) <= startedAt) {
+                remove(cached);
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+
+    // Guarda la orden si es nueva o más reciente que la copia actual
+    private boolean merge(Order order) {
+        Order current = ordersById.get(order.getId());
+        if (current != null && !isNewer(order.getVersion(), current)) {
+            return false;
+        }
+        put(order);
+        return true;
+    }
+
+    // Primero se agrega al índice nuevo y después se quita del anterior,
+    // así una lectura concurrente nunca deja de ver la orden
+    private void put(Order order) {
+        Order previous = ordersById.get(order.getId());
+        boolean active = order.getStatus() != null && ACTIVE_STATUSES.contains(order.getStatus());
+        if (active) {
+            ordersByStatus.get(order.getStatus()).put(order.getId(), order);
+            ordersById.put(order.getId(), order);
+            appliedAt.put(order.getId(), ++applied);
+        }
+        if (previous != null && (!active || previous.getStatus() != order.getStatus())) {
+            ordersByStatus.get(previous.getStatus()).remove(order.getId());
+        }
+        if (!active) {
+            ordersById.remove(order.getId());
+            appliedAt.remove(order.getId());
+        }
+    }
+
+    private void remove(Order order) {
+        ordersById.remove(order.getId());
+        appliedAt.remove(order.getId());
+        ordersByStatus.get(order.getStatus()).remove(order.getId());
+    }
+
+    private static boolean isNewer(Long version, Order current) {
+        return version != null && version > current.getVersion();
+    }
+}
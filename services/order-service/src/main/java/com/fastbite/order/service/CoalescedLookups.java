@@ -0,0 +1,32 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.User;
+import com.fastbite.order.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+// findById con singleflight para los documentos más pedidos a la vez.
+// (Usuarios y productos van por UserCache / ProductCache, que también unen cargas concurrentes por clave)
+@Component
+public class CoalescedLookups {
+
+    private final UserCache userCache;
+    private final RequestCoalescer<String, Order> orders;
+
+    public CoalescedLookups(UserCache userCache,
+                            OrderRepository orderRepository,
+                            MeterRegistry meterRegistry) {
+        this.userCache = userCache;
+        this.orders = new RequestCoalescer<>("orders", orderRepository::findById, meterRegistry);
+    }
+
+    public Mono<User> findUser(String userId) {
+        return userCache.get(userId);
+    }
+
+    public Mono<Order> findOrder(String orderId) {
+        return orders.get(orderId);
+    }
+}
@@ -6,7 +6,6 @@ import com.fastbite.order.model.Comment;
 import com.fastbite.order.model.Role;
 import com.fastbite.order.model.User;
 import com.fastbite.order.repository.CommentRepository;
-import com.fastbite.order.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -17,19 +16,19 @@ import java.time.Instant;
 public class CommentService {
 
     private final CommentRepository commentRepository;
-    private final UserRepository userRepository;
+    private final CoalescedLookups lookups;
     private final EventService eventService;
 
     public CommentService(CommentRepository commentRepository,
-                          UserRepository userRepository,
+                          CoalescedLookups lookups,
                           EventService eventService) {
         this.commentRepository = commentRepository;
-        this.userRepository = userRepository;
+        this.lookups = lookups;
         this.eventService = eventService;
     }
 
     public Mono<Comment> addComment(String orderId, String userId, CreateCommentRequest request) {
-        return userRepository.findById(userId)
+        return lookups.findUser(userId)
                 .switchIfEmpty(Mono.error(new RuntimeException("Usuario no encontrado")))
                 .flatMap(user -> {
                     Comment comment = Comment.builder()
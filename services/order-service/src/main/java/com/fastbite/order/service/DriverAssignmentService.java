@@ -0,0 +1,325 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.dto.DriverAssignmentDTO;
+import com.fastbite.order.dto.OrderEvent;
+import com.fastbite.order.model.Driver;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import com.fastbite.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Asignación automática del repartidor disponible más cercano a una orden LISTO.
+// - Índice en memoria: grilla uniforme (celdas de cell-size grados) -> repartidores en la celda.
+//   Cada ping mueve al repartidor de celda solo si cambió, sin recorrer nada
+// - k vecinos: se recorren anillos de celdas alrededor del punto de retiro hasta tener k
+//   candidatos más cerca que cualquier celda sin visitar (o llegar a max-radius)
+// - Sin locks: el repartidor se reserva con un CAS (Driver.tryAssign); si otra orden lo
+//   tomó primero se prueba con el siguiente. Mongo confirma con un findAndModify
+// - El índice es por instancia: con varias réplicas los pings de un repartidor
+//   deben llegar siempre a la misma (sticky por driverId)
+@Service
+public class DriverAssignmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverAssignmentService.class);
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    private record Candidate(Driver driver, Driver.Position position, double distanceMeters) {
+    }
+
+    private final OrderRepository orderRepository;
+    private final EventService eventService;
+    private final EventSourcingService eventSourcing;
+    private final ActiveOrderProjection activeOrders;
+    private final double cellSize;
+    private final double pickupLatitude;
+    private final double pickupLongitude;
+    private final double maxRadiusMeters;
+    private final int candidates;
+    private final Duration staleAfter;
+    private final Duration retryInterval;
+
+    private final Map<String, Driver> drivers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Driver>> cells = new ConcurrentHashMap<>();
+
+    private final Timer searchLatency;
+    private final Counter assigned;
+    private final Counter noDriver;
+    private Disposable sweeper;
+
+    public DriverAssignmentService(OrderRepository orderRepository,
+                                   EventService eventService,
+                                   EventSourcingService eventSourcing,
+                                   ActiveOrderProjection activeOrders,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${drivers.index.cell-size:0.01}") double cellSize,
+                                   @Value("${drivers.pickup.latitude:-34.6037}") double pickupLatitude,
+                                   @Value("${drivers.pickup.longitude:-58.3816}") double pickupLongitude,
+                                   @Value("${drivers.assignment.max-radius-km:10}") double maxRadiusKm,
+                                   @Value("${drivers.assignment.candidates:5}") int candidates,
+                                   @Value("${drivers.assignment.stale-after:30s}") Duration staleAfter,
+                                   @Value("${drivers.assignment.retry-interval:5s}") Duration retryInterval) {
+        this.orderRepository = orderRepository;
+        this.eventService = eventService;
+        this.eventSourcing = eventSourcing;
+        this.activeOrders = activeOrders;
+        this.cellSize = cellSize;
+        this.pickupLatitude = pickupLatitude;
+        this.pickupLongitude = pickupLongitude;
+        this.maxRadiusMeters = maxRadiusKm * 1000;
+        this.candidates = Math.max(1, candidates);
+        this.staleAfter = staleAfter;
+        this.retryInterval = retryInterval;
+        this.searchLatency = Timer.builder("fastbite.drivers.search.latency").register(meterRegistry);
+        this.assigned = Counter.builder("fastbite.drivers.assignments").tag("result", "assigned").register(meterRegistry);
+        this.noDriver = Counter.builder("fastbite.drivers.assignments").tag("result", "no_driver").register(meterRegistry);
+        meterRegistry.gauge("fastbite.drivers.indexed", drivers, Map::size);
+    }
+
+    // Reintenta las órdenes LISTO que quedaron sin repartidor y limpia repartidores inactivos
+    @PostConstruct
+    public void start() {
+        sweeper = Flux.interval(retryInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sweep()
+                        .onErrorResume(e -> {
+                            log.warn("Error reintentando asignaciones: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    // Ping GPS: actualiza la posición y la celda del repartidor
+    public void onLocation(String driverId, double latitude, double longitude, long seenAt) {
+        Driver driver = drivers.computeIfAbsent(driverId, Driver::new);
+        long cell = cellOf(latitude, longitude);
+        Driver.Position previous = driver.move(new Driver.Position(latitude, longitude, cell, seenAt));
+        // Primero en la celda nueva y después fuera de la anterior: una búsqueda
+        // concurrente nunca deja de verlo. Se agrega siempre por si el barrido lo sacó
+        cells.computeIfAbsent(cell, key -> ConcurrentHashMap.newKeySet()).add(driver);
+        if (previous != null && previous.cell() != cell) {
+            Set<Driver> old = cells.get(previous.cell());
+            if (old != null) {
+                old.remove(driver);
+            }
+        }
+    }
+
+    // Los k repartidores disponibles más cercanos al punto, del más cercano al más lejano
+    public List<DriverAssignmentDTO> nearest(double latitude, double longitude, int k) {
+        return search(latitude, longitude, k, System.currentTimeMillis()).stream()
+                .map(candidate -> toDto(null, candidate, null))
+                .toList();
+    }
+
+    // Asigna la orden al repartidor disponible más cercano al punto de retiro.
+    // Vacío si no hay ninguno cerca o la orden ya no está LISTO sin repartidor
+    public Mono<DriverAssignmentDTO> assign(String orderId) {
+        return Mono.defer(() -> {
+            Candidate claimed = claim(orderId);
+            if (claimed == null) {
+                noDriver.increment();
+                return Mono.<DriverAssignmentDTO>empty();
+            }
+            Driver driver = claimed.driver();
+            return orderRepository.assignDriver(orderId, driver.getId())
+                    // La orden cambió mientras tanto: liberar al repartidor
+                    .switchIfEmpty(Mono.fromRunnable(() -> driver.release(orderId)))
+                    .doOnError(e -> driver.release(orderId))
+                    .flatMap(order -> eventSourcing.recordDriverAssigned(order).thenReturn(order))
+                    .map(order -> {
+                        eventService.emitOrderEvent(OrderEvent.driverAssigned(order));
+                        assigned.increment();
+                        return toDto(orderId, claimed, order.getUpdatedAt());
+                    });
+        });
+    }
+
+    // Dispara la asignación sin esperar el resultado (ej. al pasar a LISTO)
+    public void assignAsync(String orderId) {
+        assign(orderId).subscribe(
+                assignment -> log.debug("Orden {} asignada a {}", orderId, assignment.getDriverId()),
+                error -> log.warn("No se pudo asignar la orden {}: {}", orderId, error.getMessage()),
+                () -> {
+                });
+    }
+
+    // El repartidor tomó la orden (EN_CAMINO): queda ocupado aunque no haya sido asignado
+    public void markBusy(String driverId, String orderId) {
+        drivers.computeIfAbsent(driverId, Driver::new).tryAssign(orderId);
+    }
+
+    // Orden entregada: el repartidor vuelve a estar disponible
+    public void release(String driverId, String orderId) {
+        if (driverId == null) {
+            return;
+        }
+        Driver driver = drivers.get(driverId);
+        if (driver != null) {
+            driver.release(orderId);
+        }
+    }
+
+    // Reserva (CAS) el candidato más cercano que siga libre
+    private Candidate claim(String orderId) {
+        for (Candidate candidate : search(pickupLatitude, pickupLongitude, candidates, System.currentTimeMillis())) {
+            if (candidate.driver().tryAssign(orderId)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private List<Candidate> search(double latitude, double longitude, int k, long now) {
+        long startedAt = System.nanoTime();
+        long staleBefore = now - staleAfter.toMillis();
+        int centerLat = index(latitude);
+        int centerLon = index(longitude);
+        // Distancia mínima a una celda del anillo r+1 (el grado de longitud es el lado más corto)
+        double cellMeters = cellSize * METERS_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        int maxRing = (int) Math.ceil(maxRadiusMeters / cellMeters);
+
+        List<Candidate> found = new ArrayList<>();
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                for (int dLon = -ring; dLon <= ring; dLon++) {
+                    // Solo el borde del anillo, el interior ya se visitó
+                    if (Math.abs(dLat) != ring && Math.abs(dLon) != ring) {
+                        continue;
+                    }
+                    Set<Driver> cell = cells.get(key(centerLat + dLat, centerLon + dLon));
+                    if (cell != null) {
+                        collect(cell, latitude, longitude, staleBefore, found);
+                    }
+                }
+            }
+            // Lo que falta visitar está a más de ring * cellMeters
+            if (found.size() >= k) {
+                found.sort(Comparator.comparingDouble(Candidate::distanceMeters));
+                if (found.get(k - 1).distanceMeters() <= ring * cellMeters) {
+                    break;
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(Candidate::distanceMeters));
+        searchLatency.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return found.size() > k ? List.copyOf(found.subList(0, k)) : found;
+    }
+
+    private void collect(Set<Driver> cell, double latitude, double longitude, long staleBefore, List<Candidate> found) {
+        for (Driver driver : cell) {
+            Driver.Position position = driver.getPosition();
+            if (position == null || !driver.isAvailable() || position.seenAt() < staleBefore) {
+                continue;
+            }
+            double distance = haversine(latitude, longitude, position.latitude(), position.longitude());
+            if (distance <= maxRadiusMeters) {
+                found.add(new Candidate(driver, position, distance));
+            }
+        }
+    }
+
+    // - LISTO sin repartidor: volver a intentar
+    // - Repartidores sin pings hace tiempo: fuera de la grilla (siguen en drivers si están ocupados)
+    // - Ocupados con una orden que ya no está pendiente (entregada en otra réplica, o tomada
+    //   por otro repartidor): se liberan. Una orden LISTO sin repartidor puede estar a mitad
+    //   de una asignación: esa reserva se respeta
+    private Mono<Void> sweep() {
+        long staleBefore = System.currentTimeMillis() - staleAfter.toMillis();
+        cells.values().forEach(cell -> cell.removeIf(driver -> {
+            Driver.Position position = driver.getPosition();
+            return position == null || position.seenAt() < staleBefore;
+        }));
+        drivers.values().removeIf(driver -> driver.isAvailable()
+                && (driver.getPosition() == null || driver.getPosition().seenAt() < staleBefore));
+
+        if (!activeOrders.isReady()) {
+            return Mono.empty();
+        }
+        List<Order> pending = activeOrders.byStatus(List.of(OrderStatus.LISTO, OrderStatus.EN_CAMINO));
+        Map<String, Order> pendingById = new HashMap<>();
+        pending.forEach(order -> pendingById.put(order.getId(), order));
+        drivers.values().forEach(driver -> {
+            String orderId = driver.getAssignedOrderId();
+            if (orderId == null) {
+                return;
+            }
+            Order order = pendingById.get(orderId);
+            String assignee = order != null ? order.getAssignedDeliveryId() : null;
+            if (order == null || (assignee != null && !assignee.equals(driver.getId()))) {
+                driver.release(orderId);
+            }
+        });
+        // Tras un reinicio el índice no sabe quién está ocupado: se recupera de las órdenes activas
+        pending.stream()
+                .filter(order -> order.getAssignedDeliveryId() != null)
+                .forEach(order -> markBusy(order.getAssignedDeliveryId(), order.getId()));
+        return Flux.fromIterable(activeOrders.byStatus(List.of(OrderStatus.LISTO)))
+                .filter(order -> order.getAssignedDeliveryId() == null)
+                .map(Order::getId)
+                .concatMap(this::assign)
+                .then();
+    }
+
+    private DriverAssignmentDTO toDto(String orderId, Candidate candidate, Instant assignedAt) {
+        return DriverAssignmentDTO.builder()
+                .orderId(orderId)
+                .driverId(candidate.driver().getId())
+                .latitude(candidate.position().latitude())
+                .longitude(candidate.position().longitude())
+                .distanceMeters(candidate.distanceMeters())
+                .assignedAt(assignedAt)
+                .build();
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(index(latitude), index(longitude));
+    }
+
+    private int index(double degrees) {
+        return (int) Math.floor(degrees / cellSize);
+    }
+
+    private static long key(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xFFFFFFFFL);
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+    }
+}
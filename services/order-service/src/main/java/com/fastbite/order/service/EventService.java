@@ -1,51 +1,246 @@
 package com.fastbite.order.service;
 
 import com.fastbite.order.dto.OrderEvent;
+import com.fastbite.order.event.BusMessage;
+import com.fastbite.order.event.DeduplicationWindow;
+import com.fastbite.order.event.EncodedOrderEvent;
+import com.fastbite.order.event.EventJournal;
+import com.fastbite.order.event.KeyedSinkRegistry;
+import com.fastbite.order.event.OrderEventTransport;
+import com.fastbite.order.event.OverflowPolicy;
+import com.fastbite.order.event.SseMetrics;
+import com.fastbite.order.event.SubscriberBuffer;
 import com.fastbite.order.model.Comment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class EventService {
 
-    // Sink para eventos de órdenes (nuevas, cambios de estado)
-    private final Sinks.Many<OrderEvent> orderSink;
-    
+    private static final Logger log = LoggerFactory.getLogger(EventService.class);
+
+    // Sink para eventos de órdenes (nuevas, cambios de estado), ya serializados
+    private final Sinks.Many<EncodedOrderEvent> orderSink;
+
     // Sink para comentarios
     private final Sinks.Many<Comment> commentSink;
 
-    public EventService() {
-        // multicast().onBackpressureBuffer() permite múltiples suscriptores
-        // y maneja backpressure con un buffer
-        this.orderSink = Sinks.many().multicast().onBackpressureBuffer();
-        this.commentSink = Sinks.many().multicast().onBackpressureBuffer();
+    // Sinks por orden: cada evento llega solo a quien sigue esa orden
+    private final KeyedSinkRegistry<EncodedOrderEvent> orderSinksById = new KeyedSinkRegistry<>();
+
+    private final KeyedSinkRegistry<Comment> commentSinksByOrderId = new KeyedSinkRegistry<>();
+
+    // Últimos eventos emitidos, para reenviar a clientes que reconectan con Last-Event-ID
+    private final EventJournal journal;
+
+    private final ObjectMapper objectMapper;
+
+    // Órdenes activas en memoria (tableros de cocina y reparto)
+    private final ActiveOrderProjection activeOrders;
+
+    // Órdenes en cocina por restaurante (admisión en OrderService.createOrder)
+    private final KitchenCapacityService kitchenCapacity;
+
+    // Bus entre réplicas: lo emitido aquí vuelve con su posición y llega a los SSE
+    // de todas las instancias (esta incluida) en el mismo orden
+    private final OrderEventTransport transport;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong busSequence = new AtomicLong();
+    private final DeduplicationWindow receivedMessages;
+    private Disposable busSubscription;
+
+    // Eventos propios publicados que todavía no volvieron del bus, por originSequence:
+    // al volver se reutiliza el OrderEvent y solo se deserializa lo de otras réplicas.
+    // Los que nunca vuelven (descartados al publicar) se olvidan pasados dedup-window mensajes
+    private final ConcurrentSkipListMap<Long, OrderEvent> awaitingEcho = new ConcurrentSkipListMap<>();
+    private final int echoWindow;
+
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+
+    private final SseMetrics.StreamMetrics allOrdersMetrics;
+    private final SseMetrics.StreamMetrics orderMetrics;
+    private final SseMetrics.StreamMetrics commentMetrics;
+
+    public EventService(ObjectMapper objectMapper,
+                        ActiveOrderProjection activeOrders,
+                        KitchenCapacityService kitchenCapacity,
+                        OrderEventTransport transport,
+                        SseMetrics sseMetrics,
+                        @Value("${sse.buffer-size:256}") int bufferSize,
+                        @Value("${sse.overflow-policy:LATEST_PER_ORDER}") OverflowPolicy overflowPolicy,
+                        @Value("${sse.journal-size:1024}") int journalSize,
+                        @Value("${events.dedup-window:10000}") int dedupWindow) {
+        // directBestEffort: sin buffer compartido. Cada suscriptor tiene su
+        // propio buffer acotado (SubscriberBuffer), así uno lento no frena al resto
+        this.orderSink = Sinks.many().multicast().directBestEffort();
+        this.commentSink = Sinks.many().multicast().directBestEffort();
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.journal = new EventJournal(journalSize, transport.scope());
+        this.objectMapper = objectMapper;
+        this.activeOrders = activeOrders;
+        this.kitchenCapacity = kitchenCapacity;
+        this.transport = transport;
+        this.receivedMessages = new DeduplicationWindow(dedupWindow);
+        this.echoWindow = dedupWindow;
+        this.allOrdersMetrics = sseMetrics.forStream("orders", overflowPolicy);
+        this.orderMetrics = sseMetrics.forStream("order", overflowPolicy);
+        this.commentMetrics = sseMetrics.forStream("comments", overflowPolicy);
+    }
+
+    @PostConstruct
+    public void subscribeToBus() {
+        busSubscription = transport.messages()
+                .filter(message -> message.origin() == null || receivedMessages.firstSeen(message.dedupKey()))
+                .subscribe(this::dispatchReceived);
+    }
+
+    @PreDestroy
+    public void unsubscribeFromBus() {
+        if (busSubscription != null) {
+            busSubscription.dispose();
+        }
     }
 
     // Emitir evento de orden
+    // Se serializa una sola vez aquí y el mismo JSON se publica al bus.
+    // Las proyecciones se actualizan ya; las conexiones SSE lo reciben cuando vuelve
+    // del bus con su posición (con Kafka, unos ms después)
     public void emitOrderEvent(OrderEvent event) {
-        orderSink.tryEmitNext(event);
+        EncodedOrderEvent encoded = encode(event);
+        applyToProjections(event);
+        long sequence = nextSequence();
+        awaitingEcho.put(sequence, event);
+        transport.publish(new BusMessage(instanceId, sequence,
+                BusMessage.Kind.ORDER_EVENT, encoded.orderId(), encoded.json()));
+    }
+
+    private long nextSequence() {
+        long sequence = busSequence.incrementAndGet();
+        awaitingEcho.headMap(sequence - echoWindow).clear();
+        return sequence;
+    }
+
+    // Serializar un evento que no pasa por el journal (ej. SNAPSHOT por suscriptor)
+    public EncodedOrderEvent encode(OrderEvent event) {
+        return new EncodedOrderEvent(event, objectMapper.writeValueAsString(event));
     }
 
     // Emitir comentario
     public void emitComment(Comment comment) {
-        commentSink.tryEmitNext(comment);
+        dispatchComment(comment);
+        transport.publish(new BusMessage(instanceId, nextSequence(),
+                BusMessage.Kind.COMMENT, comment.getOrderId(), objectMapper.writeValueAsString(comment)));
+    }
+
+    private void applyToProjections(OrderEvent event) {
+        activeOrders.apply(event);
+        kitchenCapacity.apply(event);
+    }
+
+    // Journal y despacho a los SSE bajo el mismo lock que usa la reconexión
+    private void dispatchOrderEvent(EncodedOrderEvent received) {
+        synchronized (journal) {
+            EncodedOrderEvent positioned = journal.append(received);
+            if (positioned == null) {
+                return;
+            }
+            orderSink.tryEmitNext(positioned);
+            orderSinksById.emit(positioned.orderId(), positioned);
+        }
+    }
+
+    private void dispatchComment(Comment comment) {
+        synchronized (commentSink) {
+            commentSink.tryEmitNext(comment);
+            commentSinksByOrderId.emit(comment.getOrderId(), comment);
+        }
     }
 
-    // Obtener stream de todos los eventos de órdenes
-    public Flux<OrderEvent> getOrderEvents() {
-        return orderSink.asFlux();
+    // Mensaje del bus (propio o de otra instancia): se reutiliza su JSON tal cual.
+    // Los propios ya se aplicaron a las proyecciones y los comentarios propios ya se despacharon;
+    // de un evento propio se usa el OrderEvent original, sin volver a leer el JSON
+    private void dispatchReceived(BusMessage message) {
+        boolean local = instanceId.equals(message.origin());
+        try {
+            switch (message.kind()) {
+                case ORDER_EVENT -> {
+                    OrderEvent event = local ? awaitingEcho.remove(message.originSequence()) : null;
+                    if (event == null) {
+                        event = objectMapper.readValue(message.json(), OrderEvent.class);
+                    }
+                    if (!local) {
+                        applyToProjections(event);
+                    }
+                    dispatchOrderEvent(new EncodedOrderEvent(event, message.json())
+                            .at(message.partition(), message.offset()));
+                }
+                case COMMENT -> {
+                    if (!local) {
+                        dispatchComment(objectMapper.readValue(message.json(), Comment.class));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Mensaje del bus descartado ({} de {}): {}", message.kind(), message.origin(), e.getMessage());
+        }
     }
 
-    // Obtener stream de eventos filtrados por orderId
-    public Flux<OrderEvent> getOrderEventsByOrderId(String orderId) {
-        return orderSink.asFlux()
-                .filter(event -> event.getOrderId().equals(orderId));
+    // Obtener stream de todos los eventos de órdenes,
+    // reenviando primero lo emitido después de lastEventId (null = sin replay)
+    public Flux<EncodedOrderEvent> getOrderEvents(String lastEventId) {
+        return Flux.defer(() -> {
+            EventJournal.Position from = journal.position(lastEventId);
+            return SubscriberBuffer.resumable(notCovered(orderSink.asFlux(), from),
+                    () -> journal.since(from, event -> true), journal,
+                    overflowPolicy, bufferSize, EventService::coalesceKey, allOrdersMetrics);
+        });
+    }
+
+    // Obtener stream de eventos de una orden (sin filtrar el stream global)
+    public Flux<EncodedOrderEvent> getOrderEventsByOrderId(String orderId, String lastEventId) {
+        return Flux.defer(() -> {
+            EventJournal.Position from = journal.position(lastEventId);
+            return SubscriberBuffer.resumable(notCovered(orderSinksById.subscribe(orderId), from),
+                    () -> journal.since(from, event -> event.orderId().equals(orderId)), journal,
+                    overflowPolicy, bufferSize, EventService::coalesceKey, orderMetrics);
+        });
+    }
+
+    // Id SSE de un evento emitido (null si no pasó por el journal)
+    public String eventId(EncodedOrderEvent event) {
+        return event.id();
+    }
+
+    // Al reconectar a una réplica que va unos ms atrás de la anterior, lo que el cliente
+    // ya recibió puede llegar todavía en vivo: se saltea
+    private static Flux<EncodedOrderEvent> notCovered(Flux<EncodedOrderEvent> live, EventJournal.Position from) {
+        return from == null ? live : live.filter(event -> !from.covers(event));
     }
 
     // Obtener stream de comentarios para una orden específica
     public Flux<Comment> getCommentsByOrderId(String orderId) {
-        return commentSink.asFlux()
-                .filter(comment -> comment.getOrderId().equals(orderId));
+        // Los comentarios nunca se fusionan: cada uno tiene su propia clave
+        return SubscriberBuffer.bounded(commentSinksByOrderId.subscribe(orderId), overflowPolicy, bufferSize,
+                Comment::getId, commentMetrics);
+    }
+
+    // Solo se fusionan eventos del mismo tipo para la misma orden
+    // (un CREATED nunca se pierde por un STATUS_CHANGED posterior)
+    private static String coalesceKey(EncodedOrderEvent encoded) {
+        return encoded.orderId() + ":" + encoded.event().getEventType();
     }
 }
@@ -0,0 +1,252 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.event.BatchingQueue;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderEvent;
+import com.fastbite.order.model.OrderEventType;
+import com.fastbite.order.model.OrderSnapshot;
+import com.fastbite.order.repository.OrderEventRepository;
+import com.fastbite.order.repository.OrderSnapshotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Log append-only de eventos de órdenes (auditoría completa).
+// - Los append se juntan en lotes (batch-size / batch-wait-ms) y se guardan con un solo
+//   insertMany; quien pidió el append espera a que su lote se confirme (group commit)
+// - El insert no es ordenado y saltea las versiones ya guardadas, así que un lote fallido
+//   se reintenta entero (retries / retry-backoff-ms); si se agotan, se cuentan los perdidos
+// - version del evento = versión de la orden, asignada atómicamente por findAndModify
+// - Cada snapshot-every versiones se guarda un snapshot: reconstruir una orden es
+//   snapshot + una cola corta de eventos
+// - La cola de append es acotada y nunca bloquea a quien emite: llena, falla solo ese append
+@Service
+public class EventSourcingService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSourcingService.class);
+
+    // Evento pendiente, la orden resultante (para el snapshot) y el aviso de commit
+    private record PendingAppend(OrderEvent event, Order postImage, Sinks.Empty<Void> committed) {
+    }
+
+    private final OrderEventRepository eventRepository;
+    private final OrderSnapshotRepository snapshotRepository;
+    private final int batchSize;
+    private final Duration batchWait;
+    private final int snapshotEvery;
+    private final int replayPartitions;
+    private final int retries;
+    private final Duration retryBackoff;
+    private final int queueCapacity;
+    private final Counter lost;
+
+    private volatile BatchingQueue<PendingAppend> queue;
+    private volatile Disposable pipeline;
+
+    public EventSourcingService(OrderEventRepository eventRepository,
+                                OrderSnapshotRepository snapshotRepository,
+                                @Value("${orders.event-log.batch-size:100}") int batchSize,
+                                @Value("${orders.event-log.batch-wait-ms:5}") int batchWaitMs,
+                                @Value("${orders.event-log.snapshot-every:50}") int snapshotEvery,
+                                @Value("${orders.event-log.queue-capacity:10000}") int queueCapacity,
+                                @Value("${orders.event-log.replay-partitions:0}") int replayPartitions,
+                                @Value("${orders.event-log.retries:3}") int retries,
+                                @Value("${orders.event-log.retry-backoff-ms:50}") int retryBackoffMs,
+                                MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.batchSize = batchSize;
+        this.batchWait = Duration.ofMillis(batchWaitMs);
+        this.snapshotEvery = Math.max(1, snapshotEvery);
+        this.replayPartitions = replayPartitions > 0 ? replayPartitions : Schedulers.DEFAULT_POOL_SIZE;
+        this.retries = Math.max(0, retries);
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+        this.queueCapacity = queueCapacity;
+        this.lost = Counter.builder("fastbite.orders.event_log.lost").register(meterRegistry);
+        this.queue = new BatchingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        BatchingQueue<PendingAppend> current = queue;
+        pipeline = current.batches(batchSize, batchWait)
+                .concatMap(this::commit)
+                .subscribe(null, e -> restart(current, e));
+    }
+
+    // commit no propaga errores; si igual se corta el pipeline, se arma una cola nueva
+    // para no dejar el log de auditoría apagado. Lo que quedaba en la vieja se pierde
+    private void restart(BatchingQueue<PendingAppend> failed, Throwable error) {
+        log.error("Pipeline del log de eventos caído, se reinicia ({} eventos pendientes perdidos)",
+                failed.size(), error);
+        lost.increment(failed.size());
+        queue = new BatchingQueue<>(queueCapacity);
+        start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        queue.complete();
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+    }
+
+    // Completa cuando el evento quedó guardado. Si falla se registra y no frena la operación
+    public Mono<Void> recordCreated(Order order) {
+        return append(OrderEvent.builder()
+                .orderId(order.getId())
+                .version(order.getVersion())
+                .type(OrderEventType.CREATED)
+                .status(order.getStatus())
+                .actorId(order.getCustomerId())
+                .order(order)
+                .timestamp(order.getCreatedAt())
+                .build(), order);
+    }
+
+    public Mono<Void> recordStatusChange(Order order, String actorId) {
+        return append(OrderEvent.builder()
+                .orderId(order.getId())
+                .version(order.getVersion())
+                .type(OrderEventType.STATUS_CHANGED)
+                .status(order.getStatus())
+                .assignedDeliveryId(order.getAssignedDeliveryId())
+                .actorId(actorId)
+                .timestamp(order.getUpdatedAt())
+                .build(), order);
+    }
+
+    public Mono<Void> recordDriverAssigned(Order order) {
+        return append(OrderEvent.builder()
+                .orderId(order.getId())
+                .version(order.getVersion())
+                .type(OrderEventType.DRIVER_ASSIGNED)
+                .status(order.getStatus())
+                .assignedDeliveryId(order.getAssignedDeliveryId())
+                .timestamp(order.getUpdatedAt())
+                .build(), order);
+    }
+
+    // Historial completo de una orden
+    public Flux<OrderEvent> getHistory(String orderId) {
+        return eventRepository.findByOrderIdOrderByVersionAsc(orderId);
+    }
+
+    // Estado de la orden a partir del log: último snapshot + eventos posteriores
+    public Mono<Order> rebuild(String orderId) {
+        return snapshotRepository.findById(orderId)
+                .flatMap(snapshot -> eventRepository
+                        .findByOrderIdAndVersionGreaterThanOrderByVersionAsc(orderId, snapshot.getVersion())
+                        .reduce(snapshot.getOrder(), EventSourcingService::apply))
+                .switchIfEmpty(Mono.defer(() -> eventRepository.findByOrderIdOrderByVersionAsc(orderId)
+                        .collectList()
+                        .mapNotNull(EventSourcingService::fold)));
+    }
+
+    // Reconstruye todas las órdenes recorriendo el log una vez.
+    // El log viene ordenado por (orderId, version); cada partición (hash del orderId)
+    // se procesa en paralelo y dentro de ella los eventos de una orden quedan juntos
+    public Flux<Order> replayAll() {
+        int partitions = replayPartitions;
+        return eventRepository.findAllByOrderByOrderIdAscVersionAsc()
+                .groupBy(event -> Math.floorMod(event.getOrderId().hashCode(), partitions))
+                .flatMap(partition -> partition
+                        .publishOn(Schedulers.parallel())
+                        .bufferUntilChanged(OrderEvent::getOrderId)
+                        .mapNotNull(EventSourcingService::fold), partitions);
+    }
+
+    private Mono<Void> append(OrderEvent event, Order postImage) {
+        return Mono.defer(() -> {
+                    Sinks.Empty<Void> committed = Sinks.empty();
+                    PendingAppend pending = new PendingAppend(event, postImage, committed);
+                    if (!queue.offer(pending)) {
+                        return Mono.error(new RuntimeException("Log de eventos saturado"));
+                    }
+                    return committed.asMono();
+                })
+                .onErrorResume(e -> {
+                    log.warn("Evento {} de la orden {} no registrado: {}",
+                            event.getType(), event.getOrderId(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // Un insertMany por lote (con reintentos); después, los snapshots que correspondan
+    private Mono<Void> commit(List<PendingAppend> batch) {
+        List<OrderEvent> events = batch.stream().map(PendingAppend::event).toList();
+        return Mono.defer(() -> eventRepository.insertBatch(events))
+                .retryWhen(Retry.backoff(retries, retryBackoff)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .then(Mono.fromRunnable(() -> batch.forEach(pending -> pending.committed().tryEmitEmpty())))
+                .onErrorResume(e -> {
+                    lost.increment(batch.size());
+                    batch.forEach(pending -> pending.committed().tryEmitError(e));
+                    return Mono.empty();
+                })
+                .then(Mono.defer(() -> saveSnapshots(batch)));
+    }
+
+    private Mono<Void> saveSnapshots(List<PendingAppend> batch) {
+        return Flux.fromIterable(batch)
+                .filter(pending -> pending.postImage() != null
+                        && pending.event().getVersion() > 0
+                        && pending.event().getVersion() % snapshotEvery == 0)
+                .concatMap(pending -> snapshotRepository.save(OrderSnapshot.builder()
+                                .orderId(pending.event().getOrderId())
+                                .version(pending.event().getVersion())
+                                .order(pending.postImage())
+                                .createdAt(Instant.now())
+                                .build())
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo guardar el snapshot de {}: {}",
+                                    pending.event().getOrderId(), e.getMessage());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    // Eventos de una orden en orden de versión -> estado final (null si falta CREATED)
+    private static Order fold(List<OrderEvent> events) {
+        Order state = null;
+        for (OrderEvent event : events) {
+            state = apply(state, event);
+        }
+        return state;
+    }
+
+    private static Order apply(Order state, OrderEvent event) {
+        return switch (event.getType()) {
+            case CREATED -> event.getOrder();
+            case STATUS_CHANGED, DRIVER_ASSIGNED -> {
+                if (state == null) {
+                    yield null;
+                }
+                Order.OrderBuilder updated = state.toBuilder()
+                        .status(event.getStatus())
+                        .version(event.getVersion())
+                        .updatedAt(event.getTimestamp());
+                if (event.getAssignedDeliveryId() != null) {
+                    updated.assignedDeliveryId(event.getAssignedDeliveryId());
+                }
+                yield updated.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.fastbite.order.service;
+
+import java.time.Duration;
+
+// La cocina del restaurante está llena (capacidad + cola): se responde 503 con Retry-After
+public class KitchenBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public KitchenBusyException(String restaurantId, Duration retryAfter) {
+        super("Cocina saturada (" + restaurantId + "), reintentar en " + retryAfter.toSeconds() + "s");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
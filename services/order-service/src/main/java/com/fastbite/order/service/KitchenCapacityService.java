@@ -0,0 +1,334 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.client.RestaurantServiceClient;
+import com.fastbite.order.dto.OrderEvent;
+import com.fastbite.order.dto.RestaurantDTO;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Control de admisión por capacidad de cocina, por restaurante.
+// - En cocina = RECIBIDO o PREPARANDO. Un contador atómico por restaurante: se reserva
+//   lugar con CAS al crear la orden y se libera con el STATUS_CHANGED a LISTO
+//   (eventos locales y del bus, mismo camino que la proyección de órdenes activas)
+// - Hasta max-in-flight: se acepta con el tiempo de preparación normal
+// - Hasta max-in-flight + queue-size: se acepta con una hora estimada demorada
+// - Más: KitchenBusyException (503 + Retry-After)
+// - Cada reconcile-interval el contador se corrige con la proyección de órdenes activas
+//   más las reservas que todavía no llegaron a la proyección (sin guardar, o guardadas
+//   sin su CREATED aplicado), y se leen de restaurant-service los límites de cada restaurante (RestaurantCapacity)
+// - Solo se sigue a restaurantes que existen en restaurant-service (o al de por defecto),
+//   hasta max-restaurants: un id inventado no abre una cocina nueva ni una serie de métricas.
+//   Un restaurante que desaparece o se desactiva sale del mapa cuando no tiene órdenes en cocina
+@Service
+public class KitchenCapacityService {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenCapacityService.class);
+
+    private static final List<OrderStatus> KITCHEN_STATUSES = List.of(OrderStatus.RECIBIDO, OrderStatus.PREPARANDO);
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(5);
+
+    // Límites de un restaurante (se reemplazan enteros)
+    public record Limits(int maxInFlight, int queueSize, Duration averagePrepTime) {
+    }
+
+    // Resultado de la admisión: hora estimada de salida de cocina y si quedó en cola
+    public record Admission(String restaurantId, Instant estimatedReadyAt, boolean delayed) {
+    }
+
+    private final class Kitchen {
+        final String restaurantId;
+        final AtomicInteger inFlight = new AtomicInteger();
+        // Reservas de esta réplica con la orden todavía sin guardar
+        final AtomicInteger pending = new AtomicInteger();
+        volatile Limits limits;
+        // false = restaurant-service dice que no existe o está inactivo: no se admiten órdenes
+        volatile boolean active = true;
+        final Counter accepted;
+        final Counter delayed;
+        final Counter rejected;
+        final List<Meter> meters;
+
+        Kitchen(String restaurantId) {
+            this.restaurantId = restaurantId;
+            this.limits = defaultLimits;
+            this.accepted = admissions(restaurantId, "accepted");
+            this.delayed = admissions(restaurantId, "delayed");
+            this.rejected = admissions(restaurantId, "rejected");
+            this.meters = List.of(accepted, delayed, rejected,
+                    Gauge.builder("fastbite.kitchen.in_flight", inFlight, AtomicInteger::get)
+                            .tag("restaurant", restaurantId)
+                            .register(meterRegistry),
+                    Gauge.builder("fastbite.kitchen.utilization", this,
+                                    kitchen -> (double) kitchen.inFlight.get() / Math.max(1, kitchen.limits.maxInFlight()))
+                            .tag("restaurant", restaurantId)
+                            .register(meterRegistry));
+        }
+    }
+
+    private final ActiveOrderProjection activeOrders;
+    private final RestaurantServiceClient restaurantClient;
+    private final MeterRegistry meterRegistry;
+    private final String defaultRestaurantId;
+    private final Limits defaultLimits;
+    private final Duration reconcileInterval;
+    private final int maxRestaurants;
+
+    // Orden reservada y guardada por esta réplica, esperando su CREATED
+    private record Confirmed(String restaurantId, long confirmedAt) {
+    }
+
+    private final Map<String, Kitchen> kitchens = new ConcurrentHashMap<>();
+    // Órdenes ya contadas al reservar: su CREATED no vuelve a sumar. Hasta que llega
+    // no están en la proyección y el reconcile las cuenta desde aquí
+    private final Map<String, Confirmed> admittedHere = new ConcurrentHashMap<>();
+    private Disposable reconciler;
+
+    public KitchenCapacityService(ActiveOrderProjection activeOrders,
+                                  RestaurantServiceClient restaurantClient,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${kitchen.default-restaurant-id:fastbite}") String defaultRestaurantId,
+                                  @Value("${kitchen.capacity.max-in-flight:40}") int maxInFlight,
+                                  @Value("${kitchen.capacity.queue-size:20}") int queueSize,
+                                  @Value("${kitchen.capacity.average-prep-time:15m}") Duration averagePrepTime,
+                                  @Value("${kitchen.capacity.reconcile-interval:30s}") Duration reconcileInterval,
+                                  @Value("${kitchen.max-restaurants:1000}") int maxRestaurants) {
+        this.activeOrders = activeOrders;
+        this.restaurantClient = restaurantClient;
+        this.meterRegistry = meterRegistry;
+        this.defaultRestaurantId = defaultRestaurantId;
+        this.defaultLimits = new Limits(Math.max(1, maxInFlight), Math.max(0, queueSize), averagePrepTime);
+        this.reconcileInterval = reconcileInterval;
+        this.maxRestaurants = Math.max(1, maxRestaurants);
+    }
+
+    @PostConstruct
+    public void start() {
+        reconciler = Flux.interval(reconcileInterval)
+                .onBackpressureDrop()
+                .subscribe(tick -> {
+                    try {
+                        reconcile();
+                    } catch (RuntimeException e) {
+                        log.warn("Error corrigiendo la capacidad de cocina: {}", e.getMessage());
+                    }
+                    kitchens.keySet().forEach(this::refreshLimits);
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconciler != null) {
+            reconciler.dispose();
+        }
+    }
+
+    public String restaurantIdOf(String restaurantId) {
+        return restaurantId != null ? restaurantId : defaultRestaurantId;
+    }
+
+    // Reserva un lugar en la cocina. Un restaurante que todavía no se sigue se valida
+    // antes contra restaurant-service: si no existe o está inactivo la orden no entra
+    public Mono<Admission> admit(String restaurantId) {
+        String id = restaurantIdOf(restaurantId);
+        Kitchen known = kitchens.get(id);
+        if (known != null || id.equals(defaultRestaurantId)) {
+            return Mono.fromCallable(() -> admit(known != null ? known : track(id), id));
+        }
+        return restaurantClient.getRestaurant(id)
+                .switchIfEmpty(Mono.error(new RuntimeException("Restaurante no encontrado")))
+                .map(restaurant -> {
+                    if (!restaurant.isActive()) {
+                        throw new RuntimeException("Restaurante no disponible");
+                    }
+                    Kitchen kitchen = track(id);
+                    if (kitchen != null) {
+                        applyCapacity(kitchen, restaurant.getCapacity());
+                    }
+                    return admit(kitchen, id);
+                });
+    }
+
+    // Sin locks: CAS sobre el contador hasta que entra o se llena.
+    // kitchen null = no hay lugar para seguir otro restaurante: se rechaza (no se deja pasar sin contar)
+    private Admission admit(Kitchen kitchen, String restaurantId) {
+        if (kitchen == null) {
+            throw new KitchenBusyException(restaurantId, MIN_RETRY_AFTER);
+        }
+        if (!kitchen.active) {
+            throw new RuntimeException("Restaurante no disponible");
+        }
+        Limits limits = kitchen.limits;
+        // Antes del CAS: un reconcile en el medio ya ve la reserva
+        kitchen.pending.incrementAndGet();
+        int position;
+        while (true) {
+            int current = kitchen.inFlight.get();
+            if (current >= limits.maxInFlight() + limits.queueSize()) {
+                kitchen.pending.updateAndGet(n -> Math.max(0, n - 1));
+                kitchen.rejected.increment();
+                throw new KitchenBusyException(kitchen.restaurantId, retryAfter(limits));
+            }
+            if (kitchen.inFlight.compareAndSet(current, current + 1)) {
+                position = current + 1;
+                break;
+            }
+        }
+        boolean delayed = position > limits.maxInFlight();
+        (delayed ? kitchen.delayed : kitchen.accepted).increment();
+        return new Admission(kitchen.restaurantId, Instant.now().plus(eta(limits, position)), delayed);
+    }
+
+    // La orden reservada ya tiene id: su CREATED no se vuelve a contar
+    public void confirm(Admission admission, String orderId) {
+        admittedHere.put(orderId, new Confirmed(admission.restaurantId(), System.currentTimeMillis()));
+        Kitchen kitchen = kitchens.get(admission.restaurantId());
+        if (kitchen != null) {
+            kitchen.pending.updateAndGet(n -> Math.max(0, n - 1));
+        }
+    }
+
+    // La orden no llegó a guardarse: liberar el lugar
+    public void cancel(Admission admission) {
+        Kitchen kitchen = kitchens.get(admission.restaurantId());
+        if (kitchen != null) {
+            kitchen.pending.updateAndGet(n -> Math.max(0, n - 1));
+            kitchen.inFlight.updateAndGet(n -> Math.max(0, n - 1));
+        }
+    }
+
+    // Eventos de órdenes (locales y del bus)
+    public void apply(OrderEvent event) {
+        switch (event.getEventType()) {
+            case CREATED -> {
+                // Orden ya guardada (admitida por esta u otra réplica): su restaurante es válido
+                if (admittedHere.remove(event.getOrderId()) == null && event.getOrder() != null) {
+                    Kitchen kitchen = track(restaurantIdOf(event.getOrder().getRestaurantId()));
+                    if (kitchen != null) {
+                        kitchen.inFlight.incrementAndGet();
+                    }
+                }
+            }
+            case STATUS_CHANGED -> {
+                if (event.getStatus() == OrderStatus.LISTO) {
+                    Kitchen kitchen = kitchens.get(restaurantIdOf(event.getRestaurantId()));
+                    if (kitchen != null) {
+                        kitchen.inFlight.updateAndGet(n -> Math.max(0, n - 1));
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Tiempo estimado: la cocina prepara maxInFlight órdenes a la vez,
+    // cada tanda de más suma un tiempo de preparación
+    private static Duration eta(Limits limits, int position) {
+        int rounds = (position + limits.maxInFlight() - 1) / limits.maxInFlight();
+        return limits.averagePrepTime().multipliedBy(Math.max(1, rounds));
+    }
+
+    // En promedio se libera un lugar cada averagePrepTime / maxInFlight
+    private static Duration retryAfter(Limits limits) {
+        Duration slot = limits.averagePrepTime().dividedBy(limits.maxInFlight());
+        return slot.compareTo(MIN_RETRY_AFTER) < 0 ? MIN_RETRY_AFTER : slot;
+    }
+
+    // Contadores = órdenes en cocina según la proyección (si ya está cargada)
+    // + reservas que todavía no están en ella. Una orden guardada cuyo CREATED no llegó
+    // en un reconcile-interval (request cancelado antes de emitirlo) deja de contarse
+    void reconcile() {
+        if (!activeOrders.isReady()) {
+            return;
+        }
+        long expired = System.currentTimeMillis() - reconcileInterval.toMillis();
+        admittedHere.values().removeIf(confirmed -> confirmed.confirmedAt() < expired);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (Order order : activeOrders.byStatus(KITCHEN_STATUSES)) {
+            counts.merge(restaurantIdOf(order.getRestaurantId()), 1, Integer::sum);
+        }
+        admittedHere.values().forEach(confirmed -> counts.merge(confirmed.restaurantId(), 1, Integer::sum));
+        counts.keySet().forEach(this::track);
+        kitchens.values().forEach(kitchen -> {
+            int actual = counts.getOrDefault(kitchen.restaurantId, 0) + kitchen.pending.get();
+            int previous = kitchen.inFlight.getAndSet(actual);
+            if (previous != actual) {
+                log.debug("Capacidad de cocina {} corregida: {} -> {}", kitchen.restaurantId, previous, actual);
+            }
+        });
+    }
+
+    // Límites y estado desde restaurant-service. Sin respuesta se mantiene todo como está;
+    // si el restaurante ya no existe o está inactivo y no tiene órdenes en cocina, sale del mapa
+    private void refreshLimits(String restaurantId) {
+        restaurantClient.getRestaurant(restaurantId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .subscribe(found -> {
+                    Kitchen kitchen = kitchens.get(restaurantId);
+                    if (kitchen == null) {
+                        return;
+                    }
+                    found.ifPresent(restaurant -> applyCapacity(kitchen, restaurant.getCapacity()));
+                    // El restaurante por defecto no tiene por qué existir en restaurant-service
+                    kitchen.active = restaurantId.equals(defaultRestaurantId)
+                            || found.map(RestaurantDTO::isActive).orElse(false);
+                    if (!kitchen.active && kitchen.inFlight.get() == 0 && kitchens.remove(restaurantId, kitchen)) {
+                        kitchen.meters.forEach(meterRegistry::remove);
+                    }
+                }, error -> log.debug("Capacidad de {} no disponible: {}", restaurantId, error.getMessage()));
+    }
+
+    // Sin capacidad propia se mantienen los límites actuales
+    private static void applyCapacity(Kitchen kitchen, RestaurantDTO.Capacity capacity) {
+        if (capacity == null) {
+            return;
+        }
+        Limits current = kitchen.limits;
+        kitchen.limits = new Limits(
+                capacity.getMaxInFlight() != null ? Math.max(1, capacity.getMaxInFlight()) : current.maxInFlight(),
+                capacity.getQueueSize() != null ? Math.max(0, capacity.getQueueSize()) : current.queueSize(),
+                capacity.getAveragePrepMinutes() != null
+                        ? Duration.ofMinutes(capacity.getAveragePrepMinutes())
+                        : current.averagePrepTime());
+    }
+
+    // null si ya se siguen max-restaurants restaurantes
+    private Kitchen track(String restaurantId) {
+        Kitchen kitchen = kitchens.get(restaurantId);
+        if (kitchen != null || kitchens.size() >= maxRestaurants) {
+            return kitchen;
+        }
+        return kitchens.computeIfAbsent(restaurantId, Kitchen::new);
+    }
+
+    private Counter admissions(String restaurantId, String result) {
+        return Counter.builder("fastbite.kitchen.admissions")
+                .tag("restaurant", restaurantId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,278 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.dto.LocationUpdateDTO;
+import com.fastbite.order.model.DriverLocation;
+import com.fastbite.order.repository.DriverLocationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Última posición de cada repartidor, en memoria.
+// - Cada repartidor tiene un slot fijo en arrays primitivos (lat/lon/heading/speed/hora):
+//   un ping no crea objetos en el store, solo sobrescribe su slot
+// - Escritura por slot con seqlock: los lectores nunca bloquean y reintentan si leen a medias
+// - Cada persist-interval se guarda en Mongo, en un solo insert, la última posición
+//   de los repartidores que se movieron (recorrido muestreado)
+// - Después de guardar se liberan los slots sin pings hace idle-after (repartidor
+//   desconectado o fuera de turno) y se reusan para repartidores nuevos
+@Service
+public class LocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationService.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final DriverLocationRepository locationRepository;
+    private final DriverAssignmentService driverAssignment;
+    private final int capacity;
+    private final Duration persistInterval;
+    private final Duration streamInterval;
+    private final Duration minStreamInterval;
+    private final Duration idleAfter;
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    // Slots liberados por evictIdle(), se reusan antes de tomar uno nuevo
+    private final Queue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final String[] driverIds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    // NaN = sin dato
+    private final float[] headings;
+    private final float[] speeds;
+    // epoch millis del último ping (0 = nunca)
+    private final long[] updatedAt;
+    // Solo lo usa el timer de persistencia
+    private final long[] persistedAt;
+    // Impar mientras se escribe el slot
+    private final AtomicLongArray sequences;
+    private final Object[] writeLocks = new Object[LOCK_STRIPES];
+
+    private final Counter pings;
+    private Disposable persister;
+
+    public LocationService(DriverLocationRepository locationRepository,
+                           DriverAssignmentService driverAssignment,
+                           MeterRegistry meterRegistry,
+                           @Value("${tracking.max-drivers:20000}") int capacity,
+                           @Value("${tracking.persist-interval:30s}") Duration persistInterval,
+                           @Value("${tracking.stream-interval:2s}") Duration streamInterval,
+                           @Value("${tracking.min-stream-interval:1s}") Duration minStreamInterval,
+                           @Value("${tracking.idle-after:15m}") Duration idleAfter) {
+        this.locationRepository = locationRepository;
+        this.driverAssignment = driverAssignment;
+        this.capacity = capacity;
+        this.persistInterval = persistInterval;
+        this.streamInterval = streamInterval;
+        this.minStreamInterval = minStreamInterval;
+        this.idleAfter = idleAfter;
+        this.driverIds = new String[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.headings = new float[capacity];
+        this.speeds = new float[capacity];
+        this.updatedAt = new long[capacity];
+        this.persistedAt = new long[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            writeLocks[i] = new Object();
+        }
+        this.pings = Counter.builder("fastbite.tracking.pings").register(meterRegistry);
+        meterRegistry.gauge("fastbite.tracking.drivers", slots, Map::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        persister = Flux.interval(persistInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> persist()
+                        .onErrorResume(e -> {
+                            log.warn("No se pudieron guardar las posiciones: {}", e.getMessage());
+                            return Mono.empty();
+                        })
+                        .then(Mono.fromRunnable(() -> evictIdle(System.currentTimeMillis() - idleAfter.toMillis()))))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (persister != null) {
+            persister.dispose();
+        }
+    }
+
+    // Ping GPS (cada 2-5 s por repartidor activo)
+    public void update(String driverId, LocationUpdateDTO update) {
+        long now = System.currentTimeMillis();
+        while (!write(slotFor(driverId), driverId, update, now)) {
+            // El slot se liberó entre la búsqueda y la escritura: tomar otro
+        }
+        // Índice geográfico para la asignación automática
+        driverAssignment.onLocation(driverId, update.getLatitude(), update.getLongitude(), now);
+        pings.increment();
+    }
+
+    // false si el slot ya no es del repartidor (lo liberó evictIdle)
+    private boolean write(int slot, String driverId, LocationUpdateDTO update, long now) {
+        synchronized (writeLocks[slot % LOCK_STRIPES]) {
+            if (!driverId.equals(driverIds[slot])) {
+                return false;
+            }
+            sequences.incrementAndGet(slot);
+            latitudes[slot] = update.getLatitude();
+            longitudes[slot] = update.getLongitude();
+            headings[slot] = update.getHeading() != null ? update.getHeading() : Float.NaN;
+            speeds[slot] = update.getSpeed() != null ? update.getSpeed() : Float.NaN;
+            updatedAt[slot] = now;
+            sequences.incrementAndGet(slot);
+            return true;
+        }
+    }
+
+    // Libera los slots sin pings desde "idleSince" (epoch millis). Devuelve cuántos liberó
+    int evictIdle(long idleSince) {
+        int used = Math.min(nextSlot.get(), capacity);
+        int evicted = 0;
+        for (int slot = 0; slot < used; slot++) {
+            synchronized (writeLocks[slot % LOCK_STRIPES]) {
+                String driverId = driverIds[slot];
+                if (driverId == null || updatedAt[slot] >= idleSince) {
+                    continue;
+                }
+                slots.remove(driverId, slot);
+                sequences.incrementAndGet(slot);
+                driverIds[slot] = null;
+                updatedAt[slot] = 0;
+                sequences.incrementAndGet(slot);
+                persistedAt[slot] = 0;
+            }
+            freeSlots.add(slot);
+            evicted++;
+        }
+        return evicted;
+    }
+
+    // Última posición conocida (null si nunca mandó un ping)
+    public LocationUpdateDTO getLatest(String driverId) {
+        Integer slot = slots.get(driverId);
+        return slot != null ? read(slot) : null;
+    }
+
+    // Posición del repartidor para un suscriptor, como máximo una cada "interval"
+    // y solo cuando cambió
+    public Flux<LocationUpdateDTO> track(String driverId, Duration interval) {
+        return Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .mapNotNull(tick -> getLatest(driverId))
+                .distinctUntilChanged(LocationUpdateDTO::getTimestamp);
+    }
+
+    // Intervalo pedido por el cliente, sin bajar del mínimo configurado
+    public Duration streamInterval(Long requestedMillis) {
+        if (requestedMillis == null) {
+            return streamInterval;
+        }
+        Duration requested = Duration.ofMillis(requestedMillis);
+        return requested.compareTo(minStreamInterval) < 0 ? minStreamInterval : requested;
+    }
+
+    private int slotFor(String driverId) {
+        Integer slot = slots.get(driverId);
+        if (slot != null) {
+            return slot;
+        }
+        return slots.computeIfAbsent(driverId, id -> {
+            Integer free = freeSlots.poll();
+            int next = free != null ? free : nextSlot.getAndIncrement();
+            if (next >= capacity) {
+                nextSlot.decrementAndGet();
+                throw new IllegalStateException("Capacidad de tracking agotada");
+            }
+            synchronized (writeLocks[next % LOCK_STRIPES]) {
+                driverIds[next] = id;
+            }
+            return next;
+        });
+    }
+
+    private LocationUpdateDTO read(int slot) {
+        while (true) {
+            long before = sequences.get(slot);
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            double latitude = latitudes[slot];
+            double longitude = longitudes[slot];
+            float heading = headings[slot];
+            float speed = speeds[slot];
+            long timestamp = updatedAt[slot];
+            VarHandle.acquireFence();
+            if (sequences.get(slot) != before) {
+                continue;
+            }
+            if (timestamp == 0) {
+                return null;
+            }
+            return LocationUpdateDTO.builder()
+                    .driverId(driverIds[slot])
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .heading(Float.isNaN(heading) ? null : heading)
+                    .speed(Float.isNaN(speed) ? null : speed)
+                    .timestamp(timestamp)
+                    .build();
+        }
+    }
+
+    // Un punto por repartidor que se movió desde la última vez, en un solo insert
+    private Mono<Void> persist() {
+        int used = Math.min(nextSlot.get(), capacity);
+        List<DriverLocation> points = new ArrayList<>();
+        List<Integer> persistedSlots = new ArrayList<>();
+        for (int slot = 0; slot < used; slot++) {
+            LocationUpdateDTO latest = driverIds[slot] != null ? read(slot) : null;
+            if (latest == null || latest.getTimestamp() <= persistedAt[slot]) {
+                continue;
+            }
+            points.add(DriverLocation.builder()
+                    .driverId(latest.getDriverId())
+                    .location(new GeoJsonPoint(latest.getLongitude(), latest.getLatitude()))
+                    .heading(latest.getHeading())
+                    .speed(latest.getSpeed())
+                    .recordedAt(Instant.ofEpochMilli(latest.getTimestamp()))
+                    .build());
+            persistedSlots.add(slot);
+        }
+        if (points.isEmpty()) {
+            return Mono.empty();
+        }
+        return locationRepository.insert(points)
+                .then(Mono.fromRunnable(() -> {
+                    for (int i = 0; i < persistedSlots.size(); i++) {
+                        persistedAt[persistedSlots.get(i)] = points.get(i).getRecordedAt().toEpochMilli();
+                    }
+                }));
+    }
+}
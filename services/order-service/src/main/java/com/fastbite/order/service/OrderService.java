@@ -2,159 +2,250 @@ package com.fastbite.order.service;
 
 import com.fastbite.order.dto.CartItemRequest;
 import com.fastbite.order.dto.CreateOrderRequest;
+import com.fastbite.order.dto.OrderCursor;
 import com.fastbite.order.dto.OrderEvent;
 import com.fastbite.order.model.*;
 import com.fastbite.order.repository.OrderRepository;
-import com.fastbite.order.repository.ProductRepository;
-import com.fastbite.order.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
-    private final UserRepository userRepository;
+    private final ProductCache productCache;
+    private final CoalescedLookups lookups;
     private final EventService eventService;
+    private final ActiveOrderProjection activeOrders;
+    private final EventSourcingService eventSourcing;
+    private final DriverAssignmentService driverAssignment;
+    private final KitchenCapacityService kitchenCapacity;
 
     public OrderService(OrderRepository orderRepository,
-                        ProductRepository productRepository,
-                        UserRepository userRepository,
-                        EventService eventService) {
+                        ProductCache productCache,
+                        CoalescedLookups lookups,
+                        EventService eventService,
+                        ActiveOrderProjection activeOrders,
+                        EventSourcingService eventSourcing,
+                        DriverAssignmentService driverAssignment,
+                        KitchenCapacityService kitchenCapacity) {
         this.orderRepository = orderRepository;
-        this.productRepository = productRepository;
-        this.userRepository = userRepository;
+        this.productCache = productCache;
+        this.lookups = lookups;
         this.eventService = eventService;
+        this.activeOrders = activeOrders;
+        this.eventSourcing = eventSourcing;
+        this.driverAssignment = driverAssignment;
+        this.kitchenCapacity = kitchenCapacity;
     }
 
+    // Primero se reserva lugar en la cocina: con la cocina llena se rechaza
+    // (KitchenBusyException) antes de tocar la base, o se acepta con hora demorada
     public Mono<Order> createOrder(String customerId, CreateOrderRequest request) {
-        return userRepository.findById(customerId)
-                .switchIfEmpty(Mono.error(new RuntimeException("Usuario no encontrado")))
-                .flatMap(user -> buildOrderItems(request.getItems())
-                        .collectList()
-                        .map(items -> {
-                            Order order = Order.builder()
-                                    .customerId(customerId)
-                                    .customerName(user.getName())
-                                    .customerPhone(user.getPhone())
-                                    .deliveryAddress(request.getDeliveryAddress())
-                                    .notes(request.getNotes())
-                                    .items(items)
-                                    .status(OrderStatus.RECIBIDO)
-                                    .createdAt(Instant.now())
-                                    .updatedAt(Instant.now())
-                                    .build();
-                            order.calculateTotal();
-                            return order;
-                        }))
-                .flatMap(orderRepository::save)
+        return kitchenCapacity.admit(request.getRestaurantId())
+                .flatMap(admission -> {
+                    AtomicBoolean saved = new AtomicBoolean();
+                    return lookups.findUser(customerId)
+                            .switchIfEmpty(Mono.error(new RuntimeException("Usuario no encontrado")))
+                            .flatMap(user -> buildOrderItems(request.getItems())
+                                    .map(items -> {
+                                        Order order = Order.builder()
+                                                .customerId(customerId)
+                                                .restaurantId(admission.restaurantId())
+                                                .customerName(user.getName())
+                                                .customerPhone(user.getPhone())
+                                                .deliveryAddress(request.getDeliveryAddress())
+                                                .notes(request.getNotes())
+                                                .items(items)
+                                                .status(OrderStatus.RECIBIDO)
+                                                .createdAt(Instant.now())
+                                                .updatedAt(Instant.now())
+                                                .estimatedReadyAt(admission.estimatedReadyAt())
+                                                .build();
+                                        order.calculateTotal();
+                                        return order;
+                                    }))
+                            .flatMap(orderRepository::save)
+                            .doOnNext(order -> {
+                                saved.set(true);
+                                kitchenCapacity.confirm(admission, order.getId());
+                            })
+                            // La orden no se guardó (error o request cancelado): liberar el lugar reservado
+                            .doFinally(signal -> {
+                                if (!saved.get()) {
+                                    kitchenCapacity.cancel(admission);
+                                }
+                            });
+                })
+                // Auditoría en el log de eventos (se espera el commit del lote)
+                .flatMap(order -> eventSourcing.recordCreated(order).thenReturn(order))
                 .doOnNext(order -> {
                     // Emitir evento de nueva orden (para cocina)
                     eventService.emitOrderEvent(OrderEvent.created(order));
                 });
     }
 
-    private Flux<OrderItem> buildOrderItems(List<CartItemRequest> cartItems) {
-        return Flux.fromIterable(cartItems)
-                .flatMap(cartItem -> productRepository.findById(cartItem.getProductId())
-                        .map(product -> OrderItem.builder()
+    // Productos desde la caché; los que falten se cargan en una sola consulta ($in)
+    private Mono<List<OrderItem>> buildOrderItems(List<CartItemRequest> cartItems) {
+        // Sumar cantidades del mismo producto, respetando el orden del carrito
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        cartItems.forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+
+        return productCache.getAll(quantities.keySet())
+                .flatMap(products -> {
+                    // Reportar todos los productos faltantes en un solo error
+                    List<String> missing = quantities.keySet().stream()
+                            .filter(productId -> !products.containsKey(productId))
+                            .toList();
+                    if (!missing.isEmpty()) {
+                        return Mono.error(new RuntimeException(
+                                "Productos no encontrados: " + String.join(", ", missing)
+                        ));
+                    }
+
+                    List<OrderItem> items = new ArrayList<>(quantities.size());
+                    quantities.forEach((productId, quantity) -> {
+                        Product product = products.get(productId);
+                        items.add(OrderItem.builder()
                                 .productId(product.getId())
                                 .productName(product.getName())
                                 .unitPrice(product.getPrice())
-                                .quantity(cartItem.getQuantity())
-                                .build())
-                        .switchIfEmpty(Mono.error(
-                                new RuntimeException("Producto no encontrado: " + cartItem.getProductId())
-                        ))
-                );
+                                .quantity(quantity)
+                                .build());
+                    });
+                    return Mono.just(items);
+                });
     }
 
     public Mono<Order> getById(String orderId) {
-        return orderRepository.findById(orderId)
+        return lookups.findOrder(orderId)
                 .switchIfEmpty(Mono.error(new RuntimeException("Pedido no encontrado")));
     }
 
-    public Flux<Order> getByCustomerId(String customerId) {
-        return orderRepository.findByCustomerId(customerId);
+    // Historial del cliente, de la más nueva a la más vieja, después de "before"
+    public Flux<Order> getByCustomerId(String customerId, OrderCursor before, int limit) {
+        return orderRepository.findHistory(customerId, before, limit);
     }
 
-    public Flux<Order> getAll() {
-        return orderRepository.findAllByOrderByCreatedAtDesc();
+    public Flux<Order> getAll(OrderCursor before, int limit) {
+        return orderRepository.findHistory(null, before, limit);
     }
 
     public Flux<Order> getByStatus(OrderStatus status) {
         return orderRepository.findByStatus(status);
     }
 
-    public Flux<Order> getForKitchen() {
+    public Flux<Order> getForKitchen(OrderCursor after, int limit) {
         // Cocina ve: RECIBIDO, PREPARANDO, LISTO
-        return orderRepository.findByStatusIn(
-                List.of(OrderStatus.RECIBIDO, OrderStatus.PREPARANDO, OrderStatus.LISTO)
-        );
+        return getActive(List.of(OrderStatus.RECIBIDO, OrderStatus.PREPARANDO, OrderStatus.LISTO), after, limit);
     }
 
-    public Flux<Order> getForDelivery() {
+    public Flux<Order> getForDelivery(OrderCursor after, int limit) {
         // Repartidor ve: LISTO, EN_CAMINO
-        return orderRepository.findByStatusIn(
-                List.of(OrderStatus.LISTO, OrderStatus.EN_CAMINO)
-        );
+        return getActive(List.of(OrderStatus.LISTO, OrderStatus.EN_CAMINO), after, limit);
+    }
+
+    // Desde memoria; a Mongo solo mientras la proyección se está cargando
+    private Flux<Order> getActive(List<OrderStatus> statuses, OrderCursor after, int limit) {
+        if (activeOrders.isReady()) {
+            return Flux.defer(() -> {
+                Flux<Order> orders = Flux.fromIterable(activeOrders.byStatus(statuses));
+                if (after != null) {
+                    orders = orders.filter(after::isBefore);
+                }
+                return limit > 0 ? orders.take(limit) : orders;
+            });
+        }
+        return orderRepository.findByStatusInAfter(statuses, after, limit);
     }
 
+    // Un solo findAndModify condicionado al estado anterior: si dos usuarios compiten
+    // por la misma orden (ej. dos repartidores por un LISTO) solo uno gana.
+    // Una orden LISTO con repartidor asignado solo la puede tomar ese repartidor,
+    // y solo el repartidor asignado puede marcarla ENTREGADO
     public Mono<Order> updateStatus(String orderId, OrderStatus newStatus, String userId, Role userRole) {
-        return orderRepository.findById(orderId)
-                .switchIfEmpty(Mono.error(new RuntimeException("Pedido no encontrado")))
-                .flatMap(order -> {
-                    // Validar transición de estado según rol
-                    if (!isValidTransition(order.getStatus(), newStatus, userRole)) {
-                        return Mono.error(new RuntimeException(
-                                "Transición de estado no permitida: " + order.getStatus() + " -> " + newStatus
-                        ));
-                    }
-                    
-                    order.setStatus(newStatus);
-                    order.setUpdatedAt(Instant.now());
-                    
-                    // Si el repartidor toma el pedido, asignarlo
-                    if (newStatus == OrderStatus.EN_CAMINO && userRole == Role.REPARTIDOR) {
-                        order.setAssignedDeliveryId(userId);
-                    }
-                    
-                    return orderRepository.save(order);
-                })
+        OrderStatus requiredStatus = previousStatus(newStatus, userRole);
+        if (requiredStatus == null) {
+            return Mono.error(new RuntimeException(
+                    "Transición de estado no permitida: " + userRole + " -> " + newStatus
+            ));
+        }
+
+        // Si el repartidor toma el pedido, asignarlo
+        String assignedDeliveryId = newStatus == OrderStatus.EN_CAMINO && userRole == Role.REPARTIDOR
+                ? userId
+                : null;
+
+        Mono<Order> transition = newStatus == OrderStatus.ENTREGADO
+                ? orderRepository.deliver(orderId, userId)
+                : orderRepository.transitionStatus(orderId, requiredStatus, newStatus, assignedDeliveryId);
+
+        return transition
+                // Sin cambios: la orden no existe, ya no está en el estado esperado o es de otro repartidor
+                .switchIfEmpty(Mono.defer(() -> lookups.findOrder(orderId)
+                        .switchIfEmpty(Mono.error(new RuntimeException("Pedido no encontrado")))
+                        .flatMap(order -> Mono.<Order>error(new RuntimeException(
+                                order.getStatus() == requiredStatus
+                                        ? "El pedido está asignado a otro repartidor"
+                                        : "Transición de estado no permitida: " + order.getStatus() + " -> " + newStatus
+                        )))))
+                .flatMap(order -> eventSourcing.recordStatusChange(order, userId).thenReturn(order))
                 .doOnNext(order -> {
                     // Emitir evento de cambio de estado
                     eventService.emitOrderEvent(OrderEvent.statusChanged(order));
+                    updateDriverAvailability(order, userId);
                 });
     }
 
-    private boolean isValidTransition(OrderStatus current, OrderStatus next, Role role) {
+    // LISTO: buscar repartidor; EN_CAMINO: el repartidor queda ocupado;
+    // ENTREGADO: se libera el repartidor asignado a la orden
+    private void updateDriverAvailability(Order order, String userId) {
+        switch (order.getStatus()) {
+            case LISTO -> driverAssignment.assignAsync(order.getId());
+            case EN_CAMINO -> driverAssignment.markBusy(userId, order.getId());
+            case ENTREGADO -> driverAssignment.release(order.getAssignedDeliveryId(), order.getId());
+            default -> {
+            }
+        }
+    }
+
+    // Estado desde el que cada rol puede pasar a "next" (null = no permitido)
+    private OrderStatus previousStatus(OrderStatus next, Role role) {
         return switch (role) {
-            case COCINA -> switch (current) {
-                case RECIBIDO -> next == OrderStatus.PREPARANDO;
-                case PREPARANDO -> next == OrderStatus.LISTO;
-                default -> false;
+            case COCINA -> switch (next) {
+                case PREPARANDO -> OrderStatus.RECIBIDO;
+                case LISTO -> OrderStatus.PREPARANDO;
+                default -> null;
             };
-            case REPARTIDOR -> switch (current) {
-                case LISTO -> next == OrderStatus.EN_CAMINO;
-                case EN_CAMINO -> next == OrderStatus.ENTREGADO;
-                default -> false;
+            case REPARTIDOR -> switch (next) {
+                case EN_CAMINO -> OrderStatus.LISTO;
+                case ENTREGADO -> OrderStatus.EN_CAMINO;
+                default -> null;
             };
-            case CLIENTE -> false; // Cliente no puede cambiar estados
+            case CLIENTE -> null; // Cliente no puede cambiar estados
         };
     }
 
     // Verificar si el usuario tiene acceso al pedido
     public Mono<Boolean> hasAccess(String orderId, String userId, Role role) {
-        return orderRepository.findById(orderId)
-                .map(order -> switch (role) {
-                    case CLIENTE -> order.getCustomerId().equals(userId);
-                    case COCINA, REPARTIDOR -> true; // Cocina y repartidor ven todos
-                })
+        return lookups.findOrder(orderId)
+                .map(order -> canAccess(order, userId, role))
                 .defaultIfEmpty(false);
     }
+
+    // Misma regla sobre una orden ya cargada (sin volver a buscarla)
+    public boolean canAccess(Order order, String userId, Role role) {
+        return switch (role) {
+            case CLIENTE -> order.getCustomerId().equals(userId);
+            case COCINA, REPARTIDOR -> true; // Cocina y repartidor ven todos
+        };
+    }
 }
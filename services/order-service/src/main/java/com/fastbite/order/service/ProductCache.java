@@ -0,0 +1,71 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.client.RestaurantServiceClient;
+import com.fastbite.order.model.Product;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Caché read-through de productos de restaurant-service (el menú cambia pocas veces al día).
+// - maximumSize / expireAfterWrite acotan memoria y antigüedad
+// - refreshAfterWrite recarga en segundo plano antes de expirar (stale-while-revalidate):
+//   si restaurant-service está lento o caído se sigue sirviendo el último valor hasta ttl
+// - restaurant-service avisa cambios por product-events y se invalida la entrada
+// Métricas en /actuator/metrics/cache.gets, cache.evictions... (cache=products)
+@Component
+public class ProductCache {
+
+    private final AsyncLoadingCache<String, Product> cache;
+
+    public ProductCache(RestaurantServiceClient restaurantClient,
+                        MeterRegistry meterRegistry,
+                        @Value("${products.cache.max-size:10000}") long maxSize,
+                        @Value("${products.cache.ttl:10m}") Duration ttl,
+                        @Value("${products.cache.refresh-after:1m}") Duration refreshAfter) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<String, Product>() {
+                    @Override
+                    public CompletableFuture<Product> asyncLoad(String productId, Executor executor) {
+                        return restaurantClient.getProduct(productId).toFuture();
+                    }
+
+                    // Los faltantes en caché se cargan juntos en una sola llamada (?ids=)
+                    @Override
+                    public CompletableFuture<Map<String, Product>> asyncLoadAll(Set<? extends String> productIds,
+                                                                                Executor executor) {
+                        return restaurantClient.getProducts(new ArrayList<String>(productIds)).toFuture();
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public Mono<Product> get(String productId) {
+        return Mono.fromFuture(() -> cache.get(productId));
+    }
+
+    // Solo incluye los productos que existen
+    public Mono<Map<String, Product>> getAll(Collection<String> productIds) {
+        return Mono.fromFuture(() -> cache.getAll(productIds));
+    }
+
+    public void invalidate(String productId) {
+        cache.synchronous().invalidate(productId);
+    }
+}
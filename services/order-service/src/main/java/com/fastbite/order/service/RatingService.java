@@ -0,0 +1,237 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.dto.CreateRatingRequest;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import com.fastbite.order.model.Rating;
+import com.fastbite.order.model.RatingAggregate;
+import com.fastbite.order.model.RatingTarget;
+import com.fastbite.order.repository.RatingAggregateRepository;
+import com.fastbite.order.repository.RatingRepository;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Calificaciones de productos y repartidores.
+// - Cada calificación hace un $inc sobre el resumen del destino (count, sum, histograma):
+//   leer promedios nunca recorre la colección de calificaciones
+// - Los resúmenes se sirven desde una caché en memoria (tarjetas del menú); al calificar
+//   se reemplaza la entrada con el resumen nuevo, refresh-after trae los de otras réplicas.
+//   Los destinos sin calificaciones también quedan en caché (resumen vacío): la mayoría
+//   de las tarjetas del menú no vuelve a consultar Mongo en cada request
+// - Reparación cada repair.interval: recalcula en paralelo desde las calificaciones
+//   y corrige los resúmenes que no tuvieron cambios desde que empezó el recorrido
+@Service
+public class RatingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingService.class);
+
+    private final RatingRepository ratingRepository;
+    private final RatingAggregateRepository aggregateRepository;
+    private final CoalescedLookups lookups;
+    private final AsyncLoadingCache<String, RatingAggregate> cache;
+    private final Duration repairInterval;
+    private final int repairPartitions;
+    private Disposable repairer;
+
+    public RatingService(RatingRepository ratingRepository,
+                         RatingAggregateRepository aggregateRepository,
+                         CoalescedLookups lookups,
+                         MeterRegistry meterRegistry,
+                         @Value("${ratings.cache.max-size:10000}") long maxSize,
+                         @Value("${ratings.cache.refresh-after:1m}") Duration refreshAfter,
+                         @Value("${ratings.repair.interval:6h}") Duration repairInterval,
+                         @Value("${ratings.repair.partitions:0}") int repairPartitions) {
+        this.ratingRepository = ratingRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.lookups = lookups;
+        this.repairInterval = repairInterval;
+        this.repairPartitions = repairPartitions > 0 ? repairPartitions : Schedulers.DEFAULT_POOL_SIZE;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<String, RatingAggregate>() {
+                    @Override
+                    public CompletableFuture<RatingAggregate> asyncLoad(String id, Executor executor) {
+                        return aggregateRepository.findById(id)
+                                .defaultIfEmpty(empty(id))
+                                .toFuture();
+                    }
+
+                    // Los faltantes se cargan juntos en un solo findAllById
+                    @Override
+                    public CompletableFuture<Map<String, RatingAggregate>> asyncLoadAll(Set<? extends String> ids,
+                                                                                       Executor executor) {
+                        return aggregateRepository.findAllById(new ArrayList<String>(ids))
+                                .collectMap(RatingAggregate::getId)
+                                .map(found -> {
+                                    Map<String, RatingAggregate> all = new HashMap<>(found);
+                                    ids.forEach(id -> all.computeIfAbsent(id, RatingService::empty));
+                                    return all;
+                                })
+                                .toFuture();
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ratings");
+    }
+
+    @PostConstruct
+    public void start() {
+        repairer = Flux.interval(repairInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> repair()
+                        .doOnNext(fixed -> {
+                            if (fixed > 0) {
+                                log.warn("Resúmenes de calificaciones corregidos: {}", fixed);
+                            }
+                        })
+                        .onErrorResume(e -> {
+                            log.warn("Error reparando resúmenes de calificaciones: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (repairer != null) {
+            repairer.dispose();
+        }
+    }
+
+    // Solo el cliente de la orden, una vez entregada, y una vez por producto / repartidor
+    public Mono<Rating> rate(String customerId, CreateRatingRequest request) {
+        return lookups.findOrder(request.getOrderId())
+                .switchIfEmpty(Mono.error(new RuntimeException("Pedido no encontrado")))
+                .flatMap(order -> {
+                    if (!order.getCustomerId().equals(customerId)) {
+                        return Mono.<Rating>error(new RuntimeException("El pedido no es del cliente"));
+                    }
+                    if (order.getStatus() != OrderStatus.ENTREGADO) {
+                        return Mono.<Rating>error(new RuntimeException("Solo se califican pedidos entregados"));
+                    }
+                    String targetId = targetIdOf(order, request);
+                    if (targetId == null) {
+                        return Mono.<Rating>error(new RuntimeException("Nada que calificar en el pedido"));
+                    }
+                    return ratingRepository.insert(Rating.builder()
+                            .orderId(order.getId())
+                            .customerId(customerId)
+                            .target(request.getTarget())
+                            .targetId(targetId)
+                            .score(request.getScore())
+                            .comment(request.getComment())
+                            .createdAt(Instant.now())
+                            .build());
+                })
+                // El índice único rechaza la segunda calificación (DuplicateKeyException)
+                .flatMap(rating -> aggregateRepository.increment(rating.getTarget(), rating.getTargetId(), rating.getScore())
+                        .doOnNext(aggregate -> cache.put(aggregate.getId(), CompletableFuture.completedFuture(aggregate)))
+                        // La calificación quedó guardada: si falla el $inc lo corrige la reparación
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo actualizar el resumen de {}: {}", rating.getTargetId(), e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(rating));
+    }
+
+    // Resúmenes de varios productos (tarjetas del menú). Los que no tienen calificaciones no vienen
+    public Mono<List<RatingAggregate>> getProductRatings(Collection<String> productIds) {
+        List<String> ids = productIds.stream()
+                .map(productId -> RatingAggregate.idOf(RatingTarget.PRODUCT, productId))
+                .toList();
+        return Mono.fromFuture(() -> cache.getAll(ids))
+                .map(aggregates -> aggregates.values().stream()
+                        .filter(aggregate -> aggregate.getCount() > 0)
+                        .toList());
+    }
+
+    // Vacío si el repartidor no tiene calificaciones
+    public Mono<RatingAggregate> getDriverRating(String driverId) {
+        return Mono.fromFuture(() -> cache.get(RatingAggregate.idOf(RatingTarget.DRIVER, driverId)))
+                .filter(aggregate -> aggregate.getCount() > 0);
+    }
+
+    // Recalcula todos los resúmenes recorriendo las calificaciones una vez.
+    // Cada partición (hash del destino) acumula en paralelo; solo se cuentan calificaciones
+    // anteriores al inicio y solo se corrige un resumen que no cambió desde entonces.
+    // Devuelve la cantidad de resúmenes corregidos
+    public Mono<Long> repair() {
+        Instant startedAt = Instant.now();
+        int partitions = repairPartitions;
+        return ratingRepository.findAll()
+                .filter(rating -> rating.getCreatedAt() != null && rating.getCreatedAt().isBefore(startedAt))
+                .groupBy(rating -> Math.floorMod(RatingAggregate.idOf(rating.getTarget(), rating.getTargetId()).hashCode(),
+                        partitions))
+                .flatMap(partition -> partition
+                        .publishOn(Schedulers.parallel())
+                        .reduceWith(HashMap<String, RatingAggregate>::new, RatingService::accumulate)
+                        .flatMapIterable(Map::values), partitions)
+                .flatMap(recomputed -> aggregateRepository.replaceIfUnchangedSince(recomputed, startedAt), partitions)
+                .filter(Boolean::booleanValue)
+                .count()
+                .doOnNext(fixed -> {
+                    if (fixed > 0) {
+                        cache.synchronous().invalidateAll();
+                    }
+                });
+    }
+
+    // Resumen en cero de un destino sin calificaciones (id = "<target>:<targetId>")
+    private static RatingAggregate empty(String id) {
+        int separator = id.indexOf(':');
+        return RatingAggregate.builder()
+                .id(id)
+                .target(RatingTarget.valueOf(id.substring(0, separator)))
+                .targetId(id.substring(separator + 1))
+                .build();
+    }
+
+    private static HashMap<String, RatingAggregate> accumulate(HashMap<String, RatingAggregate> totals, Rating rating) {
+        String id = RatingAggregate.idOf(rating.getTarget(), rating.getTargetId());
+        RatingAggregate aggregate = totals.computeIfAbsent(id, key -> RatingAggregate.builder()
+                .id(key)
+                .target(rating.getTarget())
+                .targetId(rating.getTargetId())
+                .build());
+        aggregate.setCount(aggregate.getCount() + 1);
+        aggregate.setSum(aggregate.getSum() + rating.getScore());
+        aggregate.getHistogram().merge(Integer.toString(rating.getScore()), 1L, Long::sum);
+        return totals;
+    }
+
+    // Producto del pedido o repartidor que lo entregó (null si no corresponde)
+    private static String targetIdOf(Order order, CreateRatingRequest request) {
+        return switch (request.getTarget()) {
+            case PRODUCT -> order.getItems().stream()
+                    .anyMatch(item -> item.getProductId().equals(request.getProductId()))
+                    ? request.getProductId()
+                    : null;
+            case DRIVER -> order.getAssignedDeliveryId();
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.fastbite.order.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Singleflight: lookups concurrentes de la misma clave comparten un solo Mono en vuelo.
+// No es una caché: la entrada se quita apenas la consulta termina (valor, vacío o error).
+// Métrica fastbite.coalescing.requests{repository, result=hit|miss}
+public class RequestCoalescer<K, V> {
+
+    private final Function<K, Mono<V>> loader;
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RequestCoalescer(String repository, Function<K, Mono<V>> loader, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.hits = Counter.builder("fastbite.coalescing.requests")
+                .tag("repository", repository)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("fastbite.coalescing.requests")
+                .tag("repository", repository)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public Mono<V> get(K key) {
+        return Mono.defer(() -> {
+            boolean[] started = {false};
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                started[0] = true;
+                return load(k);
+            });
+            (started[0] ? misses : hits).increment();
+            return shared;
+        });
+    }
+
+    // cache() reparte el resultado a todos los que se sumaron; doFinally libera la clave
+    @SuppressWarnings("unchecked")
+    private Mono<V> load(K key) {
+        Mono<V>[] self = new Mono[1];
+        self[0] = loader.apply(key)
+                .doFinally(signal -> inFlight.remove(key, self[0]))
+                .cache();
+        return self[0];
+    }
+}
@@ -0,0 +1,40 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.client.UserServiceClient;
+import com.fastbite.order.model.User;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Caché read-through de usuarios de user-service (nombre y teléfono para las órdenes).
+// Igual que ProductCache: refresh en segundo plano y, si user-service está lento o caído,
+// se sigue sirviendo el último valor hasta ttl. Cargas concurrentes de una clave se unen
+@Component
+public class UserCache {
+
+    private final AsyncLoadingCache<String, User> cache;
+
+    public UserCache(UserServiceClient userClient,
+                     MeterRegistry meterRegistry,
+                     @Value("${users.cache.max-size:50000}") long maxSize,
+                     @Value("${users.cache.ttl:1h}") Duration ttl,
+                     @Value("${users.cache.refresh-after:5m}") Duration refreshAfter) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .buildAsync((userId, executor) -> userClient.getUser(userId).toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Mono<User> get(String userId) {
+        return Mono.fromFuture(() -> cache.get(userId));
+    }
+}
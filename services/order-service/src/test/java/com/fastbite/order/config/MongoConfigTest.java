@@ -0,0 +1,61 @@
+package com.fastbite.order.config;
+
+import com.fastbite.order.model.DriverLocation;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOptions;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MongoConfigTest {
+
+    private ReactiveIndexOperations indexOps;
+    private MongoConfig config;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        indexOps = mock(ReactiveIndexOperations.class);
+        when(mongoTemplate.indexOps(DriverLocation.class)).thenReturn(indexOps);
+        config = new MongoConfig(mongoTemplate, Duration.ofDays(3));
+    }
+
+    @Test
+    void driverLocationsExpireAfterTheConfiguredRetention() {
+        when(indexOps.createIndex(any())).thenReturn(Mono.just(MongoConfig.DRIVER_LOCATION_TTL_INDEX));
+
+        StepVerifier.create(config.driverLocationRetention()).verifyComplete();
+
+        ArgumentCaptor<IndexDefinition> index = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps).createIndex(index.capture());
+        assertThat(index.getValue().getIndexKeys()).isEqualTo(new Document("recordedAt", 1));
+        assertThat(index.getValue().getIndexOptions())
+                .containsEntry("name", MongoConfig.DRIVER_LOCATION_TTL_INDEX)
+                .containsEntry("expireAfterSeconds", Duration.ofDays(3).toSeconds());
+        verify(indexOps, never()).alterIndex(any(), any());
+    }
+
+    @Test
+    void changedRetentionAltersTheExistingIndex() {
+        when(indexOps.createIndex(any())).thenReturn(Mono.error(new IllegalStateException("IndexOptionsConflict")));
+        when(indexOps.alterIndex(eq(MongoConfig.DRIVER_LOCATION_TTL_INDEX), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(config.driverLocationRetention()).verifyComplete();
+
+        ArgumentCaptor<IndexOptions> options = ArgumentCaptor.forClass(IndexOptions.class);
+        verify(indexOps).alterIndex(eq(MongoConfig.DRIVER_LOCATION_TTL_INDEX), options.capture());
+        assertThat(options.getValue().getExpire()).isEqualTo(Duration.ofDays(3));
+    }
+}
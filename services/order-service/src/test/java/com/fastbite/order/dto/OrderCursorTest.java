@@ -0,0 +1,65 @@
+package com.fastbite.order.dto;
+
+import com.fastbite.order.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCursorTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T12:00:00.123456Z");
+
+    private static Order order(String id, Instant createdAt) {
+        return Order.builder().id(id).createdAt(createdAt).build();
+    }
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        OrderCursor cursor = OrderCursor.of(order("65a1f0", T0));
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(OrderCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void missingCursorIsTheFirstPage() {
+        assertThat(OrderCursor.decode(null)).isNull();
+        assertThat(OrderCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> OrderCursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderCursor.decode(new OrderCursor(T0, "x").encode().substring(3)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sameCreatedAtIsBrokenById() {
+        OrderCursor cursor = new OrderCursor(T0, "b");
+
+        assertThat(cursor.isBefore(order("c", T0))).isTrue();
+        assertThat(cursor.isBefore(order("b", T0))).isFalse();
+        assertThat(cursor.isBefore(order("a", T0))).isFalse();
+        assertThat(cursor.isBefore(order("a", T0.plusMillis(1)))).isTrue();
+    }
+
+    @Test
+    void pagesFollowingTheCursorNeitherRepeatNorSkipOrders() {
+        List<Order> all = new ArrayList<>(List.of(
+                order("d", T0.plusSeconds(1)), order("b", T0), order("a", T0), order("c", T0)));
+        all.sort(OrderCursor.ORDER);
+        assertThat(all).extracting(Order::getId).containsExactly("a", "b", "c", "d");
+
+        OrderCursor afterFirstPage = OrderCursor.decode(OrderCursor.of(all.get(1)).encode());
+
+        assertThat(all.stream().filter(afterFirstPage::isBefore)).extracting(Order::getId).containsExactly("c", "d");
+    }
+}
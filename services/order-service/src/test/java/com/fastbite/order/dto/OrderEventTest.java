@@ -0,0 +1,74 @@
+package com.fastbite.order.dto;
+
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderItem;
+import com.fastbite.order.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private static Order order() {
+        return Order.builder()
+                .id("o1")
+                .customerId("cliente-1")
+                .restaurantId("rest-1")
+                .status(OrderStatus.LISTO)
+                .version(3)
+                .items(List.of(OrderItem.builder().productId("p1").productName("Pizza")
+                        .unitPrice(new BigDecimal("100")).quantity(2).build()))
+                .updatedAt(Instant.parse("2026-01-01T12:00:00Z"))
+                .build();
+    }
+
+    private JsonNode json(OrderEvent event) {
+        return objectMapper.readTree(objectMapper.writeValueAsString(event));
+    }
+
+    @Test
+    void statusChangeIsADeltaWithoutTheOrder() {
+        JsonNode delta = json(OrderEvent.statusChanged(order()));
+
+        assertThat(delta.has("order")).isFalse();
+        assertThat(delta.has("assignedDeliveryId")).isFalse();
+        assertThat(delta.get("eventType").asString()).isEqualTo("STATUS_CHANGED");
+        assertThat(delta.get("orderId").asString()).isEqualTo("o1");
+        assertThat(delta.get("status").asString()).isEqualTo("LISTO");
+        assertThat(delta.get("version").asLong()).isEqualTo(3);
+    }
+
+    @Test
+    void driverAssignmentCarriesOnlyTheDriver() {
+        Order assigned = order().toBuilder().assignedDeliveryId("driver-1").version(4).build();
+
+        JsonNode delta = json(OrderEvent.driverAssigned(assigned));
+
+        assertThat(delta.has("order")).isFalse();
+        assertThat(delta.get("assignedDeliveryId").asString()).isEqualTo("driver-1");
+        assertThat(delta.get("version").asLong()).isEqualTo(4);
+    }
+
+    @Test
+    void createdAndSnapshotCarryTheFullOrder() {
+        assertThat(json(OrderEvent.created(order())).at("/order/items/0/productName").asString()).isEqualTo("Pizza");
+        assertThat(json(OrderEvent.snapshot(order())).at("/order/id").asString()).isEqualTo("o1");
+    }
+
+    @Test
+    void deltaIsMuchSmallerThanTheFullEvent() {
+        int delta = objectMapper.writeValueAsString(OrderEvent.statusChanged(order())).length();
+        int full = objectMapper.writeValueAsString(OrderEvent.snapshot(order())).length();
+
+        assertThat(delta).isLessThan(full / 2);
+    }
+}
@@ -0,0 +1,93 @@
+package com.fastbite.order.event;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchingQueueTest {
+
+    @Test
+    void fullQueueRejectsTheItemAndKeepsAcceptingOnceDrained() {
+        BatchingQueue<Integer> queue = new BatchingQueue<>(2);
+
+        assertThat(queue.offer(1)).isTrue();
+        assertThat(queue.offer(2)).isTrue();
+        assertThat(queue.offer(3)).isFalse();
+
+        List<Integer> received = new ArrayList<>();
+        queue.batches(10, Duration.ofMillis(10)).subscribe(received::addAll);
+
+        // Lo rechazado no rompe la cola: al vaciarse vuelve a aceptar
+        assertThat(queue.offer(4)).isTrue();
+        queue.complete();
+        assertThat(received).containsExactly(1, 2, 4);
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducersNeverLoseOrRejectItems() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 5_000;
+        BatchingQueue<Integer> queue = new BatchingQueue<>(producers * perProducer);
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    if (!queue.offer(i)) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        StepVerifier verifier = StepVerifier.create(queue.batches(100, Duration.ofMillis(5))
+                        .map(List::size)
+                        .reduce(0, Integer::sum))
+                .expectNext(producers * perProducer)
+                .expectComplete()
+                .verifyLater();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        queue.complete();
+
+        verifier.verify(Duration.ofSeconds(10));
+        assertThat(rejected).hasValue(0);
+    }
+
+    @Test
+    void batchesWaitForDemandInsteadOfFailing() {
+        BatchingQueue<Integer> queue = new BatchingQueue<>(100);
+        for (int i = 0; i < 30; i++) {
+            queue.offer(i);
+        }
+        queue.complete();
+
+        // Sin pedidos pendientes el timer no corta el stream con overflow
+        StepVerifier.create(queue.batches(10, Duration.ofMillis(1)), 0)
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(50))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,44 @@
+package com.fastbite.order.event;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BroadcastListenersTest {
+
+    private static KafkaMessageListenerContainer<String, String> container() {
+        return BroadcastListeners.container("localhost:9092", "order-service-sse-",
+                (BatchMessageListener<String, String>) records -> { }, "order-events", "order-comments");
+    }
+
+    @Test
+    void consumerNeverCommitsOffsets() {
+        ContainerProperties properties = container().getContainerProperties();
+
+        assertThat(properties.getTopics()).containsExactly("order-events", "order-comments");
+        assertThat(properties.getAckMode()).isEqualTo(ContainerProperties.AckMode.MANUAL);
+        assertThat(properties.getAssignmentCommitOption())
+                .isEqualTo(ContainerProperties.AssignmentCommitOption.NEVER);
+
+        Map<String, Object> config = BroadcastListeners.consumerProps("localhost:9092", "order-service-sse-");
+        assertThat(config).containsEntry(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false)
+                .containsEntry(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    }
+
+    @Test
+    void eachStartGetsItsOwnGroup() {
+        Object first = BroadcastListeners.consumerProps("localhost:9092", "order-service-sse-")
+                .get(ConsumerConfig.GROUP_ID_CONFIG);
+        Object second = BroadcastListeners.consumerProps("localhost:9092", "order-service-sse-")
+                .get(ConsumerConfig.GROUP_ID_CONFIG);
+
+        assertThat(first).asString().startsWith("order-service-sse-");
+        assertThat(first).isNotEqualTo(second);
+    }
+}
@@ -0,0 +1,151 @@
+package com.fastbite.order.event;
+
+import com.fastbite.order.dto.OrderEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Dos journals alimentados con el mismo bus hacen de dos réplicas
+class EventJournalTest {
+
+    private static final String SCOPE = "order-events";
+
+    private static EncodedOrderEvent received(String orderId, int partition, long offset) {
+        OrderEvent event = OrderEvent.builder()
+                .eventType(OrderEvent.EventType.STATUS_CHANGED)
+                .orderId(orderId)
+                .build();
+        return new EncodedOrderEvent(event, "{}").at(partition, offset);
+    }
+
+    private static List<String> orderIds(List<EncodedOrderEvent> events) {
+        return events.stream().map(EncodedOrderEvent::orderId).toList();
+    }
+
+    @Test
+    void replaysOnlyWhatCameAfterTheLastEventId() {
+        EventJournal journal = new EventJournal(16, SCOPE);
+        journal.append(received("a", 0, 1));
+        String lastEventId = journal.append(received("b", 0, 2)).id();
+        journal.append(received("c", 0, 3));
+        journal.append(received("d", 1, 7));
+
+        List<EncodedOrderEvent> missed = journal.since(journal.position(lastEventId), event -> true);
+
+        assertThat(orderIds(missed)).containsExactly("c", "d");
+    }
+
+    @Test
+    void idFromAnotherReplicaResumesEvenIfPartitionsInterleavedDifferently() {
+        EventJournal replicaA = new EventJournal(16, SCOPE);
+        EventJournal replicaB = new EventJournal(16, SCOPE);
+        // Cada partición llega en orden, pero las dos se mezclan distinto en cada réplica
+        replicaA.append(received("a", 0, 1));
+        replicaA.append(received("x", 1, 1));
+        String lastEventId = replicaA.append(received("b", 0, 2)).id();
+
+        replicaB.append(received("a", 0, 1));
+        replicaB.append(received("b", 0, 2));
+        replicaB.append(received("c", 0, 3));
+        replicaB.append(received("x", 1, 1));
+        replicaB.append(received("y", 1, 2));
+
+        List<EncodedOrderEvent> missed = replicaB.since(replicaB.position(lastEventId), event -> true);
+
+        assertThat(orderIds(missed)).containsExactly("c", "y");
+    }
+
+    @Test
+    void liveEventsAlreadySeenOnAFasterReplicaAreCovered() {
+        EventJournal replicaA = new EventJournal(16, SCOPE);
+        EventJournal replicaB = new EventJournal(16, SCOPE);
+        replicaA.append(received("a", 0, 1));
+        String lastEventId = replicaA.append(received("b", 0, 2)).id();
+        replicaB.append(received("a", 0, 1));
+
+        EventJournal.Position from = replicaB.position(lastEventId);
+
+        assertThat(replicaB.since(from, event -> true)).isEmpty();
+        // "b" todavía no llegó a B: cuando llegue en vivo el cliente ya lo tiene
+        assertThat(from.covers(replicaB.append(received("b", 0, 2)))).isTrue();
+        assertThat(from.covers(replicaB.append(received("c", 0, 3)))).isFalse();
+    }
+
+    @Test
+    void partitionTheClientNeverSawIsReplayedWhileItIsWhole() {
+        EventJournal journal = new EventJournal(3, SCOPE);
+        String lastEventId = journal.append(received("a", 0, 1)).id();
+        journal.append(received("x", 1, 40));
+        journal.append(received("y", 1, 41));
+
+        assertThat(orderIds(journal.since(journal.position(lastEventId), event -> true))).containsExactly("x", "y");
+
+        // Con "x" fuera del ring ya no se puede reenviar la partición completa
+        journal.append(received("b", 0, 2));
+        journal.append(received("c", 0, 3));
+        EventJournal.Position from = journal.position(lastEventId);
+        assertThatThrownBy(() -> journal.since(from, event -> true))
+                .isInstanceOf(ResyncRequiredException.class);
+    }
+
+    @Test
+    void redeliveredPositionIsNotAppendedTwice() {
+        EventJournal journal = new EventJournal(16, SCOPE);
+        journal.append(received("a", 0, 1));
+
+        assertThat(journal.append(received("a", 0, 1))).isNull();
+    }
+
+    @Test
+    void gapOutsideTheRingRequiresResync() {
+        EventJournal journal = new EventJournal(2, SCOPE);
+        String lastEventId = journal.append(received("a", 0, 1)).id();
+        journal.append(received("b", 0, 2));
+        journal.append(received("c", 0, 3));
+        journal.append(received("d", 0, 4));
+
+        EventJournal.Position from = journal.position(lastEventId);
+
+        assertThatThrownBy(() -> journal.since(from, event -> true))
+                .isInstanceOf(ResyncRequiredException.class);
+    }
+
+    @Test
+    void eventsBeforeTheFirstReceivedRequireResync() {
+        EventJournal replicaA = new EventJournal(16, SCOPE);
+        String lastEventId = replicaA.append(received("a", 0, 1)).id();
+        // B arrancó después: lo primero que recibió es el offset 5
+        EventJournal replicaB = new EventJournal(16, SCOPE);
+        replicaB.append(received("e", 0, 5));
+
+        EventJournal.Position from = replicaB.position(lastEventId);
+
+        assertThatThrownBy(() -> replicaB.since(from, event -> true))
+                .isInstanceOf(ResyncRequiredException.class);
+    }
+
+    @Test
+    void idFromAnotherBusRequiresResync() {
+        EventJournal journal = new EventJournal(16, SCOPE);
+        String foreign = new EventJournal(16, "memory-abc").append(received("a", 0, 1)).id();
+
+        assertThatThrownBy(() -> journal.position(foreign)).isInstanceOf(ResyncRequiredException.class);
+        assertThatThrownBy(() -> journal.position(SCOPE + "@basura")).isInstanceOf(ResyncRequiredException.class);
+    }
+
+    @Test
+    void filterKeepsOnlyTheRequestedOrder() {
+        EventJournal journal = new EventJournal(16, SCOPE);
+        String lastEventId = journal.append(received("a", 0, 1)).id();
+        journal.append(received("b", 0, 2));
+        journal.append(received("a", 0, 3));
+
+        List<EncodedOrderEvent> missed = journal.since(journal.position(lastEventId),
+                event -> event.orderId().equals("a"));
+
+        assertThat(missed).extracting(EncodedOrderEvent::offset).containsExactly(3L);
+    }
+}
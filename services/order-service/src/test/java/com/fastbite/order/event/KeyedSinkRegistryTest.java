@@ -0,0 +1,60 @@
+package com.fastbite.order.event;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyedSinkRegistryTest {
+
+    private final KeyedSinkRegistry<String> registry = new KeyedSinkRegistry<>();
+
+    @Test
+    void eventsReachOnlyTheSubscribersOfTheirKey() {
+        List<String> orderA = new CopyOnWriteArrayList<>();
+        List<String> orderB = new CopyOnWriteArrayList<>();
+        Disposable a = registry.subscribe("a").subscribe(orderA::add);
+        Disposable b = registry.subscribe("b").subscribe(orderB::add);
+
+        registry.emit("a", "a1");
+        registry.emit("b", "b1");
+        registry.emit("c", "nadie escucha");
+
+        assertThat(orderA).containsExactly("a1");
+        assertThat(orderB).containsExactly("b1");
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    void keyIsRemovedWithItsLastSubscriber() {
+        List<String> second = new CopyOnWriteArrayList<>();
+        Disposable first = registry.subscribe("a").subscribe();
+        Disposable other = registry.subscribe("a").subscribe(second::add);
+        assertThat(registry.activeKeys()).isEqualTo(1);
+
+        first.dispose();
+        registry.emit("a", "a1");
+
+        assertThat(registry.activeKeys()).isEqualTo(1);
+        assertThat(second).containsExactly("a1");
+
+        other.dispose();
+        assertThat(registry.activeKeys()).isZero();
+    }
+
+    @Test
+    void subscribingAgainAfterReleaseGetsAFreshSink() {
+        registry.subscribe("a").subscribe().dispose();
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        Disposable again = registry.subscribe("a").subscribe(received::add);
+        registry.emit("a", "a2");
+
+        assertThat(received).containsExactly("a2");
+        again.dispose();
+    }
+}
@@ -0,0 +1,109 @@
+package com.fastbite.order.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Los eventos son "<orden>:<n>": la clave para LATEST_PER_ORDER es lo que va antes de ':'
+class SubscriberBufferTest {
+
+    private SimpleMeterRegistry registry;
+    private SseMetrics metrics;
+    private Sinks.Many<String> source;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new SseMetrics(registry);
+        source = Sinks.many().multicast().directBestEffort();
+    }
+
+    private Flux<String> bounded(OverflowPolicy policy, int capacity) {
+        return SubscriberBuffer.bounded(source.asFlux(), policy, capacity,
+                event -> event.substring(0, event.indexOf(':')), metrics.forStream("test", policy));
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestEventsForASlowClient() {
+        StepVerifier.create(bounded(OverflowPolicy.DROP_OLDEST, 2), 0)
+                .then(() -> {
+                    source.tryEmitNext("a:1");
+                    source.tryEmitNext("a:2");
+                    source.tryEmitNext("a:3");
+                })
+                .thenRequest(10)
+                .expectNext("a:2", "a:3")
+                .thenCancel()
+                .verify();
+
+        assertThat(counter("fastbite.sse.events.dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void latestPerOrderReplacesPendingStatesOfTheSameOrder() {
+        StepVerifier.create(bounded(OverflowPolicy.LATEST_PER_ORDER, 10), 0)
+                .then(() -> {
+                    source.tryEmitNext("a:1");
+                    source.tryEmitNext("b:1");
+                    source.tryEmitNext("a:2");
+                })
+                .thenRequest(10)
+                .expectNext("b:1", "a:2")
+                .thenCancel()
+                .verify();
+
+        assertThat(counter("fastbite.sse.events.coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void disconnectPolicyErrorsWhenTheBufferFills() {
+        StepVerifier.create(bounded(OverflowPolicy.DISCONNECT, 2), 0)
+                .then(() -> {
+                    source.tryEmitNext("a:1");
+                    source.tryEmitNext("a:2");
+                    source.tryEmitNext("a:3");
+                })
+                .expectError(SlowConsumerException.class)
+                .verify();
+
+        assertThat(counter("fastbite.sse.slow.disconnects")).isEqualTo(1);
+    }
+
+    @Test
+    void replayIsDeliveredBeforeLiveEvents() {
+        Flux<String> resumed = SubscriberBuffer.resumable(source.asFlux(), () -> List.of("a:1", "b:1"), new Object(),
+                OverflowPolicy.DROP_OLDEST, 10, event -> event, metrics.forStream("test", OverflowPolicy.DROP_OLDEST));
+
+        StepVerifier.create(resumed)
+                .expectNext("a:1", "b:1")
+                .then(() -> source.tryEmitNext("a:2"))
+                .expectNext("a:2")
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void replayThatNeedsAResyncErrorsTheStream() {
+        Flux<String> resumed = SubscriberBuffer.resumable(source.asFlux(),
+                () -> {
+                    throw new ResyncRequiredException("fuera del journal");
+                },
+                new Object(), OverflowPolicy.DROP_OLDEST, 10, event -> event,
+                metrics.forStream("test", OverflowPolicy.DROP_OLDEST));
+
+        StepVerifier.create(resumed)
+                .expectError(ResyncRequiredException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,79 @@
+package com.fastbite.order.repository;
+
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// La condición va en el filtro del findAndModify: el estado se compara y cambia en Mongo
+class OrderTransitionRepositoryImplTest {
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private OrderTransitionRepositoryImpl repository;
+
+    private final ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    private final ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    private final ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Order.class))).thenReturn(Mono.empty());
+        repository = new OrderTransitionRepositoryImpl(mongoTemplate);
+    }
+
+    private void captureCall() {
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(Order.class));
+        assertThat(options.getValue().isReturnNew()).isTrue();
+    }
+
+    @Test
+    void transitionFiltersOnThePreviousStatusAndBumpsTheVersion() {
+        repository.transitionStatus("o1", OrderStatus.RECIBIDO, OrderStatus.PREPARANDO, null).block();
+
+        captureCall();
+        Document filter = query.getValue().getQueryObject();
+        assertThat(filter).containsEntry("id", "o1").containsEntry("status", OrderStatus.RECIBIDO)
+                .doesNotContainKey("assignedDeliveryId");
+        Document changes = update.getValue().getUpdateObject();
+        assertThat(changes.get("$set", Document.class)).containsEntry("status", OrderStatus.PREPARANDO);
+        assertThat(changes.get("$inc", Document.class)).containsEntry("version", 1);
+    }
+
+    @Test
+    void driverTakesTheOrderOnlyIfUnassignedOrAlreadyTheirs() {
+        repository.transitionStatus("o1", OrderStatus.LISTO, OrderStatus.EN_CAMINO, "driver-1").block();
+
+        captureCall();
+        Document assigned = query.getValue().getQueryObject().get("assignedDeliveryId", Document.class);
+        assertThat((List<?>) assigned.get("$in")).isEqualTo(Arrays.asList(null, "driver-1"));
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("assignedDeliveryId", "driver-1");
+    }
+
+    @Test
+    void deliveryRequiresTheAssignedDriver() {
+        repository.deliver("o1", "driver-1").block();
+
+        captureCall();
+        assertThat(query.getValue().getQueryObject())
+                .containsEntry("status", OrderStatus.EN_CAMINO)
+                .containsEntry("assignedDeliveryId", "driver-1");
+    }
+}
@@ -0,0 +1,165 @@
+package com.fastbite.order.resiliency;
+
+import com.fastbite.order.resiliency.ConcurrencyLimiter.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Las ventanas se disparan a mano con update() y las latencias se pasan en release():
+// el tiempo lo controla el test. La espera en cola corre sobre tiempo virtual
+class ConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(100).toNanos();
+    private static final Duration MAX_WAIT = Duration.ofMillis(200);
+
+    private static ConcurrencyLimiter limiter(int initialLimit) {
+        return new ConcurrencyLimiter(new SimpleMeterRegistry(),
+                initialLimit, 1, 1000,
+                1.5, 0.2, 0.9,
+                600, 1, Duration.ofMillis(100),
+                0.9, 0.7,
+                10, MAX_WAIT);
+    }
+
+    // Una ventana con "requests" requests en vuelo a la vez, cada uno con la latencia dada
+    private static void window(ConcurrencyLimiter limiter, int requests, long rttNanos, boolean failed) {
+        for (int i = 0; i < requests; i++) {
+            assertThat(limiter.acquire(Lane.CRITICAL).block()).isTrue();
+        }
+        for (int i = 0; i < requests; i++) {
+            limiter.release(rttNanos, failed);
+        }
+        limiter.update();
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsStable() {
+        ConcurrencyLimiter limiter = limiter(100);
+
+        window(limiter, 60, FAST, false);
+        window(limiter, 60, FAST, false);
+
+        assertThat(limiter.getLimit()).isGreaterThan(100);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesAboveTheBaseline() {
+        ConcurrencyLimiter limiter = limiter(100);
+        window(limiter, 60, FAST, false);
+        int before = limiter.getLimit();
+
+        window(limiter, 60, SLOW, false);
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    void serverErrorsBackOff() {
+        ConcurrencyLimiter limiter = limiter(100);
+
+        window(limiter, 60, FAST, true);
+
+        // 100 * 0.8 + 100 * 0.9 * 0.2
+        assertThat(limiter.getLimit()).isEqualTo(98);
+    }
+
+    @Test
+    void lowLoadDoesNotMoveTheLimit() {
+        ConcurrencyLimiter limiter = limiter(100);
+
+        window(limiter, 10, SLOW, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void lanesAreCutByTheirShareOfTheLimit() {
+        ConcurrencyLimiter limiter = limiter(10);
+
+        // LOW entra hasta el 70% y nunca espera
+        for (int i = 0; i < 7; i++) {
+            assertThat(limiter.acquire(Lane.LOW).block()).isTrue();
+        }
+        assertThat(limiter.acquire(Lane.LOW).block()).isFalse();
+
+        // NORMAL hasta el 90%, CRITICAL hasta el 100%
+        for (int i = 0; i < 2; i++) {
+            assertThat(limiter.acquire(Lane.NORMAL).block()).isTrue();
+        }
+        assertThat(limiter.acquire(Lane.CRITICAL).block()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(10);
+    }
+
+    @Test
+    void releasedSlotGoesToTheCriticalQueueFirst() {
+        ConcurrencyLimiter limiter = limiter(2);
+        limiter.acquire(Lane.CRITICAL).block();
+        limiter.acquire(Lane.CRITICAL).block();
+
+        AtomicReference<Boolean> normal = new AtomicReference<>();
+        AtomicReference<Boolean> critical = new AtomicReference<>();
+        limiter.acquire(Lane.NORMAL).subscribe(normal::set);
+        limiter.acquire(Lane.CRITICAL).subscribe(critical::set);
+
+        limiter.release(FAST, false);
+        assertThat(critical.get()).isTrue();
+        assertThat(normal.get()).isNull();
+
+        limiter.release(FAST, false);
+        assertThat(normal.get()).isTrue();
+        // Los lugares pasaron directo a los que esperaban
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void queuedRequestIsShedAfterMaxWait() {
+        ConcurrencyLimiter limiter = limiter(1);
+        limiter.acquire(Lane.CRITICAL).block();
+
+        StepVerifier.withVirtualTime(() -> limiter.acquire(Lane.NORMAL))
+                .expectSubscription()
+                .expectNoEvent(MAX_WAIT.minusMillis(1))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(false)
+                .verifyComplete();
+
+        // El que se fue por timeout no se queda con el próximo lugar
+        limiter.release(FAST, false);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void slotGrantedToACancelledWaiterIsReturned() {
+        ConcurrencyLimiter limiter = limiter(1);
+        limiter.acquire(Lane.CRITICAL).block();
+        Mono<Boolean> waiting = limiter.acquire(Lane.CRITICAL);
+
+        // Se le concede el lugar pero todavía no lo pidió (sin demanda) y cancela
+        StepVerifier.create(waiting, 0)
+                .expectSubscription()
+                .then(() -> limiter.release(FAST, false))
+                .thenCancel()
+                .verify();
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void cancelledWaiterLeavesTheQueue() {
+        ConcurrencyLimiter limiter = limiter(1);
+        limiter.acquire(Lane.CRITICAL).block();
+
+        limiter.acquire(Lane.NORMAL).subscribe().dispose();
+
+        limiter.release(FAST, false);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,134 @@
+package com.fastbite.order.resiliency;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ServiceCalls contra un servidor HTTP de prueba: hedging, retry y circuit breaker
+class ServiceCallsTest {
+
+    private static final String SERVICE = "stub";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private DisposableServer server;
+    private WebClient webClient;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreakerRegistry circuitBreakers;
+    private ServiceCalls calls;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        // El primer request tarda; los siguientes responden al instante
+                        .get("/slow-first", (request, response) -> {
+                            Duration delay = requests.incrementAndGet() == 1 ? Duration.ofSeconds(2) : Duration.ZERO;
+                            return response.sendString(Mono.delay(delay).thenReturn("ok"));
+                        })
+                        // 503 una vez y después 200
+                        .get("/flaky", (request, response) -> requests.incrementAndGet() == 1
+                                ? response.status(HttpStatus.SERVICE_UNAVAILABLE.value()).send()
+                                : response.sendString(Mono.just("ok")))
+                        .get("/missing", (request, response) -> {
+                            requests.incrementAndGet();
+                            return response.status(HttpStatus.NOT_FOUND.value()).send();
+                        })
+                        .get("/broken", (request, response) -> {
+                            requests.incrementAndGet();
+                            return response.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).send();
+                        }))
+                .bindNow();
+        webClient = WebClient.create("http://localhost:" + server.port());
+        // Calentar cliente y conexión: que el primer request no dispare el hedge por arranque
+        fetch("/missing").block(Duration.ofSeconds(5));
+        requests.set(0);
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakers = CircuitBreakerRegistry.of(io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(error -> !CircuitBreakerConfig.isClientError(error))
+                .build());
+        RetryRegistry retries = new RetryConfig().retryRegistry(2, Duration.ofMillis(10));
+        calls = new ServiceCalls(circuitBreakers, retries, meterRegistry, Duration.ofSeconds(1), Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void slowResponseIsHedgedAndTheFastCopyWins() {
+        StepVerifier.create(calls.get(SERVICE, () -> fetch("/slow-first")))
+                .expectNext("ok")
+                .expectComplete()
+                .verify(Duration.ofMillis(900));
+
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter("fastbite.clients.hedged", "service", SERVICE).count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void serverErrorIsRetried() {
+        StepVerifier.create(calls.get(SERVICE, () -> fetch("/flaky")))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void notFoundIsEmptyAndNotRetried() {
+        StepVerifier.create(calls.get(SERVICE, () -> fetch("/missing")))
+                .verifyComplete();
+
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(circuitBreakers.circuitBreaker(SERVICE).getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+
+    @Test
+    void breakerOpensAfterRepeatedFailuresAndFailsFast() {
+        // Dos llamadas con un reintento cada una: 4 fallas llenan la ventana
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(calls.get(SERVICE, () -> fetch("/broken")))
+                    .expectError(WebClientResponseException.InternalServerError.class)
+                    .verify(Duration.ofSeconds(5));
+        }
+        assertThat(circuitBreakers.circuitBreaker(SERVICE).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        int before = requests.get();
+
+        StepVerifier.create(calls.get(SERVICE, () -> fetch("/broken")))
+                .expectError(CallNotPermittedException.class)
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(requests.get()).isEqualTo(before);
+    }
+
+    private Mono<String> fetch(String path) {
+        return webClient.get()
+                .uri(path)
+                .retrieve()
+                .onStatus(status -> status == HttpStatus.NOT_FOUND, response -> Mono.empty())
+                .bodyToMono(String.class);
+    }
+}
@@ -0,0 +1,105 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.dto.OrderEvent;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import com.fastbite.order.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActiveOrderProjectionTest {
+
+    private OrderRepository orderRepository;
+    private ActiveOrderProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        projection = new ActiveOrderProjection(orderRepository, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        projection.stop();
+    }
+
+    private static Order order(String id, OrderStatus status, long version, Instant updatedAt) {
+        return Order.builder()
+                .id(id)
+                .status(status)
+                .version(version)
+                .createdAt(updatedAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private static OrderEvent created(Order order) {
+        return OrderEvent.builder()
+                .eventType(OrderEvent.EventType.CREATED)
+                .orderId(order.getId())
+                .order(order)
+                .build();
+    }
+
+    private List<String> activeIds() {
+        return projection.byStatus(ActiveOrderProjection.ACTIVE_STATUSES).stream().map(Order::getId).toList();
+    }
+
+    @Test
+    void orderAppliedWhileTheQueryRunsIsKeptEvenWithASkewedTimestamp() {
+        Sinks.Many<Order> query = Sinks.many().unicast().onBackpressureBuffer();
+        when(orderRepository.findByStatusIn(anyList())).thenReturn(query.asFlux());
+        projection.start();
+
+        // Llega de otra réplica con el reloj atrasado, después de que arrancó la consulta
+        projection.apply(created(order("nueva", OrderStatus.RECIBIDO, 1, Instant.EPOCH)));
+        query.tryEmitNext(order("vieja", OrderStatus.PREPARANDO, 3, Instant.now()));
+        query.tryEmitComplete();
+
+        assertThat(projection.isReady()).isTrue();
+        assertThat(activeIds()).containsExactlyInAnyOrder("nueva", "vieja");
+    }
+
+    @Test
+    void orderMissingFromMongoAndUnchangedSinceTheQueryIsRemoved() {
+        projection.apply(created(order("entregada", OrderStatus.EN_CAMINO, 4, Instant.now().plusSeconds(3600))));
+        when(orderRepository.findByStatusIn(anyList())).thenReturn(Flux.empty());
+
+        projection.start();
+
+        assertThat(activeIds()).isEmpty();
+    }
+
+    @Test
+    void olderStoredCopyDoesNotReplaceANewerEvent() {
+        Sinks.Many<Order> query = Sinks.many().unicast().onBackpressureBuffer();
+        when(orderRepository.findByStatusIn(anyList())).thenReturn(query.asFlux());
+        projection.apply(created(order("o1", OrderStatus.RECIBIDO, 1, Instant.now())));
+        projection.start();
+
+        projection.apply(OrderEvent.builder()
+                .eventType(OrderEvent.EventType.STATUS_CHANGED)
+                .orderId("o1")
+                .status(OrderStatus.LISTO)
+                .version(5L)
+                .timestamp(Instant.now())
+                .build());
+        query.tryEmitNext(order("o1", OrderStatus.PREPARANDO, 2, Instant.now()));
+        query.tryEmitComplete();
+
+        assertThat(projection.byStatus(List.of(OrderStatus.LISTO))).extracting(Order::getVersion).containsExactly(5L);
+        assertThat(projection.byStatus(List.of(OrderStatus.PREPARANDO))).isEmpty();
+    }
+}
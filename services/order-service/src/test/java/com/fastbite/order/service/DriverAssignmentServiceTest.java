@@ -0,0 +1,123 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.dto.DriverAssignmentDTO;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import com.fastbite.order.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// Retiro en (0, 0), celdas de 0.01° (~1.1 km), radio de 10 km
+class DriverAssignmentServiceTest {
+
+    private OrderRepository orderRepository;
+    private EventService eventService;
+    private DriverAssignmentService service;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        eventService = mock(EventService.class);
+        EventSourcingService eventSourcing = mock(EventSourcingService.class);
+        when(eventSourcing.recordDriverAssigned(any())).thenReturn(Mono.empty());
+        when(orderRepository.assignDriver(anyString(), anyString())).thenAnswer(call -> Mono.just(Order.builder()
+                .id(call.getArgument(0))
+                .status(OrderStatus.LISTO)
+                .assignedDeliveryId(call.getArgument(1))
+                .build()));
+        service = new DriverAssignmentService(orderRepository, eventService, eventSourcing,
+                mock(ActiveOrderProjection.class), new SimpleMeterRegistry(),
+                0.01, 0, 0, 10, 5, Duration.ofSeconds(30), Duration.ofSeconds(5));
+    }
+
+    private void ping(String driverId, double latitude, double longitude) {
+        service.onLocation(driverId, latitude, longitude, System.currentTimeMillis());
+    }
+
+    private static List<String> driverIds(List<DriverAssignmentDTO> found) {
+        return found.stream().map(DriverAssignmentDTO::getDriverId).toList();
+    }
+
+    @Test
+    void nearestSearchesOutwardAcrossCells() {
+        ping("a-3km", 0.027, 0);
+        ping("b-100m", 0.001, 0);
+        ping("c-1km", 0, -0.009);
+        ping("d-20km", 0.18, 0);
+
+        assertThat(driverIds(service.nearest(0, 0, 2))).containsExactly("b-100m", "c-1km");
+        // Fuera del radio no aparece aunque se pidan más
+        assertThat(driverIds(service.nearest(0, 0, 10))).containsExactly("b-100m", "c-1km", "a-3km");
+    }
+
+    @Test
+    void movingDriverLeavesItsOldCell() {
+        ping("a", 0.001, 0);
+        ping("a", 0.05, 0.05);
+
+        List<DriverAssignmentDTO> found = service.nearest(0.05, 0.05, 5);
+
+        assertThat(driverIds(found)).containsExactly("a");
+        assertThat(service.nearest(0.001, 0, 1).get(0).getDistanceMeters()).isGreaterThan(5_000);
+    }
+
+    @Test
+    void stalePositionsAreSkipped() {
+        service.onLocation("viejo", 0.001, 0, System.currentTimeMillis() - 60_000);
+        ping("nuevo", 0.002, 0);
+
+        assertThat(driverIds(service.nearest(0, 0, 5))).containsExactly("nuevo");
+    }
+
+    @Test
+    void eachOrderGetsTheClosestDriverStillFree() {
+        ping("cerca", 0.001, 0);
+        ping("lejos", 0.005, 0);
+
+        StepVerifier.create(service.assign("o1"))
+                .assertNext(assignment -> assertThat(assignment.getDriverId()).isEqualTo("cerca"))
+                .verifyComplete();
+        StepVerifier.create(service.assign("o2"))
+                .assertNext(assignment -> assertThat(assignment.getDriverId()).isEqualTo("lejos"))
+                .verifyComplete();
+        StepVerifier.create(service.assign("o3")).verifyComplete();
+
+        verify(eventService, times(2)).emitOrderEvent(any());
+        assertThat(service.nearest(0, 0, 5)).isEmpty();
+
+        // Entregada: vuelve a estar disponible
+        service.release("cerca", "o1");
+        assertThat(driverIds(service.nearest(0, 0, 5))).containsExactly("cerca");
+    }
+
+    @Test
+    void driverIsFreedWhenTheOrderChangedBeforeTheConditionalAssign() {
+        ping("a", 0.001, 0);
+        when(orderRepository.assignDriver("o1", "a")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.assign("o1")).verifyComplete();
+
+        assertThat(driverIds(service.nearest(0, 0, 5))).containsExactly("a");
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void driverWhoTookAnOrderIsNotOffered() {
+        ping("a", 0.001, 0);
+
+        service.markBusy("a", "o1");
+
+        assertThat(service.nearest(0, 0, 5)).isEmpty();
+    }
+}
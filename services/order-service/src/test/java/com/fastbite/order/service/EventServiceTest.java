@@ -0,0 +1,88 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.dto.OrderEvent;
+import com.fastbite.order.event.EncodedOrderEvent;
+import com.fastbite.order.event.InMemoryOrderEventTransport;
+import com.fastbite.order.event.OverflowPolicy;
+import com.fastbite.order.event.SseMetrics;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Dos réplicas en el mismo proceso compartiendo el bus en memoria
+class EventServiceTest {
+
+    private ObjectMapper localMapper;
+    private ObjectMapper remoteMapper;
+    private ActiveOrderProjection remoteProjection;
+    private EventService local;
+    private EventService remote;
+
+    private EventService replica(ObjectMapper objectMapper, ActiveOrderProjection projection,
+                                 InMemoryOrderEventTransport transport) {
+        EventService service = new EventService(objectMapper, projection, mock(KitchenCapacityService.class),
+                transport, new SseMetrics(new SimpleMeterRegistry()), 16, OverflowPolicy.LATEST_PER_ORDER, 64, 100);
+        service.subscribeToBus();
+        return service;
+    }
+
+    @BeforeEach
+    void setUp() {
+        InMemoryOrderEventTransport transport = new InMemoryOrderEventTransport();
+        localMapper = spy(JsonMapper.builder().build());
+        remoteMapper = spy(JsonMapper.builder().build());
+        remoteProjection = mock(ActiveOrderProjection.class);
+        local = replica(localMapper, mock(ActiveOrderProjection.class), transport);
+        remote = replica(remoteMapper, remoteProjection, transport);
+    }
+
+    @AfterEach
+    void tearDown() {
+        local.unsubscribeFromBus();
+        remote.unsubscribeFromBus();
+    }
+
+    private static Order order() {
+        return Order.builder().id("o1").status(OrderStatus.PREPARANDO).version(2).build();
+    }
+
+    @Test
+    void ownEventsAreNotDecodedAgainWhenTheyComeBackFromTheBus() {
+        List<EncodedOrderEvent> localReceived = new CopyOnWriteArrayList<>();
+        List<EncodedOrderEvent> remoteReceived = new CopyOnWriteArrayList<>();
+        Disposable localStream = local.getOrderEvents(null).subscribe(localReceived::add);
+        Disposable remoteStream = remote.getOrderEvents(null).subscribe(remoteReceived::add);
+        OrderEvent event = OrderEvent.statusChanged(order());
+
+        local.emitOrderEvent(event);
+
+        // Se serializa una vez; la réplica que lo emitió reutiliza el mismo objeto
+        assertThat(localReceived).hasSize(1);
+        assertThat(localReceived.get(0).event()).isSameAs(event);
+        verify(localMapper, times(1)).writeValueAsString(event);
+        verify(localMapper, never()).readValue(anyString(), eq(OrderEvent.class));
+
+        // La otra réplica sí lo lee del JSON, una vez, y actualiza su proyección
+        assertThat(remoteReceived).hasSize(1);
+        assertThat(remoteReceived.get(0).json()).isEqualTo(localReceived.get(0).json());
+        verify(remoteMapper, times(1)).readValue(anyString(), eq(OrderEvent.class));
+        verify(remoteProjection).apply(any(OrderEvent.class));
+
+        localStream.dispose();
+        remoteStream.dispose();
+    }
+}
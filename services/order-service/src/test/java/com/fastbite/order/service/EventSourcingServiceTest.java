@@ -0,0 +1,165 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderEvent;
+import com.fastbite.order.model.OrderEventType;
+import com.fastbite.order.model.OrderSnapshot;
+import com.fastbite.order.model.OrderStatus;
+import com.fastbite.order.repository.OrderEventRepository;
+import com.fastbite.order.repository.OrderSnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class EventSourcingServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private OrderEventRepository eventRepository;
+    private OrderSnapshotRepository snapshotRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private EventSourcingService service;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(OrderEventRepository.class);
+        snapshotRepository = mock(OrderSnapshotRepository.class);
+        when(eventRepository.insertBatch(anyList())).thenAnswer(call -> Mono.just(call.<List<?>>getArgument(0).size()));
+        when(snapshotRepository.save(any(OrderSnapshot.class))).thenAnswer(call -> Mono.just(call.getArgument(0)));
+        meterRegistry = new SimpleMeterRegistry();
+        // Lotes de hasta 10 esperando 50ms, snapshot cada 2 versiones, 2 reintentos
+        service = new EventSourcingService(eventRepository, snapshotRepository,
+                10, 50, 2, 100, 2, 2, 1, meterRegistry);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void concurrentAppendsShareOneInsert() {
+        Mono<Void> appends = Mono.when(
+                service.recordCreated(order("o1", 0, OrderStatus.RECIBIDO)),
+                service.recordCreated(order("o2", 0, OrderStatus.RECIBIDO)),
+                service.recordStatusChange(order("o3", 1, OrderStatus.PREPARANDO), "cocina-1"));
+
+        StepVerifier.create(appends).expectComplete().verify(TIMEOUT);
+
+        verify(eventRepository, times(1)).insertBatch(anyList());
+    }
+
+    @Test
+    void failedBatchIsRetriedWhole() {
+        when(eventRepository.insertBatch(anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("Mongo caído")))
+                .thenAnswer(call -> Mono.just(call.<List<?>>getArgument(0).size()));
+
+        StepVerifier.create(service.recordCreated(order("o1", 0, OrderStatus.RECIBIDO)))
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        verify(eventRepository, times(2)).insertBatch(anyList());
+        assertThat(meterRegistry.counter("fastbite.orders.event_log.lost").count()).isZero();
+    }
+
+    @Test
+    void exhaustedRetriesCountTheLostEventsWithoutFailingTheOrder() {
+        when(eventRepository.insertBatch(anyList())).thenReturn(Mono.error(new IllegalStateException("Mongo caído")));
+
+        StepVerifier.create(service.recordCreated(order("o1", 0, OrderStatus.RECIBIDO)))
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        // Intento original + 2 reintentos
+        verify(eventRepository, times(3)).insertBatch(anyList());
+        assertThat(meterRegistry.counter("fastbite.orders.event_log.lost").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void snapshotIsSavedEverySnapshotEveryVersions() {
+        StepVerifier.create(Mono.when(
+                        service.recordStatusChange(order("o1", 1, OrderStatus.PREPARANDO), "cocina-1"),
+                        service.recordStatusChange(order("o2", 2, OrderStatus.LISTO), "cocina-1")))
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        ArgumentCaptor<OrderSnapshot> snapshot = ArgumentCaptor.forClass(OrderSnapshot.class);
+        verify(snapshotRepository, timeout(TIMEOUT.toMillis())).save(snapshot.capture());
+        assertThat(snapshot.getValue().getOrderId()).isEqualTo("o2");
+        assertThat(snapshot.getValue().getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildAppliesTheTailAfterTheSnapshot() {
+        when(snapshotRepository.findById("o1")).thenReturn(Mono.just(OrderSnapshot.builder()
+                .orderId("o1")
+                .version(2)
+                .order(order("o1", 2, OrderStatus.LISTO))
+                .build()));
+        when(eventRepository.findByOrderIdAndVersionGreaterThanOrderByVersionAsc("o1", 2)).thenReturn(Flux.just(
+                OrderEvent.builder().orderId("o1").version(3).type(OrderEventType.DRIVER_ASSIGNED)
+                        .status(OrderStatus.LISTO).assignedDeliveryId("driver-1").timestamp(Instant.now()).build(),
+                OrderEvent.builder().orderId("o1").version(4).type(OrderEventType.STATUS_CHANGED)
+                        .status(OrderStatus.EN_CAMINO).timestamp(Instant.now()).build()));
+
+        StepVerifier.create(service.rebuild("o1"))
+                .assertNext(order -> {
+                    assertThat(order.getVersion()).isEqualTo(4);
+                    assertThat(order.getStatus()).isEqualTo(OrderStatus.EN_CAMINO);
+                    assertThat(order.getAssignedDeliveryId()).isEqualTo("driver-1");
+                })
+                .verifyComplete();
+        verify(eventRepository, never()).findByOrderIdOrderByVersionAsc("o1");
+    }
+
+    @Test
+    void replayFoldsEveryOrderOfTheLog() {
+        Order created = order("o1", 0, OrderStatus.RECIBIDO);
+        when(eventRepository.findAllByOrderByOrderIdAscVersionAsc()).thenReturn(Flux.just(
+                OrderEvent.builder().orderId("o1").version(0).type(OrderEventType.CREATED)
+                        .status(OrderStatus.RECIBIDO).order(created).build(),
+                OrderEvent.builder().orderId("o1").version(1).type(OrderEventType.STATUS_CHANGED)
+                        .status(OrderStatus.PREPARANDO).build(),
+                OrderEvent.builder().orderId("o2").version(0).type(OrderEventType.CREATED)
+                        .status(OrderStatus.RECIBIDO).order(order("o2", 0, OrderStatus.RECIBIDO)).build(),
+                // Sin CREATED: no se puede reconstruir
+                OrderEvent.builder().orderId("o3").version(4).type(OrderEventType.STATUS_CHANGED)
+                        .status(OrderStatus.ENTREGADO).build()));
+
+        List<Order> orders = service.replayAll().collectList().block(TIMEOUT);
+
+        assertThat(orders).extracting(Order::getId).containsExactlyInAnyOrder("o1", "o2");
+        assertThat(orders).filteredOn(order -> order.getId().equals("o1"))
+                .singleElement()
+                .extracting(Order::getStatus)
+                .isEqualTo(OrderStatus.PREPARANDO);
+    }
+
+    private static Order order(String id, long version, OrderStatus status) {
+        Instant now = Instant.now();
+        return Order.builder()
+                .id(id)
+                .customerId("customer-1")
+                .status(status)
+                .version(version)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.client.RestaurantServiceClient;
+import com.fastbite.order.dto.OrderEvent;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Restaurante por defecto (no consulta restaurant-service): 2 en cocina y 1 en cola
+class KitchenCapacityServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Order> inKitchen = new ArrayList<>();
+    private KitchenCapacityService service;
+
+    @BeforeEach
+    void setUp() {
+        ActiveOrderProjection activeOrders = mock(ActiveOrderProjection.class);
+        when(activeOrders.isReady()).thenReturn(true);
+        when(activeOrders.byStatus(any())).thenAnswer(call -> List.copyOf(inKitchen));
+        service = new KitchenCapacityService(activeOrders, mock(RestaurantServiceClient.class), meterRegistry,
+                "fastbite", 2, 1, Duration.ofMinutes(15), Duration.ofSeconds(30), 10);
+    }
+
+    private KitchenCapacityService.Admission admit() {
+        return service.admit(null).block();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("fastbite.kitchen.in_flight").tag("restaurant", "fastbite").gauge().value();
+    }
+
+    private static Order order(String id) {
+        return Order.builder().id(id).restaurantId("fastbite").status(OrderStatus.RECIBIDO).build();
+    }
+
+    @Test
+    void reconcileKeepsAdmissionsWhoseOrderIsNotSavedYet() {
+        admit();
+        admit();
+
+        service.reconcile();
+
+        assertThat(inFlight()).isEqualTo(2);
+        assertThat(admit().delayed()).isTrue();
+        StepVerifier.create(service.admit(null)).expectError(KitchenBusyException.class).verify();
+    }
+
+    @Test
+    void savedOrderIsCountedOnceBeforeAndAfterItsCreatedEvent() {
+        KitchenCapacityService.Admission admission = admit();
+        service.confirm(admission, "o1");
+
+        // Guardada pero el CREATED todavía no llegó a la proyección
+        service.reconcile();
+        assertThat(inFlight()).isEqualTo(1);
+
+        inKitchen.add(order("o1"));
+        service.apply(OrderEvent.created(order("o1")));
+        assertThat(inFlight()).isEqualTo(1);
+
+        service.reconcile();
+        assertThat(inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void ordersFromOtherReplicasComeFromTheProjection() {
+        service.apply(OrderEvent.created(order("remota")));
+        assertThat(inFlight()).isEqualTo(1);
+
+        // La proyección no la tiene (ya salió de cocina): el reconcile corrige
+        service.reconcile();
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void cancelledAdmissionIsNotRestoredByReconcile() {
+        KitchenCapacityService.Admission admission = admit();
+
+        service.cancel(admission);
+        service.reconcile();
+
+        assertThat(inFlight()).isZero();
+    }
+}
@@ -0,0 +1,111 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.dto.LocationUpdateDTO;
+import com.fastbite.order.repository.DriverLocationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class LocationServiceTest {
+
+    private DriverAssignmentService driverAssignment;
+    private LocationService service;
+
+    @BeforeEach
+    void setUp() {
+        driverAssignment = mock(DriverAssignmentService.class);
+        service = locationService(2);
+    }
+
+    private LocationService locationService(int capacity) {
+        return new LocationService(mock(DriverLocationRepository.class), driverAssignment, new SimpleMeterRegistry(),
+                capacity, Duration.ofSeconds(30), Duration.ofSeconds(2), Duration.ofSeconds(1), Duration.ofMinutes(15));
+    }
+
+    private static LocationUpdateDTO ping(double latitude, double longitude) {
+        return LocationUpdateDTO.builder().latitude(latitude).longitude(longitude).build();
+    }
+
+    @Test
+    void latestPingIsReadBackAndFedToTheAssignmentIndex() {
+        service.update("driver-1", LocationUpdateDTO.builder().latitude(-34.6).longitude(-58.4).heading(90f).build());
+        service.update("driver-1", ping(-34.7, -58.5));
+
+        LocationUpdateDTO latest = service.getLatest("driver-1");
+
+        assertThat(latest.getDriverId()).isEqualTo("driver-1");
+        assertThat(latest.getLatitude()).isEqualTo(-34.7);
+        assertThat(latest.getLongitude()).isEqualTo(-58.5);
+        // Sin heading en el último ping: no se arrastra el anterior
+        assertThat(latest.getHeading()).isNull();
+        assertThat(latest.getTimestamp()).isPositive();
+        assertThat(service.getLatest("driver-2")).isNull();
+        verify(driverAssignment).onLocation(eq("driver-1"), eq(-34.7), eq(-58.5), anyLong());
+    }
+
+    @Test
+    void idleDriversFreeTheirSlotForNewDrivers() {
+        service.update("driver-1", ping(1, 1));
+        service.update("driver-2", ping(2, 2));
+        assertThatThrownBy(() -> service.update("driver-3", ping(3, 3)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(service.evictIdle(System.currentTimeMillis() + 1)).isEqualTo(2);
+        service.update("driver-3", ping(3, 3));
+
+        assertThat(service.getLatest("driver-1")).isNull();
+        assertThat(service.getLatest("driver-3").getLatitude()).isEqualTo(3.0);
+    }
+
+    @Test
+    void recentDriversAreNotEvicted() {
+        service.update("driver-1", ping(1, 1));
+
+        assertThat(service.evictIdle(System.currentTimeMillis() - 60_000)).isZero();
+        assertThat(service.getLatest("driver-1")).isNotNull();
+    }
+
+    @Test
+    void readersNeverSeeAHalfWrittenPosition() throws InterruptedException {
+        // Cada ping escribe latitud == longitud: un lector que mezcle dos pings lo nota
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; running.get(); i = (i + 1) % 80) {
+                service.update("driver-1", ping(i, i));
+            }
+        });
+        service.update("driver-1", ping(0, 0));
+        writer.start();
+
+        AtomicReference<LocationUpdateDTO> torn = new AtomicReference<>();
+        long until = System.nanoTime() + Duration.ofMillis(300).toNanos();
+        while (System.nanoTime() < until && torn.get() == null) {
+            LocationUpdateDTO latest = service.getLatest("driver-1");
+            if (!latest.getLatitude().equals(latest.getLongitude())) {
+                torn.set(latest);
+            }
+        }
+        running.set(false);
+        writer.join();
+
+        assertThat(torn.get()).isNull();
+    }
+
+    @Test
+    void requestedStreamIntervalIsClampedToTheMinimum() {
+        assertThat(service.streamInterval(null)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(service.streamInterval(100L)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(service.streamInterval(5_000L)).isEqualTo(Duration.ofSeconds(5));
+    }
+}
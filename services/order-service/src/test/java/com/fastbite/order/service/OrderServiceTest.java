@@ -0,0 +1,201 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.dto.CartItemRequest;
+import com.fastbite.order.dto.CreateOrderRequest;
+import com.fastbite.order.dto.OrderEvent;
+import com.fastbite.order.model.Order;
+import com.fastbite.order.model.OrderItem;
+import com.fastbite.order.model.OrderStatus;
+import com.fastbite.order.model.Product;
+import com.fastbite.order.model.Role;
+import com.fastbite.order.model.User;
+import com.fastbite.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OrderServiceTest {
+
+    private OrderRepository orderRepository;
+    private ProductCache productCache;
+    private KitchenCapacityService kitchenCapacity;
+    private CoalescedLookups lookups;
+    private EventService eventService;
+    private EventSourcingService eventSourcing;
+    private DriverAssignmentService driverAssignment;
+    private OrderService service;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        lookups = mock(CoalescedLookups.class);
+        eventService = mock(EventService.class);
+        eventSourcing = mock(EventSourcingService.class);
+        driverAssignment = mock(DriverAssignmentService.class);
+        productCache = mock(ProductCache.class);
+        kitchenCapacity = mock(KitchenCapacityService.class);
+        when(eventSourcing.recordStatusChange(any(), anyString())).thenReturn(Mono.empty());
+        service = new OrderService(orderRepository, productCache, lookups, eventService,
+                mock(ActiveOrderProjection.class), eventSourcing, driverAssignment, kitchenCapacity);
+    }
+
+    private static Order order(OrderStatus status, String driverId, long version) {
+        return Order.builder().id("o1").status(status).assignedDeliveryId(driverId).version(version).build();
+    }
+
+    // ===== Cambios de estado: un solo findAndModify condicionado; la orden solo se lee si no aplicó =====
+
+    @Test
+    void kitchenTransitionIsOneConditionalUpdate() {
+        when(orderRepository.transitionStatus("o1", OrderStatus.RECIBIDO, OrderStatus.PREPARANDO, null))
+                .thenReturn(Mono.just(order(OrderStatus.PREPARANDO, null, 2)));
+
+        StepVerifier.create(service.updateStatus("o1", OrderStatus.PREPARANDO, "cocina-1", Role.COCINA))
+                .assertNext(updated -> assertThat(updated.getStatus()).isEqualTo(OrderStatus.PREPARANDO))
+                .verifyComplete();
+
+        verifyNoInteractions(lookups);
+        ArgumentCaptor<OrderEvent> event = ArgumentCaptor.forClass(OrderEvent.class);
+        verify(eventService).emitOrderEvent(event.capture());
+        assertThat(event.getValue().getEventType()).isEqualTo(OrderEvent.EventType.STATUS_CHANGED);
+        assertThat(event.getValue().getVersion()).isEqualTo(2L);
+        verify(eventSourcing).recordStatusChange(any(), eq("cocina-1"));
+    }
+
+    @Test
+    void transitionNotAllowedForTheRoleNeverReachesMongo() {
+        StepVerifier.create(service.updateStatus("o1", OrderStatus.ENTREGADO, "cocina-1", Role.COCINA))
+                .expectErrorMessage("Transición de estado no permitida: COCINA -> ENTREGADO")
+                .verify();
+
+        verifyNoInteractions(orderRepository, eventService);
+    }
+
+    @Test
+    void losingTheRaceReportsTheCurrentStatus() {
+        when(orderRepository.transitionStatus("o1", OrderStatus.RECIBIDO, OrderStatus.PREPARANDO, null))
+                .thenReturn(Mono.empty());
+        when(lookups.findOrder("o1")).thenReturn(Mono.just(order(OrderStatus.PREPARANDO, null, 2)));
+
+        StepVerifier.create(service.updateStatus("o1", OrderStatus.PREPARANDO, "cocina-2", Role.COCINA))
+                .expectErrorMessage("Transición de estado no permitida: PREPARANDO -> PREPARANDO")
+                .verify();
+
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void driverTakingAnOrderAssignedToAnotherDriverIsRejected() {
+        when(orderRepository.transitionStatus("o1", OrderStatus.LISTO, OrderStatus.EN_CAMINO, "driver-2"))
+                .thenReturn(Mono.empty());
+        when(lookups.findOrder("o1")).thenReturn(Mono.just(order(OrderStatus.LISTO, "driver-1", 3)));
+
+        StepVerifier.create(service.updateStatus("o1", OrderStatus.EN_CAMINO, "driver-2", Role.REPARTIDOR))
+                .expectErrorMessage("El pedido está asignado a otro repartidor")
+                .verify();
+    }
+
+    @Test
+    void deliveryIsConditionalOnTheAssignedDriverAndFreesIt() {
+        when(orderRepository.deliver("o1", "driver-1"))
+                .thenReturn(Mono.just(order(OrderStatus.ENTREGADO, "driver-1", 5)));
+
+        StepVerifier.create(service.updateStatus("o1", OrderStatus.ENTREGADO, "driver-1", Role.REPARTIDOR))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(orderRepository, never()).transitionStatus(any(), any(), any(), any());
+        verify(driverAssignment).release("driver-1", "o1");
+    }
+
+    @Test
+    void missingOrderIsNotFound() {
+        when(orderRepository.transitionStatus(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(lookups.findOrder("o1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.updateStatus("o1", OrderStatus.LISTO, "cocina-1", Role.COCINA))
+                .expectErrorMessage("Pedido no encontrado")
+                .verify();
+    }
+
+    // ===== Alta de orden: todos los productos del carrito en una sola consulta =====
+
+    private static CartItemRequest item(String productId, int quantity) {
+        CartItemRequest item = new CartItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static CreateOrderRequest cart(CartItemRequest... items) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setRestaurantId("rest-1");
+        request.setDeliveryAddress("Calle 123");
+        request.setItems(List.of(items));
+        return request;
+    }
+
+    private static Product product(String id, String price) {
+        return Product.builder().id(id).name("Producto " + id).price(new BigDecimal(price)).available(true).build();
+    }
+
+    private void admitAndFindCustomer() {
+        when(kitchenCapacity.admit("rest-1")).thenReturn(Mono.just(
+                new KitchenCapacityService.Admission("rest-1", Instant.now(), false)));
+        when(lookups.findUser("cliente-1")).thenReturn(Mono.just(User.builder().id("cliente-1").name("Ana").build()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cartProductsAreLoadedOnceAndRepeatedItemsMerged() {
+        admitAndFindCustomer();
+        when(productCache.getAll(anyCollection())).thenReturn(Mono.just(Map.of(
+                "p1", product("p1", "100"), "p2", product("p2", "50"))));
+        when(orderRepository.save(any(Order.class))).thenAnswer(call -> {
+            Order order = call.getArgument(0);
+            order.setId("o1");
+            return Mono.just(order);
+        });
+        when(eventSourcing.recordCreated(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.createOrder("cliente-1", cart(item("p2", 1), item("p1", 2), item("p2", 3))))
+                .assertNext(order -> {
+                    assertThat(order.getItems()).extracting(OrderItem::getProductId).containsExactly("p2", "p1");
+                    assertThat(order.getItems()).extracting(OrderItem::getQuantity).containsExactly(4, 2);
+                    assertThat(order.getTotal()).isEqualByComparingTo("400");
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(productCache, times(1)).getAll(ids.capture());
+        assertThat(ids.getValue()).containsExactly("p2", "p1");
+        verify(kitchenCapacity).confirm(any(), eq("o1"));
+    }
+
+    @Test
+    void allMissingProductsAreReportedTogetherAndTheKitchenSlotIsReleased() {
+        admitAndFindCustomer();
+        when(productCache.getAll(anyCollection())).thenReturn(Mono.just(Map.of("p1", product("p1", "100"))));
+
+        StepVerifier.create(service.createOrder("cliente-1", cart(item("p1", 1), item("p2", 1), item("p3", 1))))
+                .expectErrorMessage("Productos no encontrados: p2, p3")
+                .verify();
+
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(kitchenCapacity).cancel(any());
+    }
+}
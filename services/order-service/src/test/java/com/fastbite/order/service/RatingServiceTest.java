@@ -0,0 +1,67 @@
+package com.fastbite.order.service;
+
+import com.fastbite.order.model.RatingAggregate;
+import com.fastbite.order.model.RatingTarget;
+import com.fastbite.order.repository.RatingAggregateRepository;
+import com.fastbite.order.repository.RatingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RatingServiceTest {
+
+    private RatingAggregateRepository aggregateRepository;
+    private RatingService service;
+
+    @BeforeEach
+    void setUp() {
+        aggregateRepository = mock(RatingAggregateRepository.class);
+        service = new RatingService(mock(RatingRepository.class), aggregateRepository, mock(CoalescedLookups.class),
+                new SimpleMeterRegistry(), 100, Duration.ofHours(1), Duration.ofHours(6), 1);
+    }
+
+    @Test
+    void unratedProductsAreCachedAndLeftOutOfTheResponse() {
+        RatingAggregate rated = RatingAggregate.builder()
+                .id(RatingAggregate.idOf(RatingTarget.PRODUCT, "p1"))
+                .target(RatingTarget.PRODUCT)
+                .targetId("p1")
+                .count(2)
+                .sum(9)
+                .histogram(Map.of("4", 1L, "5", 1L))
+                .build();
+        when(aggregateRepository.findAllById(anyIterable())).thenReturn(Flux.just(rated));
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(service.getProductRatings(List.of("p1", "p2", "p3")))
+                    .assertNext(aggregates -> assertThat(aggregates).extracting(RatingAggregate::getTargetId)
+                            .containsExactly("p1"))
+                    .verifyComplete();
+        }
+
+        // p2 y p3 quedaron en caché como resúmenes vacíos: una sola consulta
+        verify(aggregateRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void driverWithoutRatingsIsEmptyAndCached() {
+        when(aggregateRepository.findById(anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.getDriverRating("driver-1")).verifyComplete();
+        StepVerifier.create(service.getDriverRating("driver-1")).verifyComplete();
+
+        verify(aggregateRepository, times(1)).findById(RatingAggregate.idOf(RatingTarget.DRIVER, "driver-1"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.fastbite.order.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry registry;
+    private AtomicInteger loads;
+    private List<Sinks.One<String>> pending;
+    private RequestCoalescer<String, String> coalescer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+        pending = new ArrayList<>();
+        // Cada carga queda en vuelo hasta que el test la resuelve
+        coalescer = new RequestCoalescer<>("orders", key -> {
+            loads.incrementAndGet();
+            Sinks.One<String> result = Sinks.one();
+            pending.add(result);
+            return result.asMono();
+        }, registry);
+    }
+
+    private double requests(String result) {
+        return registry.get("fastbite.coalescing.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    void concurrentLookupsOfTheSameKeyShareOneLoad() {
+        StepVerifier first = StepVerifier.create(coalescer.get("o1")).expectNext("orden").expectComplete().verifyLater();
+        StepVerifier second = StepVerifier.create(coalescer.get("o1")).expectNext("orden").expectComplete().verifyLater();
+
+        pending.get(0).tryEmitValue("orden");
+
+        first.verify();
+        second.verify();
+        assertThat(loads).hasValue(1);
+        assertThat(requests("miss")).isEqualTo(1);
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void keyIsReleasedOnceTheLoadCompletes() {
+        StepVerifier first = StepVerifier.create(coalescer.get("o1")).expectNext("v1").expectComplete().verifyLater();
+        pending.get(0).tryEmitValue("v1");
+        first.verify();
+
+        // No es una caché: la siguiente consulta vuelve a cargar
+        StepVerifier second = StepVerifier.create(coalescer.get("o1")).expectNext("v2").expectComplete().verifyLater();
+        pending.get(1).tryEmitValue("v2");
+        second.verify();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void errorsAndEmptyResultsAreSharedAndReleaseTheKey() {
+        StepVerifier failed = StepVerifier.create(coalescer.get("o1")).expectErrorMessage("Mongo caído").verifyLater();
+        StepVerifier alsoFailed = StepVerifier.create(coalescer.get("o1")).expectErrorMessage("Mongo caído").verifyLater();
+        pending.get(0).tryEmitError(new RuntimeException("Mongo caído"));
+        failed.verify();
+        alsoFailed.verify();
+
+        StepVerifier empty = StepVerifier.create(coalescer.get("o1")).expectComplete().verifyLater();
+        pending.get(1).tryEmitEmpty();
+        empty.verify();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void differentKeysLoadIndependently() {
+        coalescer.get("o1").subscribe();
+        coalescer.get("o2").subscribe();
+
+        assertThat(loads).hasValue(2);
+        pending.forEach(Sinks.One::tryEmitEmpty);
+    }
+
+    @Test
+    void nothingLoadsUntilSubscribed() {
+        Mono<String> lookup = coalescer.get("o1");
+
+        assertThat(loads).hasValue(0);
+        lookup.subscribe();
+        assertThat(loads).hasValue(1);
+        pending.get(0).tryEmitEmpty();
+    }
+}
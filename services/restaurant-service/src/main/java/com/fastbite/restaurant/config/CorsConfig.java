@@ -12,6 +12,8 @@ public class CorsConfig implements WebFluxConfigurer {
                 .allowedOrigins("http://localhost:8080", "http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                // Total de resultados de /api/restaurants/search
+                .exposedHeaders("X-Total-Count")
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.fastbite.restaurant.config;
 
 import com.fastbite.restaurant.model.Product;
 import com.fastbite.restaurant.repository.ProductRepository;
+import com.fastbite.restaurant.service.MenuSnapshotService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,7 +14,8 @@ import java.util.List;
 public class DataInitializer {
 
     @Bean
-    CommandLineRunner initProducts(ProductRepository productRepository) {
+    CommandLineRunner initProducts(ProductRepository productRepository,
+                                   MenuSnapshotService menuSnapshotService) {
         return args -> {
             productRepository.count()
                     .filter(count -> count == 0)
@@ -105,7 +107,11 @@ public class DataInitializer {
                     .subscribe(
                             product -> System.out.println("Producto creado: " + product.getName()),
                             error -> System.err.println("Error al crear productos: " + error.getMessage()),
-                            () -> System.out.println("Inicialización de productos completada")
+                            () -> {
+                                System.out.println("Inicialización de productos completada");
+                                // Los productos iniciales se guardan directo en el repositorio
+                                menuSnapshotService.rebuild();
+                            }
                     );
         };
     }
@@ -1,31 +1,112 @@
 package com.fastbite.restaurant.controller;
 
+import com.fastbite.restaurant.dto.UpdateAvailabilityRequest;
 import com.fastbite.restaurant.model.Product;
+import com.fastbite.restaurant.service.MenuSnapshotService;
 import com.fastbite.restaurant.service.ProductService;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final MenuSnapshotService menuSnapshotService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             MenuSnapshotService menuSnapshotService) {
         this.productService = productService;
+        this.menuSnapshotService = menuSnapshotService;
     }
 
+    // Menú precalculado: 304 si el cliente ya lo tiene, gzip si lo acepta
     @GetMapping
-    public Flux<Product> getAll() {
-        return productService.getAllAvailable();
+    public Mono<ResponseEntity<byte[]>> getAll(@RequestHeader HttpHeaders headers) {
+        return menuSnapshotService.current()
+                .map(snapshot -> menuResponse(snapshot, headers));
+    }
+
+    // Varios productos por id, disponibles o no (?ids=a,b,c), para order-service
+    @GetMapping(params = "ids")
+    public Flux<Product> getByIds(@RequestParam List<String> ids) {
+        return productService.getByIds(ids);
     }
 
     @GetMapping("/{id}")
     public Mono<ResponseEntity<Product>> getById(@PathVariable String id) {
-        return productService.getById(id)
+        // 404 solo si no existe; un error de Mongo sale como 5xx
+        return productService.findById(id)
                 .map(ResponseEntity::ok)
-                .onErrorResume(e -> Mono.just(ResponseEntity.notFound().build()));
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Marcar producto como disponible / agotado (COCINA)
+    @PatchMapping("/{id}/availability")
+    public Mono<ResponseEntity<Product>> updateAvailability(
+            @PathVariable String id,
+            @Valid @RequestBody UpdateAvailabilityRequest request) {
+        // 404 solo si no existe; un error de Mongo sale como 5xx
+        return productService.updateAvailability(id, request.getAvailable())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<byte[]> menuResponse(MenuSnapshotService.Snapshot snapshot, HttpHeaders headers) {
+        boolean gzip = acceptsGzip(headers.get(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+
+        if (matches(headers.getIfNoneMatch(), snapshot)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    // Ambas variantes (json / gzip) representan el mismo menú
+    private static boolean matches(List<String> ifNoneMatch, MenuSnapshotService.Snapshot snapshot) {
+        for (String tag : ifNoneMatch) {
+            String value = tag.startsWith("W/") ? tag.substring(2) : tag;
+            if (value.equals("*") || value.equals(snapshot.etag()) || value.equals(snapshot.gzipEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String header : acceptEncoding) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
     }
 }
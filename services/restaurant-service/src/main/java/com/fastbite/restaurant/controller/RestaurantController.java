@@ -0,0 +1,105 @@
+package com.fastbite.restaurant.controller;
+
+import com.fastbite.restaurant.dto.CreateRestaurantRequest;
+import com.fastbite.restaurant.dto.RestaurantSearchRequest;
+import com.fastbite.restaurant.dto.RestaurantSearchResult;
+import com.fastbite.restaurant.dto.UpdateAvailabilityRequest;
+import com.fastbite.restaurant.model.DeliveryZone;
+import com.fastbite.restaurant.model.Restaurant;
+import com.fastbite.restaurant.model.RestaurantCapacity;
+import com.fastbite.restaurant.service.RestaurantAccessDeniedException;
+import com.fastbite.restaurant.service.RestaurantService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/restaurants")
+public class RestaurantController {
+
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private final RestaurantService restaurantService;
+
+    public RestaurantController(RestaurantService restaurantService) {
+        this.restaurantService = restaurantService;
+    }
+
+    @GetMapping
+    public Flux<Restaurant> getAll() {
+        return restaurantService.getAllActive();
+    }
+
+    // Restaurantes que reparten a la dirección, del más cercano al más lejano.
+    // ?latitude=&longitude=&page=&size= ; el total viene en X-Total-Count
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<RestaurantSearchResult>>> search(@Valid RestaurantSearchRequest request) {
+        return restaurantService.search(request)
+                .map(page -> ResponseEntity.ok()
+                        .header(TOTAL_COUNT_HEADER, Integer.toString(page.total()))
+                        .body(page.results()));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Restaurant>> getById(@PathVariable String id) {
+        // 404 solo si no existe; un error de Mongo sale como 5xx
+        return restaurantService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Alta (COCINA); quien lo crea queda como dueño
+    @PostMapping
+    public Mono<ResponseEntity<Restaurant>> create(@Valid @RequestBody CreateRestaurantRequest request,
+                                                   Authentication authentication) {
+        return Mono.defer(() -> restaurantService.create(request, (String) authentication.getPrincipal()))
+                .map(restaurant -> ResponseEntity.status(HttpStatus.CREATED).body(restaurant))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    // Reemplazar las zonas de reparto (se reindexa solo este restaurante). Solo el dueño
+    @PutMapping("/{id}/zones")
+    public Mono<ResponseEntity<Restaurant>> updateZones(
+            @PathVariable String id,
+            @Valid @RequestBody List<@Valid DeliveryZone> zones,
+            Authentication authentication) {
+        return Mono.defer(() -> restaurantService.updateZones(id, zones, (String) authentication.getPrincipal()))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(RestaurantAccessDeniedException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build()));
+    }
+
+    // Capacidad de cocina (la usa order-service para la admisión de órdenes). Solo el dueño
+    @PutMapping("/{id}/capacity")
+    public Mono<ResponseEntity<Restaurant>> updateCapacity(
+            @PathVariable String id,
+            @Valid @RequestBody RestaurantCapacity capacity,
+            Authentication authentication) {
+        return restaurantService.updateCapacity(id, capacity, (String) authentication.getPrincipal())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(RestaurantAccessDeniedException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build()));
+    }
+
+    // Activar / desactivar (un restaurante inactivo no aparece en la búsqueda). Solo el dueño
+    @PatchMapping("/{id}/availability")
+    public Mono<ResponseEntity<Restaurant>> updateAvailability(
+            @PathVariable String id,
+            @Valid @RequestBody UpdateAvailabilityRequest request,
+            Authentication authentication) {
+        return restaurantService.updateActive(id, request.getAvailable(), (String) authentication.getPrincipal())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(RestaurantAccessDeniedException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build()));
+    }
+}
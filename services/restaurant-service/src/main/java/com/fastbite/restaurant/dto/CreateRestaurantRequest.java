@@ -0,0 +1,43 @@
+package com.fastbite.restaurant.dto;
+
+import com.fastbite.restaurant.model.DeliveryZone;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateRestaurantRequest {
+
+    @NotBlank(message = "Nombre es requerido")
+    private String name;
+
+    private String description;
+
+    @NotBlank(message = "Dirección es requerida")
+    private String address;
+
+    private String imageUrl;
+
+    @NotNull(message = "Latitud es requerida")
+    @DecimalMin(value = "-90.0", message = "Latitud inválida")
+    @DecimalMax(value = "90.0", message = "Latitud inválida")
+    private Double latitude;
+
+    @NotNull(message = "Longitud es requerida")
+    @DecimalMin(value = "-180.0", message = "Longitud inválida")
+    @DecimalMax(value = "180.0", message = "Longitud inválida")
+    private Double longitude;
+
+    @Valid
+    private List<DeliveryZone> deliveryZones = new ArrayList<>();
+}
@@ -0,0 +1,35 @@
+package com.fastbite.restaurant.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// ¿Quién reparte a esta dirección? (query params de GET /api/restaurants/search)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantSearchRequest {
+
+    @NotNull(message = "Latitud es requerida")
+    @DecimalMin(value = "-90.0", message = "Latitud inválida")
+    @DecimalMax(value = "90.0", message = "Latitud inválida")
+    private Double latitude;
+
+    @NotNull(message = "Longitud es requerida")
+    @DecimalMin(value = "-180.0", message = "Longitud inválida")
+    @DecimalMax(value = "180.0", message = "Longitud inválida")
+    private Double longitude;
+
+    // Página (desde 0) y tamaño; resultados ordenados por distancia
+    @Min(value = 0, message = "Página inválida")
+    private int page = 0;
+
+    @Min(value = 1, message = "Tamaño inválido")
+    @Max(value = 100, message = "Tamaño máximo 100")
+    private int size = 20;
+}
@@ -0,0 +1,37 @@
+package com.fastbite.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Restaurante que reparte al punto buscado, con la zona que lo cubre
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantSearchResult {
+
+    private String restaurantId;
+
+    private String name;
+
+    private String address;
+
+    private String imageUrl;
+
+    private double latitude;
+
+    private double longitude;
+
+    // Distancia del local al punto buscado (metros)
+    private double distanceMeters;
+
+    private String zoneName;
+
+    private BigDecimal deliveryFee;
+
+    private Integer estimatedMinutes;
+}
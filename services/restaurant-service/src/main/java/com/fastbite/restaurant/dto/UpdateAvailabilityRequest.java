@@ -0,0 +1,15 @@
+package com.fastbite.restaurant.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateAvailabilityRequest {
+    
+    @NotNull(message = "Disponibilidad es requerida")
+    private Boolean available;
+}
@@ -0,0 +1,11 @@
+package com.fastbite.restaurant.event;
+
+// Un producto cambió (nuevo, disponibilidad, precio...).
+// Se publica dentro del servicio y, con events.transport=kafka, también a otros servicios
+public record ProductChangedEvent(String productId, ChangeType type) {
+
+    public enum ChangeType {
+        CREATED,
+        AVAILABILITY_CHANGED
+    }
+}
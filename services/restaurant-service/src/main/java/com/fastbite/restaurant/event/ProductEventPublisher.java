@@ -0,0 +1,37 @@
+package com.fastbite.restaurant.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+// Reenvía los ProductChangedEvent a Kafka (key = productId).
+// order-service los consume para invalidar su caché de productos.
+@Component
+@ConditionalOnProperty(name = "events.transport", havingValue = "kafka")
+public class ProductEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductEventPublisher.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+
+    public ProductEventPublisher(KafkaTemplate<String, String> productEventKafkaTemplate,
+                                 @Value("${events.topics.products:product-events}") String topic) {
+        this.kafkaTemplate = productEventKafkaTemplate;
+        this.topic = topic;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        kafkaTemplate.send(topic, event.productId(), event.type().name())
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.warn("No se pudo publicar cambio del producto {}: {}", event.productId(), error.getMessage());
+                    }
+                });
+    }
+}
@@ -0,0 +1,33 @@
+package com.fastbite.restaurant.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Zona de reparto de un restaurante (embebida en Restaurant).
+// El polígono va como en GeoJSON: [[longitud, latitud], ...], sin repetir el primer punto
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryZone {
+
+    @NotBlank(message = "Nombre de la zona es requerido")
+    private String name;
+
+    @NotNull(message = "Polígono es requerido")
+    @Size(min = 3, message = "El polígono necesita al menos 3 puntos")
+    private List<@Size(min = 2, max = 2, message = "Cada punto es [longitud, latitud]") List<Double>> polygon;
+
+    private BigDecimal deliveryFee;
+
+    // Tiempo estimado de entrega (minutos)
+    private Integer estimatedMinutes;
+}
@@ -0,0 +1,49 @@
+package com.fastbite.restaurant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "restaurants")
+public class Restaurant {
+
+    @Id
+    private String id;
+
+    private String name;
+
+    private String description;
+
+    private String address;
+
+    private String imageUrl;
+
+    // Ubicación del local (punto de retiro)
+    private double latitude;
+
+    private double longitude;
+
+    @Builder.Default
+    private List<DeliveryZone> deliveryZones = new ArrayList<>();
+
+    // Capacidad de cocina (null = valores por defecto de order-service)
+    private RestaurantCapacity capacity;
+
+    private boolean active;
+
+    // userId de quien lo administra (null = nadie puede modificarlo por la API)
+    private String ownerId;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.fastbite.restaurant.model;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Capacidad de cocina de un restaurante (embebida en Restaurant).
+// order-service cuenta las órdenes en RECIBIDO / PREPARANDO y admite hasta
+// maxInFlight con el tiempo normal, hasta maxInFlight + queueSize con hora demorada
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantCapacity {
+
+    @NotNull(message = "Capacidad es requerida")
+    @Min(value = 1, message = "La capacidad mínima es 1")
+    private Integer maxInFlight;
+
+    @Min(value = 0, message = "La cola no puede ser negativa")
+    private Integer queueSize;
+
+    // Tiempo promedio de preparación de una orden (minutos)
+    @Min(value = 1, message = "Tiempo de preparación inválido")
+    private Integer averagePrepMinutes;
+}
@@ -0,0 +1,12 @@
+package com.fastbite.restaurant.repository;
+
+import com.fastbite.restaurant.model.Restaurant;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface RestaurantRepository extends ReactiveMongoRepository<Restaurant, String> {
+
+    Flux<Restaurant> findByActiveTrue();
+}
@@ -0,0 +1,256 @@
+package com.fastbite.restaurant.service;
+
+import com.fastbite.restaurant.model.DeliveryZone;
+import com.fastbite.restaurant.model.Restaurant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Índice en memoria de zonas de reparto: grilla uniforme de celdas (cell-size grados).
+// - Cada celda guarda las zonas cuyo rectángulo la toca; buscar un punto es mirar
+//   una sola celda, descartar por rectángulo y confirmar con punto-en-polígono
+// - Las celdas se reemplazan enteras (copy-on-write): las búsquedas no bloquean
+// - Cambiar un restaurante solo toca las celdas de sus zonas viejas y nuevas; una copia
+//   igual a la indexada (o más vieja, por updatedAt) no cambia nada
+// - Una zona no puede ocupar más de max-cells-per-zone celdas
+@Component
+public class DeliveryZoneIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryZoneIndex.class);
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final ZoneEntry[] EMPTY = new ZoneEntry[0];
+
+    // Restaurante que cubre el punto, con su zona y la distancia del local al punto
+    public record Match(Restaurant restaurant, DeliveryZone zone, double distanceMeters) {
+    }
+
+    // Polígono ya pasado a arrays primitivos, con su rectángulo
+    private record ZoneEntry(Restaurant restaurant, DeliveryZone zone,
+                             double[] lats, double[] lons,
+                             double minLat, double maxLat, double minLon, double maxLon) {
+
+        boolean contains(double lat, double lon) {
+            if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+                return false;
+            }
+            // Ray casting (longitud = x, latitud = y)
+            boolean inside = false;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                if ((lats[i] > lat) != (lats[j] > lat)
+                        && lon < (lons[j] - lons[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lons[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+
+    private final double cellSize;
+    private final long maxCellsPerZone;
+
+    private final Map<Long, ZoneEntry[]> cells = new ConcurrentHashMap<>();
+    // Celdas ocupadas por cada restaurante, para sacarlo sin recorrer la grilla
+    private final Map<String, Set<Long>> cellsByRestaurant = new HashMap<>();
+    // Copia indexada de cada restaurante
+    private final Map<String, Restaurant> indexed = new HashMap<>();
+    // updatedAt (epoch millis) de la última copia aplicada, esté indexada o no (inactivo, sin zonas)
+    private final Map<String, Long> versions = new HashMap<>();
+
+    public DeliveryZoneIndex(@Value("${restaurants.index.cell-size:0.02}") double cellSize,
+                             @Value("${restaurants.index.max-cells-per-zone:2500}") long maxCellsPerZone) {
+        this.cellSize = cellSize;
+        this.maxCellsPerZone = Math.max(1, maxCellsPerZone);
+    }
+
+    // false si el rectángulo de la zona ocupa más de max-cells-per-zone celdas
+    public boolean fits(DeliveryZone zone) {
+        ZoneEntry entry = toEntry(null, zone);
+        return entry == null || cellCount(entry) <= maxCellsPerZone;
+    }
+
+    // Restaurantes cuya zona contiene el punto, del más cercano al más lejano
+    public List<Match> search(double latitude, double longitude) {
+        ZoneEntry[] candidates = cells.getOrDefault(cellOf(latitude, longitude), EMPTY);
+        Map<String, Match> found = new HashMap<>();
+        for (ZoneEntry entry : candidates) {
+            if (!entry.contains(latitude, longitude)) {
+                continue;
+            }
+            Restaurant restaurant = entry.restaurant();
+            // Si varias zonas del mismo local cubren el punto, la primera cargada gana
+            found.computeIfAbsent(restaurant.getId(), id -> new Match(restaurant, entry.zone(),
+                    haversine(latitude, longitude, restaurant.getLatitude(), restaurant.getLongitude())));
+        }
+        List<Match> matches = new ArrayList<>(found.values());
+        matches.sort(Comparator.comparingDouble(Match::distanceMeters)
+                .thenComparing(match -> match.restaurant().getId()));
+        return matches;
+    }
+
+    // Alta o cambio de un restaurante (inactivo = se quita).
+    // Primero se agregan las zonas nuevas y después se sacan las viejas:
+    // una búsqueda concurrente nunca deja de ver al restaurante
+    public synchronized void put(Restaurant restaurant) {
+        Long known = versions.get(restaurant.getId());
+        Long version = restaurant.getUpdatedAt() != null ? restaurant.getUpdatedAt().toEpochMilli() : null;
+        // Copia vieja (ej. una recarga que leyó Mongo antes del último cambio)
+        if (known != null && version != null && version < known) {
+            return;
+        }
+        if (version != null) {
+            versions.put(restaurant.getId(), version);
+        }
+        if (restaurant.equals(indexed.get(restaurant.getId()))) {
+            return;
+        }
+        Set<Long> previous = cellsByRestaurant.remove(restaurant.getId());
+        Set<Long> occupied = new HashSet<>();
+        if (restaurant.isActive() && restaurant.getDeliveryZones() != null) {
+            for (DeliveryZone zone : restaurant.getDeliveryZones()) {
+                ZoneEntry entry = toEntry(restaurant, zone);
+                if (entry == null) {
+                    continue;
+                }
+                if (cellCount(entry) > maxCellsPerZone) {
+                    log.warn("Zona {} del restaurante {} demasiado grande, no se indexa",
+                            zone.getName(), restaurant.getId());
+                    continue;
+                }
+                for (int latIndex = index(entry.minLat()); latIndex <= index(entry.maxLat()); latIndex++) {
+                    for (int lonIndex = index(entry.minLon()); lonIndex <= index(entry.maxLon()); lonIndex++) {
+                        long cell = key(latIndex, lonIndex);
+                        cells.compute(cell, (key, current) -> append(current, entry));
+                        occupied.add(cell);
+                    }
+                }
+            }
+        }
+        if (previous != null) {
+            evict(previous, restaurant.getId(), restaurant);
+        }
+        if (!occupied.isEmpty()) {
+            cellsByRestaurant.put(restaurant.getId(), occupied);
+            indexed.put(restaurant.getId(), restaurant);
+        } else {
+            indexed.remove(restaurant.getId());
+        }
+    }
+
+    public synchronized void remove(String restaurantId) {
+        versions.remove(restaurantId);
+        indexed.remove(restaurantId);
+        Set<Long> occupied = cellsByRestaurant.remove(restaurantId);
+        if (occupied != null) {
+            evict(occupied, restaurantId, null);
+        }
+    }
+
+    // Saca de las celdas las zonas del restaurante, salvo las de la copia "keep"
+    private void evict(Set<Long> occupied, String restaurantId, Restaurant keep) {
+        for (long cell : occupied) {
+            cells.computeIfPresent(cell, (key, current) -> {
+                ZoneEntry[] kept = Arrays.stream(current)
+                        .filter(entry -> entry.restaurant() == keep
+                                || !entry.restaurant().getId().equals(restaurantId))
+                        .toArray(ZoneEntry[]::new);
+                return kept.length > 0 ? kept : null;
+            });
+        }
+    }
+
+    // Carga completa leída a partir de loadedAt: agrega/actualiza todos y quita los que ya
+    // no están, salvo los cambiados después de loadedAt (la lectura pudo no verlos)
+    public synchronized void replaceAll(Collection<Restaurant> restaurants, Instant loadedAt) {
+        Set<String> present = new HashSet<>();
+        for (Restaurant restaurant : restaurants) {
+            put(restaurant);
+            present.add(restaurant.getId());
+        }
+        long loadedAtMillis = loadedAt.toEpochMilli();
+        for (String restaurantId : List.copyOf(versions.keySet())) {
+            if (!present.contains(restaurantId) && versions.get(restaurantId) < loadedAtMillis) {
+                remove(restaurantId);
+            }
+        }
+        for (String restaurantId : List.copyOf(cellsByRestaurant.keySet())) {
+            if (!present.contains(restaurantId) && !versions.containsKey(restaurantId)) {
+                remove(restaurantId);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return cellsByRestaurant.size();
+    }
+
+    private long cellCount(ZoneEntry entry) {
+        return ((long) index(entry.maxLat()) - index(entry.minLat()) + 1)
+                * ((long) index(entry.maxLon()) - index(entry.minLon()) + 1);
+    }
+
+    private static ZoneEntry[] append(ZoneEntry[] current, ZoneEntry entry) {
+        if (current == null) {
+            return new ZoneEntry[]{entry};
+        }
+        ZoneEntry[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = entry;
+        return updated;
+    }
+
+    // null si el polígono no es válido (menos de 3 puntos)
+    private static ZoneEntry toEntry(Restaurant restaurant, DeliveryZone zone) {
+        List<List<Double>> polygon = zone.getPolygon();
+        if (polygon == null || polygon.size() < 3) {
+            return null;
+        }
+        int points = polygon.size();
+        double[] lats = new double[points];
+        double[] lons = new double[points];
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (int i = 0; i < points; i++) {
+            lons[i] = polygon.get(i).get(0);
+            lats[i] = polygon.get(i).get(1);
+            minLat = Math.min(minLat, lats[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+            minLon = Math.min(minLon, lons[i]);
+            maxLon = Math.max(maxLon, lons[i]);
+        }
+        return new ZoneEntry(restaurant, zone, lats, lons, minLat, maxLat, minLon, maxLon);
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(index(latitude), index(longitude));
+    }
+
+    private int index(double degrees) {
+        return (int) Math.floor(degrees / cellSize);
+    }
+
+    private static long key(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xFFFFFFFFL);
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+    }
+}
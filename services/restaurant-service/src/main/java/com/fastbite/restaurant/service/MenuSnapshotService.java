@@ -0,0 +1,128 @@
+package com.fastbite.restaurant.service;
+
+import com.fastbite.restaurant.event.ProductChangedEvent;
+import com.fastbite.restaurant.model.Product;
+import com.fastbite.restaurant.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+// Menú (productos disponibles) ya serializado y comprimido en memoria.
+// Se reconstruye cuando cambia un producto en esta réplica y cada refresh-interval
+// (cambios hechos por otras réplicas); servir el menú es copiar bytes.
+@Service
+public class MenuSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuSnapshotService.class);
+
+    // json / gzip: cuerpos listos para escribir; etag: hash del JSON (fuerte)
+    public record Snapshot(long version, String etag, String gzipEtag, byte[] json, byte[] gzip) {
+    }
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration refreshInterval;
+
+    private final AtomicLong requestedVersion = new AtomicLong();
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Primera construcción compartida por todas las requests que lleguen antes
+    private final Mono<Snapshot> initial;
+    private Disposable refresher;
+
+    public MenuSnapshotService(ProductRepository productRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${menu.refresh-interval:1m}") Duration refreshInterval) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.refreshInterval = refreshInterval;
+        this.initial = Mono.defer(() -> build(0)).cacheInvalidateIf(snapshot -> false);
+    }
+
+    @PostConstruct
+    public void start() {
+        refresher = Flux.interval(refreshInterval, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> build(requestedVersion.incrementAndGet())
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo recargar el menú: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    public Mono<Snapshot> current() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? Mono.just(snapshot) : initial;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        rebuild();
+    }
+
+    // Cada cambio pide una versión nueva; si dos reconstrucciones se cruzan gana la más nueva
+    public void rebuild() {
+        build(requestedVersion.incrementAndGet())
+                .subscribe(snapshot -> { },
+                        error -> log.warn("No se pudo reconstruir el menú: {}", error.getMessage()));
+    }
+
+    private Mono<Snapshot> build(long version) {
+        return productRepository.findByAvailableTrue()
+                .collectList()
+                .map(products -> render(version, products))
+                .doOnNext(snapshot -> current.accumulateAndGet(snapshot,
+                        (old, fresh) -> old == null || fresh.version() >= old.version() ? fresh : old));
+    }
+
+    private Snapshot render(long version, List<Product> products) {
+        byte[] json = objectMapper.writeValueAsBytes(products);
+        String hash = HexFormat.of().formatHex(sha256(json), 0, 16);
+        return new Snapshot(version, "\"" + hash + "\"", "\"" + hash + "-gz\"", json, gzip(json));
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
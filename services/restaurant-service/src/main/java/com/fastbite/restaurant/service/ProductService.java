@@ -1,18 +1,25 @@
 package com.fastbite.restaurant.service;
 
+import com.fastbite.restaurant.event.ProductChangedEvent;
 import com.fastbite.restaurant.model.Product;
 import com.fastbite.restaurant.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Flux<Product> getAllAvailable() {
@@ -23,13 +30,33 @@ public class ProductService {
         return productRepository.findAll();
     }
 
-    public Mono<Product> getById(String id) {
-        return productRepository.findById(id)
-                .switchIfEmpty(Mono.error(new RuntimeException("Producto no encontrado")));
+    public Flux<Product> getByIds(List<String> ids) {
+        return productRepository.findAllById(ids);
+    }
+
+    // Vacío si no existe
+    public Mono<Product> findById(String id) {
+        return productRepository.findById(id);
     }
 
     public Mono<Product> create(Product product) {
         product.setAvailable(true);
-        return productRepository.save(product);
+        return productRepository.save(product)
+                .doOnNext(saved -> publishChange(saved, ProductChangedEvent.ChangeType.CREATED));
+    }
+
+    // Vacío si el producto no existe
+    public Mono<Product> updateAvailability(String id, boolean available) {
+        return productRepository.findById(id)
+                .flatMap(product -> {
+                    product.setAvailable(available);
+                    return productRepository.save(product);
+                })
+                .doOnNext(saved -> publishChange(saved, ProductChangedEvent.ChangeType.AVAILABILITY_CHANGED));
+    }
+
+    // Avisar el cambio (cachés de otros servicios, menú precalculado...)
+    private void publishChange(Product product, ProductChangedEvent.ChangeType type) {
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), type));
     }
 }
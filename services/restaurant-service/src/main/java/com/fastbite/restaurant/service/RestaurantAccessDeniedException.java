@@ -0,0 +1,16 @@
+package com.fastbite.restaurant.service;
+
+// El usuario no administra el restaurante (403)
+public class RestaurantAccessDeniedException extends RuntimeException {
+
+    private final String restaurantId;
+
+    public RestaurantAccessDeniedException(String restaurantId) {
+        super("Sin permiso sobre el restaurante " + restaurantId);
+        this.restaurantId = restaurantId;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+}
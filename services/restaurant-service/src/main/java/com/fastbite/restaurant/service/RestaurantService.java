@@ -0,0 +1,198 @@
+package com.fastbite.restaurant.service;
+
+import com.fastbite.restaurant.dto.CreateRestaurantRequest;
+import com.fastbite.restaurant.dto.RestaurantSearchRequest;
+import com.fastbite.restaurant.dto.RestaurantSearchResult;
+import com.fastbite.restaurant.model.DeliveryZone;
+import com.fastbite.restaurant.model.Restaurant;
+import com.fastbite.restaurant.model.RestaurantCapacity;
+import com.fastbite.restaurant.repository.RestaurantRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Restaurantes y búsqueda "quién reparte a esta dirección".
+// La búsqueda no toca Mongo: usa DeliveryZoneIndex, que se actualiza con cada cambio
+// de este servicio y se recarga completo cada refresh-interval (cambios de otras réplicas)
+@Service
+public class RestaurantService {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantService.class);
+
+    // Página de resultados y total de restaurantes que cubren el punto
+    public record SearchPage(List<RestaurantSearchResult> results, int total) {
+    }
+
+    private final RestaurantRepository restaurantRepository;
+    private final DeliveryZoneIndex zoneIndex;
+    private final Duration refreshInterval;
+
+    // Primera carga compartida por las búsquedas que lleguen antes de que termine
+    private final Mono<Integer> initialLoad;
+    private Disposable refresher;
+
+    public RestaurantService(RestaurantRepository restaurantRepository,
+                             DeliveryZoneIndex zoneIndex,
+                             @Value("${restaurants.index.refresh-interval:5m}") Duration refreshInterval) {
+        this.restaurantRepository = restaurantRepository;
+        this.zoneIndex = zoneIndex;
+        this.refreshInterval = refreshInterval;
+        this.initialLoad = Mono.defer(this::reload).cacheInvalidateIf(count -> false);
+    }
+
+    @PostConstruct
+    public void start() {
+        initialLoad.subscribe(count -> log.info("Índice de zonas de reparto cargado: {} restaurantes", count),
+                error -> log.warn("No se pudo cargar el índice de zonas: {}", error.getMessage()));
+        refresher = Flux.interval(refreshInterval, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> reload()
+                        .onErrorResume(e -> {
+                            log.warn("No se pudo recargar el índice de zonas: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    public Flux<Restaurant> getAllActive() {
+        return restaurantRepository.findByActiveTrue();
+    }
+
+    // Vacío si no existe
+    public Mono<Restaurant> findById(String id) {
+        return restaurantRepository.findById(id);
+    }
+
+    // El restaurante, si userId es su dueño; vacío si no existe.
+    // Sin dueño no lo administra nadie: hay que asignarle ownerId en la base
+    private Mono<Restaurant> findManaged(String id, String userId) {
+        return restaurantRepository.findById(id)
+                .flatMap(restaurant -> restaurant.getOwnerId() != null && restaurant.getOwnerId().equals(userId)
+                        ? Mono.just(restaurant)
+                        : Mono.error(new RestaurantAccessDeniedException(id)));
+    }
+
+    // ownerId = quien lo crea. IllegalArgumentException si una zona es demasiado grande
+    public Mono<Restaurant> create(CreateRestaurantRequest request, String ownerId) {
+        if (request.getDeliveryZones() != null) {
+            request.getDeliveryZones().forEach(this::checkZone);
+        }
+        Restaurant restaurant = Restaurant.builder()
+                .name(request.getName())
+                .description(request.getDescription())
+                .address(request.getAddress())
+                .imageUrl(request.getImageUrl())
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
+                .deliveryZones(request.getDeliveryZones() != null
+                        ? new ArrayList<>(request.getDeliveryZones())
+                        : new ArrayList<>())
+                .active(true)
+                .ownerId(ownerId)
+                .updatedAt(Instant.now())
+                .build();
+        return restaurantRepository.save(restaurant)
+                .doOnNext(zoneIndex::put);
+    }
+
+    // Reemplaza las zonas de reparto; solo se reindexa este restaurante. Vacío si no existe
+    public Mono<Restaurant> updateZones(String id, List<DeliveryZone> zones, String userId) {
+        zones.forEach(this::checkZone);
+        return findManaged(id, userId)
+                .flatMap(restaurant -> {
+                    restaurant.setDeliveryZones(new ArrayList<>(zones));
+                    restaurant.setUpdatedAt(Instant.now());
+                    return restaurantRepository.save(restaurant);
+                })
+                .doOnNext(zoneIndex::put);
+    }
+
+    // Vacío si no existe
+    public Mono<Restaurant> updateActive(String id, boolean active, String userId) {
+        return findManaged(id, userId)
+                .flatMap(restaurant -> {
+                    restaurant.setActive(active);
+                    restaurant.setUpdatedAt(Instant.now());
+                    return restaurantRepository.save(restaurant);
+                })
+                .doOnNext(zoneIndex::put);
+    }
+
+    // Vacío si no existe
+    public Mono<Restaurant> updateCapacity(String id, RestaurantCapacity capacity, String userId) {
+        return findManaged(id, userId)
+                .flatMap(restaurant -> {
+                    restaurant.setCapacity(capacity);
+                    restaurant.setUpdatedAt(Instant.now());
+                    return restaurantRepository.save(restaurant);
+                })
+                .doOnNext(zoneIndex::put);
+    }
+
+    // Una zona que cubre demasiadas celdas del índice no se acepta
+    private void checkZone(DeliveryZone zone) {
+        if (!zoneIndex.fits(zone)) {
+            throw new IllegalArgumentException("Zona de reparto demasiado grande: " + zone.getName());
+        }
+    }
+
+    // Restaurantes que reparten al punto, ordenados por distancia y paginados
+    public Mono<SearchPage> search(RestaurantSearchRequest request) {
+        return initialLoad.map(loaded -> {
+            List<DeliveryZoneIndex.Match> matches = zoneIndex.search(request.getLatitude(), request.getLongitude());
+            int from = (int) Math.min((long) request.getPage() * request.getSize(), matches.size());
+            int to = Math.min(from + request.getSize(), matches.size());
+            List<RestaurantSearchResult> results = matches.subList(from, to).stream()
+                    .map(RestaurantService::toResult)
+                    .toList();
+            return new SearchPage(results, matches.size());
+        });
+    }
+
+    // Recarga completa desde Mongo; devuelve la cantidad de restaurantes con zonas
+    private Mono<Integer> reload() {
+        return Mono.defer(() -> {
+            Instant loadedAt = Instant.now();
+            return restaurantRepository.findAll()
+                    .collectList()
+                    .map(restaurants -> {
+                        zoneIndex.replaceAll(restaurants, loadedAt);
+                        return zoneIndex.size();
+                    });
+        });
+    }
+
+    private static RestaurantSearchResult toResult(DeliveryZoneIndex.Match match) {
+        Restaurant restaurant = match.restaurant();
+        return RestaurantSearchResult.builder()
+                .restaurantId(restaurant.getId())
+                .name(restaurant.getName())
+                .address(restaurant.getAddress())
+                .imageUrl(restaurant.getImageUrl())
+                .latitude(restaurant.getLatitude())
+                .longitude(restaurant.getLongitude())
+                .distanceMeters(match.distanceMeters())
+                .zoneName(match.zone().getName())
+                .deliveryFee(match.zone().getDeliveryFee())
+                .estimatedMinutes(match.zone().getEstimatedMinutes())
+                .build();
+    }
+}
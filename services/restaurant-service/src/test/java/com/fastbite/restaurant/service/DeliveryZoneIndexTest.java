@@ -0,0 +1,114 @@
+package com.fastbite.restaurant.service;
+
+import com.fastbite.restaurant.model.DeliveryZone;
+import com.fastbite.restaurant.model.Restaurant;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Celdas de 0.01°: una zona de 0.05° ocupa varias
+class DeliveryZoneIndexTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final DeliveryZoneIndex index = new DeliveryZoneIndex(0.01, 100);
+
+    // Cuadrado [lon, lat] con esquina inferior izquierda en (lon, lat)
+    private static DeliveryZone square(String name, double lon, double lat, double size) {
+        return DeliveryZone.builder()
+                .name(name)
+                .polygon(List.of(List.of(lon, lat), List.of(lon + size, lat),
+                        List.of(lon + size, lat + size), List.of(lon, lat + size)))
+                .build();
+    }
+
+    private static Restaurant restaurant(String id, double lat, double lon, Instant updatedAt, DeliveryZone... zones) {
+        return Restaurant.builder()
+                .id(id)
+                .latitude(lat)
+                .longitude(lon)
+                .active(true)
+                .updatedAt(updatedAt)
+                .deliveryZones(List.of(zones))
+                .build();
+    }
+
+    private List<String> ids(double lat, double lon) {
+        return index.search(lat, lon).stream().map(match -> match.restaurant().getId()).toList();
+    }
+
+    @Test
+    void pointIsMatchedAcrossCellsAndSortedByDistance() {
+        index.put(restaurant("lejos", 0.049, 0.049, T0, square("centro", 0, 0, 0.05)));
+        index.put(restaurant("cerca", 0.031, 0.031, T0, square("centro", 0.02, 0.02, 0.02)));
+
+        assertThat(ids(0.03, 0.03)).containsExactly("cerca", "lejos");
+        assertThat(ids(0.001, 0.048)).containsExactly("lejos");
+        assertThat(ids(0.06, 0.06)).isEmpty();
+    }
+
+    @Test
+    void pointInsideTheBoundingBoxButOutsideThePolygonIsNotMatched() {
+        DeliveryZone triangle = DeliveryZone.builder()
+                .name("triángulo")
+                .polygon(List.of(List.of(0.0, 0.0), List.of(0.04, 0.0), List.of(0.0, 0.04)))
+                .build();
+        index.put(restaurant("r1", 0, 0, T0, triangle));
+
+        assertThat(ids(0.01, 0.01)).containsExactly("r1");
+        assertThat(ids(0.035, 0.035)).isEmpty();
+    }
+
+    @Test
+    void changingZonesMovesTheRestaurantAndStaleCopiesAreIgnored() {
+        index.put(restaurant("r1", 0, 0, T0, square("vieja", 0, 0, 0.02)));
+        index.put(restaurant("r1", 0, 0, T0.plusSeconds(10), square("nueva", 0.1, 0.1, 0.02)));
+
+        assertThat(ids(0.01, 0.01)).isEmpty();
+        assertThat(ids(0.11, 0.11)).containsExactly("r1");
+
+        // Una recarga que leyó Mongo antes del cambio no lo deshace
+        index.put(restaurant("r1", 0, 0, T0.plusSeconds(5), square("vieja", 0, 0, 0.02)));
+        assertThat(ids(0.01, 0.01)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void inactiveRestaurantIsRemoved() {
+        index.put(restaurant("r1", 0, 0, T0, square("centro", 0, 0, 0.02)));
+        Restaurant closed = restaurant("r1", 0, 0, T0.plusSeconds(1), square("centro", 0, 0, 0.02));
+        closed.setActive(false);
+
+        index.put(closed);
+
+        assertThat(ids(0.01, 0.01)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void zonesOverTheCellCapAreNotIndexed() {
+        DeliveryZone huge = square("ciudad", 0, 0, 0.5);
+
+        assertThat(index.fits(huge)).isFalse();
+        assertThat(index.fits(square("barrio", 0, 0, 0.05))).isTrue();
+
+        index.put(restaurant("r1", 0, 0, T0, huge));
+        assertThat(ids(0.01, 0.01)).isEmpty();
+    }
+
+    @Test
+    void replaceAllKeepsRestaurantsChangedAfterTheLoad() {
+        Instant loadedAt = T0.plusSeconds(60);
+        index.put(restaurant("borrado", 0, 0, T0, square("a", 0, 0, 0.02)));
+        index.put(restaurant("nuevo", 0, 0, loadedAt.plusSeconds(1), square("b", 0.1, 0.1, 0.02)));
+
+        index.replaceAll(List.of(restaurant("cargado", 0, 0, T0, square("c", 0.2, 0.2, 0.02))), loadedAt);
+
+        assertThat(ids(0.01, 0.01)).isEmpty();
+        assertThat(ids(0.11, 0.11)).containsExactly("nuevo");
+        assertThat(ids(0.21, 0.21)).containsExactly("cargado");
+    }
+}
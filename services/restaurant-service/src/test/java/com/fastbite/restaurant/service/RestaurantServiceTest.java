@@ -0,0 +1,78 @@
+package com.fastbite.restaurant.service;
+
+import com.fastbite.restaurant.model.Restaurant;
+import com.fastbite.restaurant.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RestaurantServiceTest {
+
+    private RestaurantRepository restaurantRepository;
+    private RestaurantService service;
+
+    @BeforeEach
+    void setUp() {
+        restaurantRepository = mock(RestaurantRepository.class);
+        when(restaurantRepository.save(any(Restaurant.class))).thenAnswer(call -> Mono.just(call.getArgument(0)));
+        service = new RestaurantService(restaurantRepository, new DeliveryZoneIndex(0.01, 100), Duration.ofMinutes(5));
+    }
+
+    private void stored(String ownerId) {
+        when(restaurantRepository.findById("r1")).thenReturn(Mono.just(Restaurant.builder()
+                .id("r1")
+                .ownerId(ownerId)
+                .active(true)
+                .deliveryZones(List.of())
+                .build()));
+    }
+
+    @Test
+    void ownerCanManageTheRestaurant() {
+        stored("cocina-1");
+
+        StepVerifier.create(service.updateActive("r1", false, "cocina-1"))
+                .assertNext(restaurant -> assertThat(restaurant.isActive()).isFalse())
+                .verifyComplete();
+    }
+
+    @Test
+    void anotherKitchenUserIsDenied() {
+        stored("cocina-1");
+
+        StepVerifier.create(service.updateActive("r1", false, "cocina-2"))
+                .expectError(RestaurantAccessDeniedException.class)
+                .verify();
+
+        verify(restaurantRepository, never()).save(any(Restaurant.class));
+    }
+
+    @Test
+    void restaurantWithoutOwnerCannotBeManagedByAnyone() {
+        stored(null);
+
+        StepVerifier.create(service.updateActive("r1", false, "cocina-1"))
+                .expectError(RestaurantAccessDeniedException.class)
+                .verify();
+        StepVerifier.create(service.updateZones("r1", List.of(), "cocina-1"))
+                .expectError(RestaurantAccessDeniedException.class)
+                .verify();
+
+        verify(restaurantRepository, never()).save(any(Restaurant.class));
+    }
+
+    @Test
+    void missingRestaurantIsEmpty() {
+        when(restaurantRepository.findById("r1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.updateActive("r1", false, "cocina-1")).verifyComplete();
+    }
+}
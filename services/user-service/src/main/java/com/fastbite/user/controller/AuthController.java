@@ -4,14 +4,18 @@ import com.fastbite.user.dto.AuthResponse;
 import com.fastbite.user.dto.LoginRequest;
 import com.fastbite.user.dto.RegisterRequest;
 import com.fastbite.user.model.User;
+import com.fastbite.user.security.LoginRateLimiter;
+import com.fastbite.user.security.PasswordHashingBusyException;
 import com.fastbite.user.service.AuthService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,15 +24,18 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginRateLimiter loginRateLimiter) {
         this.authService = authService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @PostMapping("/register")
     public Mono<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
         return authService.register(request)
                 .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(PasswordHashingBusyException.class, e -> Mono.just(busy(e)))
                 .onErrorResume(e -> Mono.just(
                         ResponseEntity.badRequest().build()
                 ));
@@ -36,8 +43,16 @@ public class AuthController {
 
     @PostMapping("/login")
     public Mono<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+        // Demasiados intentos contra la misma cuenta: 429 sin verificar la contraseña
+        Duration wait = loginRateLimiter.tryAcquireAccount(request.getEmail());
+        if (!wait.isZero()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(LoginRateLimiter.retryAfterSeconds(wait)))
+                    .build());
+        }
         return authService.login(request)
                 .map(ResponseEntity::ok)
+                .onErrorResume(PasswordHashingBusyException.class, e -> Mono.just(busy(e)))
                 .onErrorResume(e -> Mono.just(
                         ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()
                 ));
@@ -61,4 +76,11 @@ public class AuthController {
                 })
                 .onErrorResume(e -> Mono.just(ResponseEntity.notFound().build()));
     }
-}
\ No newline at end of file
+
+    // Pool de hashing lleno: el cliente reintenta más tarde
+    private static <T> ResponseEntity<T> busy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.fastbite.user.controller;
+
+import com.fastbite.user.dto.UserSummary;
+import com.fastbite.user.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+
+    // Rol de los tokens de servicio (order-service)
+    private static final String SERVICE_AUTHORITY = "ROLE_SERVICE";
+
+    private final UserService userService;
+
+    public UserController(UserService userService) {
+        this.userService = userService;
+    }
+
+    // Perfil mínimo de un usuario: solo para otros servicios o para el propio usuario.
+    // 404 solo si no existe; un error de Mongo sale como 5xx y el que llama conserva su valor
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserSummary>> getById(@PathVariable String id, Authentication authentication) {
+        if (authentication == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        if (!isService(authentication) && !id.equals(authentication.getPrincipal())) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return userService.findById(id)
+                .map(user -> ResponseEntity.ok(UserSummary.builder()
+                        .id(user.getId())
+                        .name(user.getName())
+                        .phone(user.getPhone())
+                        .build()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private static boolean isService(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(SERVICE_AUTHORITY::equals);
+    }
+}
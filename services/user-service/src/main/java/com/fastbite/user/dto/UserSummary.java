@@ -0,0 +1,20 @@
+package com.fastbite.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Lo mínimo de un usuario para otros servicios (nombre y teléfono en las órdenes)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+
+    private String id;
+
+    private String name;
+
+    private String phone;
+}
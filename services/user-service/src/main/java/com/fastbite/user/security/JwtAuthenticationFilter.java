@@ -1,12 +1,12 @@
 package com.fastbite.user.security;
 
+import com.fastbite.common.security.JwtService;
 import io.jsonwebtoken.Claims;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
-import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
@@ -14,7 +14,8 @@ import reactor.core.publisher.Mono;
 
 import java.util.List;
 
-@Component
+// Arma Authentication desde el Bearer (principal = userId, authority = ROLE_<rol>).
+// No es un @Component: lo registra solo SecurityConfig, dentro de la cadena de seguridad
 public class JwtAuthenticationFilter implements WebFilter {
 
     private final JwtService jwtService;
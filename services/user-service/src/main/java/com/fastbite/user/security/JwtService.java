@@ -1,76 +0,0 @@
-package com.fastbite.user.security;
-
-import com.fastbite.user.model.Role;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
-
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Date;
-
-@Service
-public class JwtService {
-
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
-    private long expiration;
-
-    private SecretKey key;
-
-    @PostConstruct
-    public void init() {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
-
-    public String generateToken(String userId, String email, Role role) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration);
-
-        return Jwts.builder()
-                .subject(userId)
-                .claim("email", email)
-                .claim("role", role.name())
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(key)
-                .compact();
-    }
-
-    public Claims validateToken(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (JwtException | IllegalArgumentException e) {
-            return null;
-        }
-    }
-
-    public String getUserIdFromToken(String token) {
-        Claims claims = validateToken(token);
-        return claims != null ? claims.getSubject() : null;
-    }
-
-    public String getEmailFromToken(String token) {
-        Claims claims = validateToken(token);
-        return claims != null ? claims.get("email", String.class) : null;
-    }
-
-    public Role getRoleFromToken(String token) {
-        Claims claims = validateToken(token);
-        if (claims != null) {
-            String roleStr = claims.get("role", String.class);
-            return Role.valueOf(roleStr);
-        }
-        return null;
-    }
-}
\ No newline at end of file
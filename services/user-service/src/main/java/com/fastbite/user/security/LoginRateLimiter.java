@@ -0,0 +1,136 @@
+package com.fastbite.user.security;
+
+import com.fastbite.common.ratelimit.TokenBuckets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Locale;
+
+// Límite de intentos de login (token bucket, 429 + Retry-After), antes de gastar un BCrypt.
+// - Por IP: en este filtro, para POST /api/auth/login
+// - Por cuenta (email): desde AuthController, que es quien lee el body
+// Con max-keys emails vivos el límite por cuenta falla abierto (solo queda el de IP):
+// rotando emails no se puede dejar sin login a los usuarios legítimos
+@Component
+public class LoginRateLimiter implements WebFilter, Ordered {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    private final TokenBuckets perIp;
+    private final TokenBuckets perAccount;
+    private final Duration sweepInterval;
+    private final Counter rejectedByIp;
+    private final Counter rejectedByAccount;
+    private Disposable sweeper;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${rate-limit.login.per-ip.capacity:20}") int ipCapacity,
+                            @Value("${rate-limit.login.per-ip.refill-every:3s}") Duration ipRefillEvery,
+                            @Value("${rate-limit.login.per-account.capacity:5}") int accountCapacity,
+                            @Value("${rate-limit.login.per-account.refill-every:30s}") Duration accountRefillEvery,
+                            @Value("${rate-limit.max-keys:1000000}") long maxKeys,
+                            @Value("${rate-limit.sweep-interval:1m}") Duration sweepInterval) {
+        this.perIp = new TokenBuckets(ipCapacity, ipRefillEvery, maxKeys);
+        this.perAccount = new TokenBuckets(accountCapacity, accountRefillEvery, maxKeys, true);
+        this.sweepInterval = sweepInterval;
+        this.rejectedByIp = rejected(meterRegistry, "ip");
+        this.rejectedByAccount = rejected(meterRegistry, "user");
+        overflowed(meterRegistry, "ip", perIp);
+        overflowed(meterRegistry, "user", perAccount);
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = Flux.interval(sweepInterval)
+                .onBackpressureDrop()
+                .subscribe(tick -> {
+                    perIp.evictIdle();
+                    perAccount.evictIdle();
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.POST.equals(request.getMethod())
+                || !LOGIN_PATH.equals(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        Duration wait = perIp.tryAcquire(clientIp(request));
+        if (wait.isZero()) {
+            return chain.filter(exchange);
+        }
+        rejectedByIp.increment();
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(wait)));
+        return exchange.getResponse().setComplete();
+    }
+
+    // Duration.ZERO = puede intentar; si no, cuánto esperar
+    public Duration tryAcquireAccount(String email) {
+        Duration wait = perAccount.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        if (!wait.isZero()) {
+            rejectedByAccount.increment();
+        }
+        return wait;
+    }
+
+    // Redondeado para arriba: reintentar antes volvería a dar 429
+    public static long retryAfterSeconds(Duration wait) {
+        return Math.max(1, (wait.toMillis() + 999) / 1000);
+    }
+
+    // Detrás de un proxy, server.forward-headers-strategy=framework deja acá la IP del cliente
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("fastbite.ratelimit.rejected")
+                .tag("limiter", "login")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    // Claves nuevas con max-keys lleno: por IP se rechazaron, por cuenta pasaron sin límite
+    private static void overflowed(MeterRegistry meterRegistry, String scope, TokenBuckets buckets) {
+        FunctionCounter.builder("fastbite.ratelimit.overflowed", buckets, TokenBuckets::overflowed)
+                .tag("limiter", "login")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.fastbite.user.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// BCrypt fuera del event loop de Netty.
+// - Pool fijo (por defecto un hilo por core: BCrypt es puro CPU) con cola acotada
+// - Cola llena: PasswordHashingBusyException al instante (503 + Retry-After)
+// - Métricas: executor.queued / executor.active (name=password-hashing),
+//   fastbite.auth.hashing.latency y fastbite.auth.hashing.rejected
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.hashing.threads:0}") int threads,
+                          @Value("${auth.hashing.queue-capacity:100}") int queueCapacity,
+                          @Value("${auth.hashing.retry-after:2s}") Duration retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfter = retryAfter;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing");
+
+        this.encodeTimer = Timer.builder("fastbite.auth.hashing.latency")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("fastbite.auth.hashing.latency")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("fastbite.auth.hashing.rejected")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // El resultado se entrega en el scheduler parallel para liberar el hilo de hashing
+    private <T> Mono<T> submit(Timer timer, Supplier<T> task) {
+        return Mono.fromFuture(() -> CompletableFuture.supplyAsync(() -> timer.record(task), executor))
+                .onErrorMap(RejectedExecutionException.class, e -> {
+                    rejected.increment();
+                    return new PasswordHashingBusyException(retryAfter);
+                })
+                .publishOn(Schedulers.parallel());
+    }
+}
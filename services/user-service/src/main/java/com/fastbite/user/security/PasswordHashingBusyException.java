@@ -0,0 +1,18 @@
+package com.fastbite.user.security;
+
+import java.time.Duration;
+
+// El pool de hashing está lleno: se responde 503 con Retry-After en vez de encolar sin límite
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(Duration retryAfter) {
+        super("Servicio de autenticación saturado, reintentar en " + retryAfter.toSeconds() + "s");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,6 +1,7 @@
 package com.fastbite.user.security;
 
-import com.fastbite.user.security.JwtAuthenticationFilter;
+import com.fastbite.common.security.JwtService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -18,10 +19,11 @@ import reactor.core.publisher.Mono;
 @EnableReactiveMethodSecurity
 public class SecurityConfig {
 
-    private final JwtAuthenticationFilter jwtAuthenticationFilter;
-
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
-        this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+    // Firma los tokens que emite TokenIssuer y valida los que llegan (clave jwt.secret)
+    @Bean
+    public JwtService jwtService(@Value("${jwt.secret}") String secret,
+                                 @Value("${jwt.cache-size:10000}") long cacheSize) {
+        return new JwtService(secret, cacheSize);
     }
 
     @Bean
@@ -30,7 +32,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtService jwtService) {
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
@@ -52,7 +54,7 @@ public class SecurityConfig {
                         // La seguridad real está en el JWT filter que valida tokens
                         .anyExchange().permitAll()
                 )
-                .addFilterAt(jwtAuthenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterAt(new JwtAuthenticationFilter(jwtService), SecurityWebFiltersOrder.AUTHENTICATION)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.fastbite.user.security;
+
+import com.fastbite.common.security.JwtService;
+import com.fastbite.user.model.Role;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+// Emite los tokens de sesión; los demás servicios los validan con la misma clave jwt.secret
+@Component
+public class TokenIssuer {
+
+    private final JwtService jwtService;
+    private final long expiration;
+
+    public TokenIssuer(JwtService jwtService, @Value("${jwt.expiration}") long expiration) {
+        this.jwtService = jwtService;
+        this.expiration = expiration;
+    }
+
+    public String generateToken(String userId, String email, Role role) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + expiration);
+
+        return jwtService.newToken()
+                .subject(userId)
+                .claim("email", email)
+                .claim("role", role.name())
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .compact();
+    }
+}
@@ -5,8 +5,8 @@ import com.fastbite.user.dto.LoginRequest;
 import com.fastbite.user.dto.RegisterRequest;
 import com.fastbite.user.model.User;
 import com.fastbite.user.repository.UserRepository;
-import com.fastbite.user.security.JwtService;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.fastbite.user.security.PasswordHasher;
+import com.fastbite.user.security.TokenIssuer;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -16,15 +16,16 @@ import java.time.Instant;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JwtService jwtService;
+    // BCrypt en su propio pool, nunca en el event loop
+    private final PasswordHasher passwordHasher;
+    private final TokenIssuer tokenIssuer;
 
     public AuthService(UserRepository userRepository, 
-                       PasswordEncoder passwordEncoder,
-                       JwtService jwtService) {
+                       PasswordHasher passwordHasher,
+                       TokenIssuer tokenIssuer) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.jwtService = jwtService;
+        this.passwordHasher = passwordHasher;
+        this.tokenIssuer = tokenIssuer;
     }
 
     public Mono<AuthResponse> register(RegisterRequest request) {
@@ -34,30 +35,31 @@ public class AuthService {
                         return Mono.error(new RuntimeException("Email ya registrado"));
                     }
                     
-                    User user = User.builder()
-                            .email(request.getEmail())
-                            .password(passwordEncoder.encode(request.getPassword()))
-                            .name(request.getName())
-                            .phone(request.getPhone())
-                            .role(request.getRole())
-                            .createdAt(Instant.now())
-                            .updatedAt(Instant.now())
-                            .build();
-                    
-                    return userRepository.save(user);
+                    return passwordHasher.encode(request.getPassword())
+                            .map(hash -> User.builder()
+                                    .email(request.getEmail())
+                                    .password(hash)
+                                    .name(request.getName())
+                                    .phone(request.getPhone())
+                                    .role(request.getRole())
+                                    .createdAt(Instant.now())
+                                    .updatedAt(Instant.now())
+                                    .build());
                 })
+                .flatMap(userRepository::save)
                 .map(this::createAuthResponse);
     }
 
     public Mono<AuthResponse> login(LoginRequest request) {
         return userRepository.findByEmail(request.getEmail())
                 .switchIfEmpty(Mono.error(new RuntimeException("Credenciales inválidas")))
-                .flatMap(user -> {
-                    if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-                        return Mono.error(new RuntimeException("Credenciales inválidas"));
-                    }
-                    return Mono.just(createAuthResponse(user));
-                });
+                .flatMap(user -> passwordHasher.matches(request.getPassword(), user.getPassword())
+                        .flatMap(matches -> {
+                            if (!matches) {
+                                return Mono.error(new RuntimeException("Credenciales inválidas"));
+                            }
+                            return Mono.just(createAuthResponse(user));
+                        }));
     }
 
     public Mono<User> getCurrentUser(String userId) {
@@ -66,7 +68,7 @@ public class AuthService {
     }
 
     private AuthResponse createAuthResponse(User user) {
-        String token = jwtService.generateToken(user.getId(), user.getEmail(), user.getRole());
+        String token = tokenIssuer.generateToken(user.getId(), user.getEmail(), user.getRole());
         
         return AuthResponse.builder()
                 .token(token)
@@ -0,0 +1,21 @@
+package com.fastbite.user.service;
+
+import com.fastbite.user.model.User;
+import com.fastbite.user.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public class UserService {
+
+    private final UserRepository userRepository;
+
+    public UserService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // Vacío si no existe
+    public Mono<User> findById(String id) {
+        return userRepository.findById(id);
+    }
+}
@@ -0,0 +1,77 @@
+package com.fastbite.user.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTest {
+
+    private static final int MAX_KEYS = 1_000_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LoginRateLimiter(meterRegistry, 20, Duration.ofSeconds(3), 5, Duration.ofSeconds(30),
+                MAX_KEYS, Duration.ofMinutes(1));
+    }
+
+    // Status null = el filtro dejó pasar el request
+    private MockServerWebExchange login(String ip) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/login")
+                .remoteAddress(new InetSocketAddress(ip, 40000)));
+        limiter.filter(exchange, unused -> Mono.empty()).block();
+        return exchange;
+    }
+
+    private double overflowed(String scope) {
+        return meterRegistry.get("fastbite.ratelimit.overflowed").tag("scope", scope).functionCounter().count();
+    }
+
+    // Un atacante rota 1M de emails (max-keys por defecto): el mapa por cuenta se llena con
+    // buckets ocupados y ya no se puede barrer; los emails nuevos pasan en vez de recibir 429
+    @Test
+    void rotatingOneMillionEmailsDoesNotLockOutNewAccounts() {
+        int flood = MAX_KEYS + 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < flood; i++) {
+            limiter.tryAcquireAccount("bot" + i + "@example.com");
+        }
+        long nanosPerOp = (System.nanoTime() - start) / flood;
+        System.out.printf("LoginRateLimiter por cuenta, %d emails distintos: %d ns/op%n", flood, nanosPerOp);
+
+        assertThat(limiter.tryAcquireAccount("Cliente@FastBite.com ")).isZero();
+        assertThat(overflowed("user")).isEqualTo(10_001);
+
+        // Las cuentas que ya tenían bucket siguen limitadas
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquireAccount("bot0@example.com")).isZero();
+        }
+        assertThat(limiter.tryAcquireAccount("bot0@example.com")).isPositive();
+    }
+
+    @Test
+    void perIpLimitAnswers429WithRetryAfter() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(login("203.0.113.7").getResponse().getStatusCode()).isNull();
+        }
+
+        MockServerWebExchange exchange = login("203.0.113.7");
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        // Otra IP no comparte el bucket
+        assertThat(login("203.0.113.8").getResponse().getStatusCode()).isNull();
+    }
+}
@@ -0,0 +1,99 @@
+package com.fastbite.user.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicReference<String> hashingThread = new AtomicReference<>();
+    private PasswordHasher hasher;
+
+    // Encoder que anota en qué hilo corre y, si se pide, espera hasta que el test lo suelte
+    private PasswordEncoder encoder(boolean blocking) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashingThread.set(Thread.currentThread().getName());
+                if (blocking) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    @Test
+    void hashingRunsOnItsOwnPool() {
+        hasher = new PasswordHasher(encoder(false), registry, 2, 10, Duration.ofSeconds(2));
+
+        StepVerifier.create(hasher.encode("secreto"))
+                .assertNext(hash -> {
+                    assertThat(hash).isEqualTo("hash:secreto");
+                    // El resultado ya no sigue en el hilo de hashing
+                    assertThat(Thread.currentThread().getName()).doesNotStartWith("password-hashing-");
+                })
+                .verifyComplete();
+        StepVerifier.create(hasher.matches("secreto", "hash:secreto")).expectNext(true).verifyComplete();
+
+        assertThat(hashingThread.get()).startsWith("password-hashing-");
+        assertThat(registry.get("fastbite.auth.hashing.latency").tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediately() {
+        // Un hilo ocupado y un lugar en la cola: el tercer pedido no entra
+        hasher = new PasswordHasher(encoder(true), registry, 1, 1, Duration.ofSeconds(3));
+        hasher.encode("uno").subscribe();
+        hasher.encode("dos").subscribe();
+
+        StepVerifier.create(hasher.encode("tres"))
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(PasswordHashingBusyException.class);
+                    assertThat(((PasswordHashingBusyException) error).getRetryAfter()).isEqualTo(Duration.ofSeconds(3));
+                })
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(registry.get("fastbite.auth.hashing.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void queuedRequestsCompleteOnceAThreadIsFree() {
+        hasher = new PasswordHasher(encoder(true), registry, 1, 1, Duration.ofSeconds(2));
+        StepVerifier first = StepVerifier.create(hasher.encode("uno")).expectNext("hash:uno").expectComplete()
+                .verifyLater();
+        StepVerifier queued = StepVerifier.create(hasher.encode("dos")).expectNext("hash:dos").expectComplete()
+                .verifyLater();
+
+        release.countDown();
+
+        first.verify(Duration.ofSeconds(5));
+        queued.verify(Duration.ofSeconds(5));
+    }
+}
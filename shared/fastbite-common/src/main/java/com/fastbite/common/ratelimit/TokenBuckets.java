@@ -0,0 +1,105 @@
+package com.fastbite.common.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Token buckets por clave (usuario, IP), sin locks.
+// - Cada bucket es un solo AtomicLong: la hora (nanoTime) en que el bucket vuelve a estar
+//   lleno. Tomar un token = correr esa hora refill-every hacia adelante con un CAS;
+//   si queda más de capacity * refill-every en el futuro, el bucket está vacío (GCRA)
+// - El mapa es un ConcurrentHashMap: claves distintas no compiten entre sí
+// - Un bucket que ya se llenó es igual a uno nuevo: evictIdle() lo saca sin perder nada
+// - Con max-keys claves vivas se barren los buckets llenos ahí mismo (a lo sumo uno por
+//   refill-every); si sigue lleno, las claves nuevas se rechazan (falla cerrado). Así un
+//   atacante que rota IPs o emails no puede saltarse el límite llenando el mapa.
+//   Con failOpen las claves nuevas pasan sin bucket: para un límite que va detrás de otro
+//   (por cuenta detrás de por IP), donde rechazar dejaría afuera a usuarios legítimos
+// - Cada clave ocupa ~125 bytes con una IP, algo más con un email (ver
+//   TokenBucketsBenchmarkTest): el max-keys por defecto (1M) son ~150 MB por límite
+public class TokenBuckets {
+
+    private final long refillNanos;
+    private final long burstNanos;
+    private final long maxKeys;
+    private final boolean failOpen;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    // Último barrido forzado por max-keys (nanoTime)
+    private final AtomicLong lastFullSweep;
+
+    // Claves nuevas que llegaron con el mapa lleno (rechazadas o, con failOpen, sin límite)
+    private final LongAdder overflowed = new LongAdder();
+
+    public TokenBuckets(int capacity, Duration refillEvery, long maxKeys) {
+        this(capacity, refillEvery, maxKeys, false);
+    }
+
+    public TokenBuckets(int capacity, Duration refillEvery, long maxKeys, boolean failOpen) {
+        this.refillNanos = Math.max(1, refillEvery.toNanos());
+        this.burstNanos = this.refillNanos * Math.max(1, capacity);
+        this.maxKeys = maxKeys;
+        this.failOpen = failOpen;
+        this.lastFullSweep = new AtomicLong(System.nanoTime() - this.refillNanos);
+    }
+
+    // Duration.ZERO = token tomado; si no, cuánto falta para el próximo token
+    public Duration tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys && !makeRoom(now)) {
+                overflowed.increment();
+                return failOpen ? Duration.ZERO : Duration.ofNanos(refillNanos);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + refillNanos;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return Duration.ofNanos(ahead - burstNanos);
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    // Mapa lleno: barre los buckets llenos si no se barrió en el último refill-every.
+    // Un solo hilo barre; los demás ven el resultado del barrido anterior
+    private boolean makeRoom(long now) {
+        long last = lastFullSweep.get();
+        if (now - last >= refillNanos && lastFullSweep.compareAndSet(last, now)) {
+            evictIdle();
+        }
+        return buckets.size() < maxKeys;
+    }
+
+    // Saca los buckets llenos. Si justo se estaba tomando un token del bucket que sale,
+    // ese token se pierde y la clave arranca con un bucket lleno (a lo sumo un token de más)
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int[] evicted = {0};
+        buckets.entrySet().removeIf(entry -> {
+            boolean idle = entry.getValue().get() - now <= 0;
+            if (idle) {
+                evicted[0]++;
+            }
+            return idle;
+        });
+        return evicted[0];
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long overflowed() {
+        return overflowed.sum();
+    }
+}
@@ -0,0 +1,102 @@
+package com.fastbite.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Firma y valida los tokens de FastBite con la clave compartida jwt.secret.
+// userId (subject) y role vienen firmados en el token: ningún servicio tiene que consultar
+// a user-service para autenticar un request. Cada servicio lo registra como bean
+public class JwtService {
+
+    private final SecretKey key;
+
+    // El parser es inmutable y thread-safe: se arma una sola vez
+    private final JwtParser parser;
+
+    // Claims ya verificados, por digest del token. Cada entrada vence justo en el exp del token,
+    // así una sesión que repite requests no vuelve a verificar la firma ni a parsear el JSON
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtService(String secret, long cacheSize) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        return nanosUntil(claims.getExpiration());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return nanosUntil(claims.getExpiration());
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Builder ya firmado con la clave compartida; el que llama pone subject, claims y exp
+    public JwtBuilder newToken() {
+        return Jwts.builder().signWith(key);
+    }
+
+    // Claims del token, o null si no es válido (firma, formato o vencido)
+    public Claims validateToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String digest = digest(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            // Sin exp no se sabe cuándo vence: no se guarda
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims);
+            }
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // La clave de la caché es el SHA-256 del token, no el token en sí
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long nanosUntil(Date expiration) {
+        long millis = expiration.getTime() - System.currentTimeMillis();
+        return Math.max(0, TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
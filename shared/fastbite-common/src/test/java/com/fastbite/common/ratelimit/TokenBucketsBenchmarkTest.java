@@ -0,0 +1,83 @@
+package com.fastbite.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Costo del limitador con 1M claves distintas (el max-keys por defecto), con varios hilos:
+// - alta: cada llamada es una clave nueva (IPs o emails rotando)
+// - existente: claves ya en el mapa, elegidas al azar (camino normal)
+// - lleno: claves nuevas con max-keys lleno de buckets ocupados (no barre en cada llamada)
+// Además, la memoria que ocupa cada clave, de donde sale el tamaño de max-keys
+class TokenBucketsBenchmarkTest {
+
+    private static final int KEYS = 1_000_000;
+    private static final int THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    @Test
+    void overheadAndMemoryAtOneMillionDistinctKeys() throws Exception {
+        // La clave (String) cuenta: en producción el mapa es quien la retiene
+        long before = usedMemory();
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+        }
+        TokenBuckets buckets = new TokenBuckets(5, Duration.ofHours(1), KEYS);
+
+        double insert = nanosPerOp(KEYS, i -> assertThat(buckets.tryAcquire(keys[i])).isZero());
+        long perKey = (usedMemory() - before) / KEYS;
+        double existing = nanosPerOp(KEYS, i -> buckets.tryAcquire(keys[ThreadLocalRandom.current().nextInt(KEYS)]));
+        double full = nanosPerOp(KEYS, i -> assertThat(buckets.tryAcquire("nueva-" + i)).isPositive());
+
+        System.out.printf("TokenBuckets, %d claves, %d hilos: alta %.0f ns/op, existente %.0f ns/op, "
+                + "lleno %.0f ns/op, ~%d bytes por clave%n", KEYS, THREADS, insert, existing, full, perKey);
+
+        assertThat(buckets.size()).isEqualTo(KEYS);
+        assertThat(buckets.overflowed()).isEqualTo(KEYS);
+        // Holgado para no depender de la máquina: en la práctica no llega a unos pocos µs
+        assertThat(existing).isLessThan(20_000);
+        assertThat(full).isLessThan(20_000);
+    }
+
+    // Reparte [0, operations) entre THREADS hilos y devuelve ns por operación
+    private static double nanosPerOp(int operations, IntConsumer operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                int from = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = from; i < operations; i += THREADS) {
+                        operation.accept(i);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            // Tiempo de pared por operación de cada hilo
+            return (double) (System.nanoTime() - start) * THREADS / operations;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,83 @@
+package com.fastbite.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketsTest {
+
+    @Test
+    void burstIsAllowedAndThenTheWaitIsOneRefill() {
+        TokenBuckets buckets = new TokenBuckets(3, Duration.ofHours(1), 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(buckets.tryAcquire("ip-1")).isZero();
+        }
+        Duration wait = buckets.tryAcquire("ip-1");
+
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofHours(1));
+        // Claves distintas no comparten bucket
+        assertThat(buckets.tryAcquire("ip-2")).isZero();
+    }
+
+    @Test
+    void tokensComeBackAfterRefillEvery() throws InterruptedException {
+        TokenBuckets buckets = new TokenBuckets(1, Duration.ofMillis(20), 100);
+        assertThat(buckets.tryAcquire("user-1")).isZero();
+        assertThat(buckets.tryAcquire("user-1")).isPositive();
+
+        Thread.sleep(40);
+
+        assertThat(buckets.tryAcquire("user-1")).isZero();
+    }
+
+    @Test
+    void onlyFullBucketsAreEvicted() throws InterruptedException {
+        TokenBuckets buckets = new TokenBuckets(1, Duration.ofMillis(20), 100);
+        buckets.tryAcquire("idle");
+        Thread.sleep(40);
+        buckets.tryAcquire("busy");
+
+        assertThat(buckets.evictIdle()).isEqualTo(1);
+        assertThat(buckets.size()).isEqualTo(1);
+        // "busy" conserva su estado: sigue sin tokens
+        assertThat(buckets.tryAcquire("busy")).isPositive();
+    }
+
+    @Test
+    void newKeysAreRejectedWhenMaxKeysAreBusy() {
+        TokenBuckets buckets = new TokenBuckets(1, Duration.ofHours(1), 2);
+        buckets.tryAcquire("ip-1");
+        buckets.tryAcquire("ip-2");
+
+        assertThat(buckets.tryAcquire("ip-3")).isPositive();
+        assertThat(buckets.size()).isEqualTo(2);
+    }
+
+    @Test
+    void fullBucketsMakeRoomForNewKeysAtMaxKeys() throws InterruptedException {
+        TokenBuckets buckets = new TokenBuckets(1, Duration.ofMillis(20), 2);
+        buckets.tryAcquire("ip-1");
+        buckets.tryAcquire("ip-2");
+        Thread.sleep(40);
+
+        assertThat(buckets.tryAcquire("ip-3")).isZero();
+        assertThat(buckets.size()).isEqualTo(1);
+    }
+
+    @Test
+    void failOpenLetsNewKeysThroughWhenFull() {
+        TokenBuckets buckets = new TokenBuckets(1, Duration.ofHours(1), 2, true);
+        buckets.tryAcquire("a@fastbite.com");
+        buckets.tryAcquire("b@fastbite.com");
+
+        assertThat(buckets.tryAcquire("c@fastbite.com")).isZero();
+        assertThat(buckets.tryAcquire("c@fastbite.com")).isZero();
+        // Las claves que ya tenían bucket siguen limitadas
+        assertThat(buckets.tryAcquire("a@fastbite.com")).isPositive();
+        assertThat(buckets.size()).isEqualTo(2);
+        assertThat(buckets.overflowed()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,53 @@
+package com.fastbite.common.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "fastbite-test-secret-de-al-menos-32-bytes!";
+
+    private final JwtService jwtService = new JwtService(SECRET, 100);
+
+    private static String token(JwtService signer, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return signer.newToken()
+                .subject("user-1")
+                .claim("role", "CLIENTE")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMillis))
+                .compact();
+    }
+
+    @Test
+    void tokenSignedWithTheSharedSecretIsValidOnAnotherInstance() {
+        // Otro servicio con el mismo jwt.secret
+        JwtService otherService = new JwtService(SECRET, 100);
+
+        Claims claims = otherService.validateToken(token(jwtService, 60_000));
+
+        assertThat(claims.getSubject()).isEqualTo("user-1");
+        assertThat(claims.get("role", String.class)).isEqualTo("CLIENTE");
+    }
+
+    @Test
+    void cachedClaimsAreReturnedForTheSameToken() {
+        String token = token(jwtService, 60_000);
+
+        assertThat(jwtService.validateToken(token)).isSameAs(jwtService.validateToken(token));
+    }
+
+    @Test
+    void invalidTokensAreRejected() {
+        JwtService foreign = new JwtService("otra-clave-distinta-de-al-menos-32-bytes!!", 100);
+
+        assertThat(jwtService.validateToken(token(foreign, 60_000))).isNull();
+        assertThat(jwtService.validateToken(token(jwtService, -60_000))).isNull();
+        assertThat(jwtService.validateToken("basura")).isNull();
+        assertThat(jwtService.validateToken(null)).isNull();
+    }
+}